@@ -1,11 +1,15 @@
 package com.fileManagement.FileManagement.config;
 
+import java.time.Duration;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
 
 @Configuration
@@ -20,6 +24,18 @@ public class AwsS3Config {
     @Value("${aws.s3.region}")
     private String region;
 
+    @Value("${aws.s3.async.maxConcurrency:500}")
+    private int asyncMaxConcurrency;
+
+    @Value("${aws.s3.async.maxPendingConnectionAcquires:10000}")
+    private int asyncMaxPendingConnectionAcquires;
+
+    @Value("${aws.s3.async.connectionAcquisitionTimeout:60s}")
+    private Duration asyncConnectionAcquisitionTimeout;
+
+    @Value("${aws.s3.async.readTimeout:30s}")
+    private Duration asyncReadTimeout;
+
     @Bean
     public S3Client s3Client() {
         AwsBasicCredentials awsCredentials = AwsBasicCredentials.create(accessKey, secretKey);
@@ -29,4 +45,25 @@ public class AwsS3Config {
                 .credentialsProvider(StaticCredentialsProvider.create(awsCredentials))
                 .build();
     }
+
+    /**
+     * Non-blocking client for the async service operations. Requests wait for one of
+     * {@code maxConcurrency} pooled connections on the Netty event loop instead of holding a thread,
+     * and fail once more than {@code maxPendingConnectionAcquires} are queued.
+     */
+    @Bean
+    public S3AsyncClient s3AsyncClient() {
+        AwsBasicCredentials awsCredentials = AwsBasicCredentials.create(accessKey, secretKey);
+
+        return S3AsyncClient.builder()
+                .region(Region.of(region))
+                .credentialsProvider(StaticCredentialsProvider.create(awsCredentials))
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                        .maxConcurrency(asyncMaxConcurrency)
+                        .maxPendingConnectionAcquires(asyncMaxPendingConnectionAcquires)
+                        .connectionAcquisitionTimeout(asyncConnectionAcquisitionTimeout)
+                        .readTimeout(asyncReadTimeout)
+                        .tcpKeepAlive(true))
+                .build();
+    }
 }
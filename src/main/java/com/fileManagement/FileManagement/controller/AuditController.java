@@ -0,0 +1,92 @@
+package com.fileManagement.FileManagement.controller;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fileManagement.FileManagement.dto.LogQuery;
+import com.fileManagement.FileManagement.entity.FileOperationRollup;
+import com.fileManagement.FileManagement.service.LoggingService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/audit")
+@RequiredArgsConstructor
+@CrossOrigin(origins="*")
+
+public class AuditController {
+
+    private final LoggingService loggingService;
+
+    /**
+     * Streams every matching audit row as NDJSON or CSV, optionally gzipped, without materializing
+     * the result set.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportLogs(
+            @RequestParam(value = "format", defaultValue = "ndjson") String format,
+            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip,
+            @RequestParam(value = "username", required = false) String username,
+            @RequestParam(value = "path", required = false) String pathPrefix,
+            @RequestParam(value = "operation", required = false) String operation,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        
+        if (!"ndjson".equals(format) && !"csv".equals(format)) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        LogQuery query = LogQuery.builder()
+                .username(username)
+                .pathPrefix(pathPrefix)
+                .operation(operation)
+                .from(from)
+                .to(to)
+                .build();
+        
+        StreamingResponseBody body = outputStream -> {
+            if (gzip) {
+                GZIPOutputStream gzipStream = new GZIPOutputStream(outputStream, 64 * 1024);
+                loggingService.exportLogs(query, format, gzipStream);
+                gzipStream.finish();
+            } else {
+                loggingService.exportLogs(query, format, outputStream);
+            }
+        };
+        
+        String fileName = "audit-logs." + format + (gzip ? ".gz" : "");
+        MediaType contentType = gzip ? MediaType.parseMediaType("application/gzip")
+                : "csv".equals(format) ? MediaType.parseMediaType("text/csv; charset=UTF-8")
+                : MediaType.parseMediaType("application/x-ndjson");
+        
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(contentType)
+                .body(body);
+    }
+
+    @GetMapping("/rollups")
+    public ResponseEntity<List<FileOperationRollup>> getRollups(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(value = "username", required = false) String username,
+            @RequestParam(value = "operation", required = false) String operation) {
+        
+        LogQuery query = LogQuery.builder()
+                .username(username)
+                .operation(operation)
+                .from(from)
+                .to(to)
+                .build();
+        
+        return ResponseEntity.ok(loggingService.getRollups(query));
+    }
+}
@@ -0,0 +1,25 @@
+package com.fileManagement.FileManagement.controller;
+
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.fileManagement.FileManagement.service.CacheService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/cache")
+@RequiredArgsConstructor
+@CrossOrigin(origins="*")
+
+public class CacheController {
+
+    private final CacheService cacheService;
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Map<String, Object>>> getStats() {
+        return ResponseEntity.ok(cacheService.getStats());
+    }
+}
@@ -1,26 +1,50 @@
 package com.fileManagement.FileManagement.controller;
 
+import java.io.IOException;
 import java.net.URLEncoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fileManagement.FileManagement.dto.BulkOperationRequest;
+import com.fileManagement.FileManagement.dto.BulkOperationResponse;
 import com.fileManagement.FileManagement.dto.FileDto;
 import com.fileManagement.FileManagement.dto.FileOperationRequest;
 import com.fileManagement.FileManagement.dto.FileUploadResponse;
-import com.fileManagement.FileManagement.entity.FileOperationLog;
+import com.fileManagement.FileManagement.dto.LogQuery;
+import com.fileManagement.FileManagement.dto.PageDto;
 import com.fileManagement.FileManagement.exceptions.FileStorageException;
+import com.fileManagement.FileManagement.exceptions.ObjectChangedException;
+import com.fileManagement.FileManagement.entity.FileOperationLog;
+import com.fileManagement.FileManagement.service.BulkOperationService;
 import com.fileManagement.FileManagement.service.FileStorageService;
 import com.fileManagement.FileManagement.service.LoggingService;
+import com.fileManagement.FileManagement.service.StorageBackend;
+import com.fileManagement.FileManagement.service.StoredObject;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
@@ -33,6 +57,7 @@ public class FileController {
 
     private final FileStorageService fileStorageService;
     private final LoggingService loggingService;
+    private final BulkOperationService bulkOperationService;
 
     @PostMapping("/upload")
     public ResponseEntity<FileUploadResponse> uploadFile(
@@ -44,90 +69,342 @@ public class FileController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/upload/batch")
+    public ResponseEntity<List<FileUploadResponse>> uploadFiles(
+            @RequestParam("files") List<MultipartFile> files,
+            @RequestParam("path") String folderPath,
+            @RequestParam(value = "username", defaultValue = "anonymous") String username) {
+        
+        List<FileUploadResponse> responses = fileStorageService.uploadFiles(folderPath, files, username);
+        boolean allSucceeded = responses.stream().allMatch(r -> "SUCCESS".equals(r.getStatus()));
+        return ResponseEntity.status(allSucceeded ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS).body(responses);
+    }
+
+    /**
+     * Streaming ingestion: the raw request body is the file content and is piped into S3 as it
+     * arrives. Unlike {@code /upload}, nothing is parsed or spooled by the servlet container first,
+     * so clients should send the file bytes directly (not multipart/form-data) with their Content-Type.
+     */
+    @PostMapping("/upload/stream")
+    public ResponseEntity<FileUploadResponse> uploadFileStream(
+            @RequestParam("path") String folderPath,
+            @RequestParam("fileName") String fileName,
+            @RequestParam(value = "username", defaultValue = "anonymous") String username,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            HttpServletRequest request) throws IOException {
+        
+        FileUploadResponse response = fileStorageService.uploadFileStream(
+                folderPath, fileName, contentType, request.getInputStream(), username);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
     @GetMapping("/download")
-    public ResponseEntity<Resource> downloadFile(
+    public ResponseEntity<StreamingResponseBody> downloadFile(
             @RequestParam("path") String filePath,
-            @RequestParam(value = "username", defaultValue = "anonymous") String username) {
+            @RequestParam(value = "username", defaultValue = "anonymous") String username,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String rangeHeader,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            @RequestParam(value = "verify", defaultValue = "false") boolean verify) {
         
-        try {
-            byte[] data = fileStorageService.downloadFile(filePath, username);
-            ByteArrayResource resource = new ByteArrayResource(data);
-            
-            String fileName = filePath.substring(filePath.lastIndexOf('/') + 1);
-            String encodedFileName = URLEncoder.encode(fileName, StandardCharsets.UTF_8.toString())
-                    .replace("+", "%20");
+        String fileName = filePath.substring(filePath.lastIndexOf('/') + 1);
+        String encodedFileName = URLEncoder.encode(fileName, StandardCharsets.UTF_8)
+                .replace("+", "%20");
+        String contentDisposition = "attachment; filename=\"" + encodedFileName + "\"";
+        
+        // The client sent no precondition of its own, so a ranged read that races a change is retried
+        // once with fresh details (the failed read evicts the cached ones) and then served whole
+        for (int attempt = 0; rangeHeader != null && attempt < 2; attempt++) {
+            FileDto details = fileStorageService.getFileDetails(filePath);
             
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + encodedFileName + "\"")
-                    .contentLength(data.length)
+            if (ifRange != null && !ifRangeMatches(ifRange, details)) {
+                break;
+            }
+            try {
+                return downloadRanges(filePath, username, rangeHeader, details, contentDisposition);
+            } catch (ObjectChangedException e) {
+                // Fall through to the next attempt, or to the full download after the last one
+            }
+        }
+        
+        if (!verify) {
+            Optional<FileStorageService.CachedFile> cachedFile = fileStorageService.findCachedFile(filePath, username);
+            if (cachedFile.isPresent()) {
+                return sendCachedFile(cachedFile.get(), contentDisposition);
+            }
+        }
+        
+        StoredObject objectStream = fileStorageService.downloadFileStream(filePath, username, verify);
+        StorageBackend.ObjectInfo object = objectStream.info();
+        
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .eTag(object.eTag())
+                .lastModified(object.lastModified())
+                .contentLength(object.size())
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(streamObject(objectStream));
+    }
+
+    private ResponseEntity<StreamingResponseBody> downloadRanges(String filePath, String username, String rangeHeader,
+            FileDto details, String contentDisposition) {
+        long length = details.getSize();
+        List<long[]> ranges = new ArrayList<>();
+        
+        try {
+            // No byte range of an empty object is satisfiable
+            if (length == 0) {
+                throw new IllegalArgumentException("Empty object");
+            }
+            for (HttpRange range : HttpRange.parseRanges(rangeHeader)) {
+                long start = range.getRangeStart(length);
+                // HttpRange resolves a first position at or past the end to start > end rather than failing
+                if (start >= length) {
+                    throw new IllegalArgumentException("Range starts past the end: " + start);
+                }
+                ranges.add(new long[] { start, range.getRangeEnd(length) });
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+                    .build();
+        }
+        
+        // Every ranged GET is conditional on the ETag the length came from, so all parts describe one
+        // version; the first is opened up front so a changed object can still be retried by the caller.
+        // The request is audited once, when that first part opens.
+        StoredObject first;
+        try {
+            first = openRange(filePath, ranges.get(0), details);
+        } catch (ObjectChangedException e) {
+            throw e;
+        } catch (FileStorageException e) {
+            loggingService.logOperation(username, "DOWNLOAD", filePath, null, "FAILED", e.getMessage());
+            throw e;
+        }
+        loggingService.logOperation(username, "DOWNLOAD", filePath, null, "SUCCESS", null);
+        
+        if (ranges.size() == 1) {
+            long[] range = ranges.get(0);
+            return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition)
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes " + range[0] + "-" + range[1] + "/" + length)
+                    .eTag(details.getETag())
+                    .contentLength(range[1] - range[0] + 1)
                     .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                    .body(resource);
-        } catch (Exception e) {
-            throw new FileStorageException("Failed to download file: " + e.getMessage());
+                    .body(streamObject(first));
         }
+        
+        // multipart/byteranges: each part is fetched with its own ranged GET only when the previous one is written
+        String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+        String partContentType = details.getContentType() != null ? details.getContentType() : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        
+        StreamingResponseBody body = outputStream -> {
+            StoredObject next = first;
+            try {
+                for (long[] range : ranges) {
+                    String partHeader = "\r\n--" + boundary + "\r\n"
+                            + HttpHeaders.CONTENT_TYPE + ": " + partContentType + "\r\n"
+                            + HttpHeaders.CONTENT_RANGE + ": bytes " + range[0] + "-" + range[1] + "/" + length + "\r\n\r\n";
+                    outputStream.write(partHeader.getBytes(StandardCharsets.US_ASCII));
+                    
+                    StoredObject objectStream = next != null ? next : openRange(filePath, range, details);
+                    next = null;
+                    objectStream.transferToAndClose(outputStream);
+                }
+            } finally {
+                if (next != null) {
+                    next.abort();
+                }
+            }
+            outputStream.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+        };
+        
+        return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                .header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .eTag(details.getETag())
+                .contentType(MediaType.parseMediaType("multipart/byteranges; boundary=" + boundary))
+                .body(body);
+    }
+
+    private StoredObject openRange(String filePath, long[] range, FileDto details) {
+        return fileStorageService.downloadFileRange(filePath, "bytes=" + range[0] + "-" + range[1], details.getETag());
+    }
+
+    /**
+     * If-Range holds either an entity tag or an HTTP date; ranges are only honoured when it still
+     * matches the current object, otherwise the whole object is sent.
+     */
+    private boolean ifRangeMatches(String ifRange, FileDto details) {
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(details.getETag());
+        }
+        if (ifRange.startsWith("W/")) {
+            return false;
+        }
+        try {
+            Instant since = ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            Instant lastModified = details.getLastModified().atZone(ZoneId.systemDefault()).toInstant();
+            return since.getEpochSecond() == lastModified.getEpochSecond();
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Serves a disk cache hit from the channel the cache opened, with the ETag of the details it was
+     * matched against and the length of the file itself. The bytes are copied through the servlet
+     * output stream; Tomcat's sendfile is not used because it reopens the file by name, which
+     * eviction may already have removed.
+     */
+    private ResponseEntity<StreamingResponseBody> sendCachedFile(FileStorageService.CachedFile cachedFile,
+            String contentDisposition) {
+        FileDto details = cachedFile.details();
+        long length;
+        try {
+            length = cachedFile.channel().size();
+        } catch (IOException e) {
+            try {
+                cachedFile.channel().close();
+            } catch (IOException closeFailure) {
+                e.addSuppressed(closeFailure);
+            }
+            throw new FileStorageException("Failed to read cached copy of " + details.getPath() + ": " + e.getMessage());
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .eTag(details.getETag())
+                .lastModified(details.getLastModified().atZone(ZoneId.systemDefault()))
+                .contentLength(length)
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(outputStream -> {
+                    try (FileChannel channel = cachedFile.channel()) {
+                        WritableByteChannel target = Channels.newChannel(outputStream);
+                        long position = 0;
+                        while (position < length) {
+                            long transferred = channel.transferTo(position, length - position, target);
+                            if (transferred <= 0) {
+                                throw new IOException("Cached copy of " + details.getPath() + " ended at " + position
+                                        + " of " + length + " bytes");
+                            }
+                            position += transferred;
+                        }
+                    }
+                });
     }
 
+    private StreamingResponseBody streamObject(StoredObject objectStream) {
+        // Client going away or storage stalling aborts the body instead of draining the rest of the object
+        return objectStream::transferToAndClose;
+    }
+
+    // The metadata endpoints below return futures: the servlet thread is released while the
+    // storage requests are in flight, and the response is written when they complete.
+
     @DeleteMapping
-    public ResponseEntity<Void> deleteFile(
+    public CompletableFuture<ResponseEntity<Void>> deleteFile(
             @Valid @RequestBody FileOperationRequest request) {
         
-        boolean result = fileStorageService.deleteFile(request.getPath(), request.getUsername());
-        return result ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+        return fileStorageService.deleteFileAsync(request.getPath(), request.getUsername())
+                .thenApply(result -> result ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build());
     }
 
     @PutMapping("/rename")
-    public ResponseEntity<Void> renameFile(
+    public CompletableFuture<ResponseEntity<Void>> renameFile(
             @Valid @RequestBody FileOperationRequest request) {
         
         if (request.getNewName() == null || request.getNewName().isEmpty()) {
-            return ResponseEntity.badRequest().build();
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
         }
         
-        boolean result = fileStorageService.renameFile(request.getPath(), request.getNewName(), request.getUsername());
-        return result ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
+        return fileStorageService.renameFileAsync(request.getPath(), request.getNewName(), request.getUsername())
+                .thenApply(result -> result ? ResponseEntity.ok().build() : ResponseEntity.notFound().build());
     }
 
     @PutMapping("/move")
-    public ResponseEntity<Void> moveFile(
+    public CompletableFuture<ResponseEntity<Void>> moveFile(
             @Valid @RequestBody FileOperationRequest request) {
         
         if (request.getDestinationPath() == null || request.getDestinationPath().isEmpty()) {
-            return ResponseEntity.badRequest().build();
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
         }
         
-        boolean result = fileStorageService.moveFile(request.getPath(), request.getDestinationPath(), request.getUsername());
-        return result ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
+        return fileStorageService.moveFileAsync(request.getPath(), request.getDestinationPath(), request.getUsername())
+                .thenApply(result -> result ? ResponseEntity.ok().build() : ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkOperationResponse> bulkOperation(
+            @Valid @RequestBody BulkOperationRequest request) {
+        
+        BulkOperationResponse response = bulkOperationService.execute(request);
+        return ResponseEntity.status(response.getFailed() == 0 ? HttpStatus.OK : HttpStatus.MULTI_STATUS).body(response);
     }
 
     @GetMapping("/list")
-    public ResponseEntity<List<FileDto>> listFiles(
+    public CompletableFuture<ResponseEntity<List<FileDto>>> listFiles(
             @RequestParam("path") String folderPath) {
         
-        List<FileDto> files = fileStorageService.listFiles(folderPath);
-        return ResponseEntity.ok(files);
+        return fileStorageService.listFilesAsync(folderPath).thenApply(ResponseEntity::ok);
+    }
+
+    @GetMapping(value = "/list", params = "pageSize")
+    public CompletableFuture<ResponseEntity<PageDto<FileDto>>> listFilesPage(
+            @RequestParam("path") String folderPath,
+            @RequestParam("pageSize") int pageSize,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "sort", defaultValue = "name") String sort) {
+        
+        return fileStorageService.listFilesAsync(folderPath, pageSize, cursor, sort).thenApply(ResponseEntity::ok);
     }
 
     @GetMapping("/info")
-    public ResponseEntity<FileDto> getFileInfo(
+    public CompletableFuture<ResponseEntity<FileDto>> getFileInfo(
             @RequestParam("path") String filePath) {
         
-        FileDto fileDto = fileStorageService.getFileDetails(filePath);
-        return ResponseEntity.ok(fileDto);
+        return fileStorageService.getFileDetailsAsync(filePath).thenApply(ResponseEntity::ok);
     }
 
     @GetMapping("/logs")
-    public ResponseEntity<List<FileOperationLog>> getFileLogs(
-            @RequestParam("path") String filePath) {
+    public ResponseEntity<PageDto<FileOperationLog>> getFileLogs(
+            @RequestParam("path") String filePath,
+            @RequestParam(value = "operation", required = false) String operation,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        
+        LogQuery query = LogQuery.builder()
+                .filePath(filePath)
+                .operation(operation)
+                .from(from)
+                .to(to)
+                .build();
         
-        List<FileOperationLog> logs = loggingService.getLogsByFilePath(filePath);
+        PageDto<FileOperationLog> logs = loggingService.searchLogs(query, cursor, limit);
         return ResponseEntity.ok(logs);
     }
 
     @GetMapping("/logs/user")
-    public ResponseEntity<List<FileOperationLog>> getUserLogs(
-            @RequestParam("username") String username) {
+    public ResponseEntity<PageDto<FileOperationLog>> getUserLogs(
+            @RequestParam("username") String username,
+            @RequestParam(value = "operation", required = false) String operation,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        
+        LogQuery query = LogQuery.builder()
+                .username(username)
+                .operation(operation)
+                .from(from)
+                .to(to)
+                .build();
         
-        List<FileOperationLog> logs = loggingService.getLogsByUsername(username);
+        PageDto<FileOperationLog> logs = loggingService.searchLogs(query, cursor, limit);
         return ResponseEntity.ok(logs);
     }
 }
@@ -1,14 +1,29 @@
 package com.fileManagement.FileManagement.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fileManagement.FileManagement.dto.ArchiveImportResponse;
 import com.fileManagement.FileManagement.dto.FileDto;
 import com.fileManagement.FileManagement.dto.FileOperationRequest;
 import com.fileManagement.FileManagement.dto.FolderDto;
+import com.fileManagement.FileManagement.dto.FolderJobRequest;
+import com.fileManagement.FileManagement.dto.PageDto;
+import com.fileManagement.FileManagement.entity.FolderJob;
+import com.fileManagement.FileManagement.service.FolderJobService;
 import com.fileManagement.FileManagement.service.FolderService;
 
 import jakarta.validation.Valid;
@@ -22,13 +37,14 @@ import lombok.RequiredArgsConstructor;
 public class FolderController {
 
     private final FolderService folderService;
+    private final FolderJobService folderJobService;
 
     @PostMapping
-    public ResponseEntity<Void> createFolder(
+    public CompletableFuture<ResponseEntity<Void>> createFolder(
             @Valid @RequestBody FileOperationRequest request) {
         
-        boolean result = folderService.createFolder(request.getPath(), request.getUsername());
-        return result ? ResponseEntity.status(HttpStatus.CREATED).build() : ResponseEntity.badRequest().build();
+        return folderService.createFolderAsync(request.getPath(), request.getUsername())
+                .thenApply(result -> result ? ResponseEntity.status(HttpStatus.CREATED).build() : ResponseEntity.badRequest().build());
     }
 
     @DeleteMapping
@@ -64,18 +80,74 @@ public class FolderController {
     }
 
     @GetMapping("/list")
-    public ResponseEntity<List<FileDto>> listFolderContents(
+    public CompletableFuture<ResponseEntity<List<FileDto>>> listFolderContents(
             @RequestParam("path") String folderPath) {
         
-        List<FileDto> contents = folderService.listFolderContents(folderPath);
-        return ResponseEntity.ok(contents);
+        return folderService.listFolderContentsAsync(folderPath).thenApply(ResponseEntity::ok);
+    }
+
+    @GetMapping(value = "/list", params = "pageSize")
+    public CompletableFuture<ResponseEntity<PageDto<FileDto>>> listFolderContentsPage(
+            @RequestParam("path") String folderPath,
+            @RequestParam("pageSize") int pageSize,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "sort", defaultValue = "name") String sort) {
+        
+        return folderService.listFolderContentsAsync(folderPath, pageSize, cursor, sort).thenApply(ResponseEntity::ok);
+    }
+
+    @GetMapping("/download")
+    public ResponseEntity<StreamingResponseBody> downloadFolder(
+            @RequestParam("path") String folderPath,
+            @RequestParam(value = "username", defaultValue = "anonymous") String username) {
+        
+        String trimmed = folderPath.endsWith("/") ? folderPath.substring(0, folderPath.length() - 1) : folderPath;
+        String folderName = trimmed.isEmpty() ? "root" : trimmed.substring(trimmed.lastIndexOf('/') + 1);
+        String encodedFileName = URLEncoder.encode(folderName + ".zip", StandardCharsets.UTF_8)
+                .replace("+", "%20");
+        
+        StreamingResponseBody body = outputStream -> folderService.downloadFolderAsZip(folderPath, username, outputStream);
+        
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + encodedFileName + "\"")
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .body(body);
+    }
+
+    @PostMapping("/import")
+    public ResponseEntity<ArchiveImportResponse> importArchive(
+            @RequestParam("file") MultipartFile archive,
+            @RequestParam("path") String folderPath,
+            @RequestParam(value = "username", defaultValue = "anonymous") String username) throws IOException {
+        
+        try (InputStream archiveStream = archive.getInputStream()) {
+            ArchiveImportResponse response = folderService.importArchive(folderPath, archiveStream, username);
+            return ResponseEntity.ok(response);
+        }
+    }
+
+    @PostMapping("/jobs")
+    public ResponseEntity<FolderJob> submitJob(
+            @Valid @RequestBody FolderJobRequest request) {
+        
+        FolderJob job = folderJobService.submitJob(request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/folders/jobs/" + job.getId()))
+                .body(job);
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<FolderJob> getJob(@PathVariable Long id) {
+        return folderJobService.getJob(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/hierarchy")
-    public ResponseEntity<FolderDto> getFolderHierarchy(
-            @RequestParam("path") String folderPath) {
+    public CompletableFuture<ResponseEntity<FolderDto>> getFolderHierarchy(
+            @RequestParam("path") String folderPath,
+            @RequestParam(value = "depth", defaultValue = "-1") int depth) {
         
-        FolderDto hierarchy = folderService.getFolderHierarchy(folderPath);
-        return ResponseEntity.ok(hierarchy);
+        return folderService.getFolderHierarchyAsync(folderPath, depth).thenApply(ResponseEntity::ok);
     }
 }
@@ -0,0 +1,19 @@
+package com.fileManagement.FileManagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchiveImportResponse {
+    private String targetPath;
+    private int succeeded;
+    private int failed;
+    private List<FileUploadResponse> entries;
+}
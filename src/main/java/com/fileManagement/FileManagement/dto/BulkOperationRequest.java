@@ -0,0 +1,41 @@
+package com.fileManagement.FileManagement.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOperationRequest {
+    private String username;
+
+    @NotEmpty(message = "At least one operation is required")
+    @Size(max = 1000, message = "At most 1000 operations per request")
+    private List<@Valid Item> operations;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        @NotBlank(message = "Operation is required")
+        @Pattern(regexp = "DELETE|MOVE|RENAME", message = "Operation must be DELETE, MOVE or RENAME")
+        private String operation;
+
+        @NotBlank(message = "Path is required")
+        private String path;
+
+        private String destinationPath;
+        private String newName;
+    }
+}
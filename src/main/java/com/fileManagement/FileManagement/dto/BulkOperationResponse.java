@@ -0,0 +1,30 @@
+package com.fileManagement.FileManagement.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOperationResponse {
+    private int succeeded;
+    private int failed;
+    private List<Result> results; // in request order
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Result {
+        private String operation;
+        private String path;
+        private String destinationPath;
+        private String status; // "SUCCESS" or "FAILED"
+        private String message;
+    }
+}
@@ -18,4 +18,7 @@ public class FileDto {
     private LocalDateTime lastModified;
     private String type; // "FILE" or "FOLDER"
     private String contentType;
+    private String eTag;
+    private String checksumSha256; // "<base64>-<parts>" for multipart uploads
+    private String checksumCrc32c;
 }
@@ -15,5 +15,8 @@ public class FileUploadResponse {
     private String filePath;
     private String contentType;
     private long size;
+    private String status; // "SUCCESS" or "FAILED"
+    private String checksumSha256;
+    private String checksumCrc32c;
     private String message;
 }
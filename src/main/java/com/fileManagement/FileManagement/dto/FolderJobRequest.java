@@ -0,0 +1,25 @@
+package com.fileManagement.FileManagement.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FolderJobRequest {
+    @NotBlank(message = "Operation is required")
+    @Pattern(regexp = "DELETE|RENAME|MOVE", message = "Operation must be DELETE, RENAME or MOVE")
+    private String operation;
+
+    @NotBlank(message = "Path is required")
+    private String path;
+
+    private String destinationPath;
+    private String newName;
+    private String username;
+}
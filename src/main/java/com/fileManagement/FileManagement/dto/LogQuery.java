@@ -0,0 +1,21 @@
+package com.fileManagement.FileManagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LogQuery {
+    private String username;
+    private String filePath;   // exact match
+    private String pathPrefix;
+    private String operation;
+    private LocalDateTime from; // inclusive
+    private LocalDateTime to;   // exclusive
+}
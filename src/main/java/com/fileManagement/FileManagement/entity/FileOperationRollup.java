@@ -0,0 +1,45 @@
+package com.fileManagement.FileManagement.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "file_operation_rollups_hourly")
+@IdClass(FileOperationRollup.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileOperationRollup {
+
+    @Id
+    private LocalDateTime bucketStart;
+
+    @Id
+    private String username;
+
+    @Id
+    private String operation;
+
+    @Id
+    private String status;
+
+    @Column(nullable = false)
+    private long opCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDateTime bucketStart;
+        private String username;
+        private String operation;
+        private String status;
+    }
+}
@@ -0,0 +1,59 @@
+package com.fileManagement.FileManagement.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A folder delete/rename/move running in the background. Keys are processed in listing order, and
+ * {@code lastKey} records the last one handled so an interrupted job continues from there.
+ */
+@Entity
+@Table(name = "folder_jobs", indexes = @Index(name = "idx_folder_jobs_status", columnList = "status"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FolderJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String operation; // "DELETE_FOLDER", "RENAME_FOLDER" or "MOVE_FOLDER"
+
+    @Column(nullable = false)
+    private String sourcePath;
+
+    private String destinationPath;
+
+    private String username;
+
+    @Column(nullable = false)
+    private String status; // "QUEUED", "RUNNING", "SUCCEEDED" or "FAILED"
+
+    @Column(length = 1024)
+    private String lastKey;
+
+    private Long totalKeys; // null until the source has been counted
+    private long processedKeys;
+    private long failedKeys;
+
+    @Column(length = 1000)
+    private String errorMessage;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+    private LocalDateTime finishedAt;
+
+    public Long getRemainingKeys() {
+        return totalKeys == null ? null : Math.max(0, totalKeys - processedKeys - failedKeys);
+    }
+}
@@ -0,0 +1,11 @@
+package com.fileManagement.FileManagement.exceptions;
+
+/**
+ * A request the client has to change before it can succeed (bad parameter, cursor or path); mapped
+ * to 400 Bad Request.
+ */
+public class InvalidRequestException extends RuntimeException {
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
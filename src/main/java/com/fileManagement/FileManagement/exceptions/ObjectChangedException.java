@@ -0,0 +1,15 @@
+package com.fileManagement.FileManagement.exceptions;
+
+/**
+ * The object no longer has the version (ETag) a conditional read was made against; mapped to
+ * 412 Precondition Failed.
+ */
+public class ObjectChangedException extends FileStorageException {
+    public ObjectChangedException(String message) {
+        super(message);
+    }
+
+    public ObjectChangedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
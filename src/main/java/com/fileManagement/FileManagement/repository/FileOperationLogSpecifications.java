@@ -0,0 +1,77 @@
+package com.fileManagement.FileManagement.repository;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.query.sqm.NodeBuilder;
+import org.hibernate.query.sqm.tree.expression.SqmExpression;
+import org.hibernate.query.sqm.tree.expression.SqmTuple;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.fileManagement.FileManagement.dto.LogQuery;
+import com.fileManagement.FileManagement.entity.FileOperationLog;
+
+/**
+ * Predicates for audit log searches. Each one lines up with an index in schema.sql: username with
+ * (username, timestamp, id), an exact file path with (file_path, timestamp, id), and path prefixes
+ * with the text_pattern_ops leading column, which is what lets Postgres turn {@code LIKE 'prefix%'}
+ * into an index range scan.
+ *
+ * <p>Only the equality forms come back from their index already in (timestamp, id) order. A prefix
+ * range spans many file_path values, so Postgres has to collect every match and sort it before
+ * it can return the first page; keyset paging still works but each page costs as much as the whole
+ * match set. Prefix searches are therefore only paged inside a from/to window (see
+ * LoggingServiceImpl.searchLogs).
+ */
+public final class FileOperationLogSpecifications {
+
+    private FileOperationLogSpecifications() {
+    }
+
+    public static Specification<FileOperationLog> matching(LogQuery query) {
+        Specification<FileOperationLog> spec = Specification.where(null);
+
+        if (query.getUsername() != null) {
+            spec = spec.and((root, cq, cb) -> cb.equal(root.get("username"), query.getUsername()));
+        }
+        if (query.getFilePath() != null) {
+            spec = spec.and((root, cq, cb) -> cb.equal(root.get("filePath"), query.getFilePath()));
+        }
+        if (query.getPathPrefix() != null && !query.getPathPrefix().isEmpty()) {
+            String pattern = escapeLike(query.getPathPrefix()) + "%";
+            spec = spec.and((root, cq, cb) -> cb.like(root.get("filePath"), pattern, '\\'));
+        }
+        if (query.getOperation() != null) {
+            spec = spec.and((root, cq, cb) -> cb.equal(root.get("operation"), query.getOperation()));
+        }
+        if (query.getFrom() != null) {
+            spec = spec.and((root, cq, cb) -> cb.greaterThanOrEqualTo(root.get("timestamp"), query.getFrom()));
+        }
+        if (query.getTo() != null) {
+            spec = spec.and((root, cq, cb) -> cb.lessThan(root.get("timestamp"), query.getTo()));
+        }
+
+        return spec;
+    }
+
+    /**
+     * Keyset condition for results ordered by (timestamp, id) descending: strictly after the last
+     * row of the previous page. Written as the row comparison {@code (timestamp, id) < (?, ?)} so
+     * Postgres can use it as a single range bound on the (…, timestamp, id) indexes; the expanded
+     * OR form only bounds the timestamp column.
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public static Specification<FileOperationLog> before(LocalDateTime timestamp, Long id) {
+        return (root, cq, cb) -> {
+            NodeBuilder builder = (NodeBuilder) cb;
+            SqmTuple position = new SqmTuple(builder,
+                    (SqmExpression<?>) root.get("timestamp"), (SqmExpression<?>) root.get("id"));
+            SqmTuple cursor = new SqmTuple(builder,
+                    (SqmExpression<?>) builder.value(timestamp), (SqmExpression<?>) builder.value(id));
+            return builder.lessThan((SqmExpression) position, (SqmExpression) cursor);
+        };
+    }
+
+    public static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,11 @@
+package com.fileManagement.FileManagement.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.stereotype.Repository;
+
+import com.fileManagement.FileManagement.entity.FileOperationRollup;
+
+@Repository
+public interface FileOperationRollupRepository extends JpaRepository<FileOperationRollup, FileOperationRollup.Key>, JpaSpecificationExecutor<FileOperationRollup> {
+}
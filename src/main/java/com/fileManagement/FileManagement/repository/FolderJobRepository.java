@@ -0,0 +1,14 @@
+package com.fileManagement.FileManagement.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.fileManagement.FileManagement.entity.FolderJob;
+
+@Repository
+public interface FolderJobRepository extends JpaRepository<FolderJob, Long> {
+    List<FolderJob> findByStatusInOrderByIdAsc(Collection<String> statuses);
+}
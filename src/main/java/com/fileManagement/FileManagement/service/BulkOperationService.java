@@ -0,0 +1,8 @@
+package com.fileManagement.FileManagement.service;
+
+import com.fileManagement.FileManagement.dto.BulkOperationRequest;
+import com.fileManagement.FileManagement.dto.BulkOperationResponse;
+
+public interface BulkOperationService {
+    BulkOperationResponse execute(BulkOperationRequest request);
+}
@@ -0,0 +1,7 @@
+package com.fileManagement.FileManagement.service;
+
+import java.util.Map;
+
+public interface CacheService {
+    Map<String, Map<String, Object>> getStats();
+}
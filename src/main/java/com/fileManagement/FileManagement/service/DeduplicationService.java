@@ -0,0 +1,22 @@
+package com.fileManagement.FileManagement.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.core.io.InputStreamSource;
+
+import com.fileManagement.FileManagement.dto.FileDto;
+
+public interface DeduplicationService {
+    boolean isEnabled();
+    MultipartUploadService.UploadResult store(String path, String contentType, InputStreamSource content);
+    Optional<String> resolveBlobKey(String path);
+    void applySizes(List<FileDto> files);
+    void movePaths(Map<String, String> destinationsBySource);
+    void movePrefix(String sourcePrefix, String destinationPrefix);
+    void deletePaths(Collection<String> paths);
+    void deletePrefix(String prefix, Set<String> retainedPaths);
+}
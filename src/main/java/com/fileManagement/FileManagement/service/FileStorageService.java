@@ -1,18 +1,43 @@
 package com.fileManagement.FileManagement.service;
 
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.web.multipart.MultipartFile;
 
 import com.fileManagement.FileManagement.dto.FileDto;
 import com.fileManagement.FileManagement.dto.FileUploadResponse;
+import com.fileManagement.FileManagement.dto.PageDto;
 
 public interface FileStorageService {
     FileUploadResponse uploadFile(String folderPath, MultipartFile file, String username);
-    byte[] downloadFile(String filePath, String username);
+    List<FileUploadResponse> uploadFiles(String folderPath, List<MultipartFile> files, String username);
+    FileUploadResponse uploadFileStream(String folderPath, String fileName, String contentType, InputStream inputStream, String username);
+    StoredObject downloadFileStream(String filePath, String username);
+    StoredObject downloadFileRange(String filePath, String range, String eTag);
+    StoredObject downloadFileStream(String filePath, String username, boolean verify);
+    Optional<CachedFile> findCachedFile(String filePath, String username);
     boolean deleteFile(String filePath, String username);
     boolean renameFile(String filePath, String newName, String username);
     boolean moveFile(String sourcePath, String destinationPath, String username);
     List<FileDto> listFiles(String folderPath);
+    PageDto<FileDto> listFiles(String folderPath, int pageSize, String cursor, String sort);
     FileDto getFileDetails(String filePath);
+
+    // Non-blocking variants: no thread waits while the storage requests are in flight
+    CompletableFuture<Boolean> deleteFileAsync(String filePath, String username);
+    CompletableFuture<Boolean> renameFileAsync(String filePath, String newName, String username);
+    CompletableFuture<Boolean> moveFileAsync(String sourcePath, String destinationPath, String username);
+    CompletableFuture<List<FileDto>> listFilesAsync(String folderPath);
+    CompletableFuture<PageDto<FileDto>> listFilesAsync(String folderPath, int pageSize, String cursor, String sort);
+    CompletableFuture<FileDto> getFileDetailsAsync(String filePath);
+
+    /**
+     * An open disk cache entry together with the details whose version it was matched against.
+     */
+    record CachedFile(FileChannel channel, FileDto details) {
+    }
 }
@@ -0,0 +1,11 @@
+package com.fileManagement.FileManagement.service;
+
+import java.util.Optional;
+
+import com.fileManagement.FileManagement.dto.FolderJobRequest;
+import com.fileManagement.FileManagement.entity.FolderJob;
+
+public interface FolderJobService {
+    FolderJob submitJob(FolderJobRequest request);
+    Optional<FolderJob> getJob(Long id);
+}
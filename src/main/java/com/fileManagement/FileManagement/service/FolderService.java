@@ -1,9 +1,14 @@
 package com.fileManagement.FileManagement.service;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+import com.fileManagement.FileManagement.dto.ArchiveImportResponse;
 import com.fileManagement.FileManagement.dto.FileDto;
 import com.fileManagement.FileManagement.dto.FolderDto;
+import com.fileManagement.FileManagement.dto.PageDto;
 
 public interface FolderService {
     boolean createFolder(String folderPath, String username);
@@ -11,5 +16,13 @@ public interface FolderService {
     boolean renameFolder(String folderPath, String newName, String username);
     boolean moveFolder(String sourcePath, String destinationPath, String username);
     List<FileDto> listFolderContents(String folderPath);
-    FolderDto getFolderHierarchy(String folderPath);
+    PageDto<FileDto> listFolderContents(String folderPath, int pageSize, String cursor, String sort);
+    void downloadFolderAsZip(String folderPath, String username, OutputStream outputStream);
+    ArchiveImportResponse importArchive(String folderPath, InputStream archiveStream, String username);
+
+    // Non-blocking variants: no thread waits while the storage requests are in flight
+    CompletableFuture<Boolean> createFolderAsync(String folderPath, String username);
+    CompletableFuture<List<FileDto>> listFolderContentsAsync(String folderPath);
+    CompletableFuture<PageDto<FileDto>> listFolderContentsAsync(String folderPath, int pageSize, String cursor, String sort);
+    CompletableFuture<FolderDto> getFolderHierarchyAsync(String folderPath, int depth);
 }
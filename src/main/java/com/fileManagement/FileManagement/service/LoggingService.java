@@ -1,11 +1,16 @@
 package com.fileManagement.FileManagement.service;
 
+import java.io.OutputStream;
 import java.util.List;
 
+import com.fileManagement.FileManagement.dto.LogQuery;
+import com.fileManagement.FileManagement.dto.PageDto;
 import com.fileManagement.FileManagement.entity.FileOperationLog;
+import com.fileManagement.FileManagement.entity.FileOperationRollup;
 
 public interface LoggingService {
     void logOperation(String username, String operation, String filePath, String destinationPath, String status, String errorMessage);
-    List<FileOperationLog> getLogsByFilePath(String filePath);
-    List<FileOperationLog> getLogsByUsername(String username);
+    PageDto<FileOperationLog> searchLogs(LogQuery query, String cursor, int limit);
+    List<FileOperationRollup> getRollups(LogQuery query);
+    void exportLogs(LogQuery query, String format, OutputStream outputStream);
 }
@@ -0,0 +1,13 @@
+package com.fileManagement.FileManagement.service;
+
+import java.io.InputStream;
+
+public interface MultipartUploadService {
+    UploadResult upload(String key, String contentType, InputStream inputStream);
+
+    /**
+     * Full-object checksums (base64, as S3 encodes them) computed while the stream was uploaded.
+     */
+    record UploadResult(long size, String checksumSha256, String checksumCrc32c) {
+    }
+}
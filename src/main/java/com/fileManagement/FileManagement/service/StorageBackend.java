@@ -0,0 +1,185 @@
+package com.fileManagement.FileManagement.service;
+
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Object store the file and folder services are written against, selected with
+ * {@code storage.backend}. Keys are '/'-separated paths without a leading slash; a key ending in
+ * '/' is a folder marker. Failures are reported as FileStorageException.
+ *
+ * <p>Listings return keys in ascending order. A listing cursor is opaque to callers and only valid
+ * for the same prefix and delimiter; {@link #listAfter} resumes after a plain key instead, which is
+ * what callers persisting their progress need.
+ *
+ * <p>The backend holding the objects carries the {@link #PHYSICAL} qualifier; in namespace mode
+ * the primary bean is a layer on top of it.
+ */
+public interface StorageBackend {
+
+    int MAX_KEYS = 1000;
+
+    String PHYSICAL = "physicalStorage";
+
+    MultipartUploadService.UploadResult put(String key, String contentType, InputStream content);
+
+    /**
+     * Writes an empty object: a folder marker, or a pointer object whose metadata carries its meaning.
+     */
+    void putEmpty(String key, String contentType, Map<String, String> metadata);
+
+    /**
+     * Opens the object, or one HTTP byte range of it ({@code bytes=start-end}). With
+     * {@code withChecksums} the stored checksums are included in the object info.
+     */
+    default StoredObject get(String key, String range, boolean withChecksums) {
+        return get(key, range, null, withChecksums);
+    }
+
+    /**
+     * Same as {@link #get(String, String, boolean)}, but fails with ObjectChangedException unless
+     * the object still has the ETag {@code ifMatch} (when not null).
+     */
+    StoredObject get(String key, String range, String ifMatch, boolean withChecksums);
+
+    ObjectInfo head(String key);
+
+    /**
+     * One page of the keys under {@code prefix}. With a '/' delimiter, keys below the next level
+     * are rolled up into common prefixes; without one, everything under the prefix is listed.
+     */
+    ListingPage list(String prefix, String delimiter, String cursor, int maxKeys);
+
+    /**
+     * One page of all keys under {@code prefix} that sort after {@code startAfter}.
+     */
+    ListingPage listAfter(String prefix, String startAfter, int maxKeys);
+
+    void copy(String sourceKey, String destinationKey);
+
+    void delete(String key);
+
+    /**
+     * Returns the source keys whose copy failed, mapped to the reason.
+     */
+    Map<String, String> copyAll(Map<String, String> destinationsBySource);
+
+    /**
+     * Returns the keys that could not be deleted, mapped to the reason.
+     */
+    Map<String, String> deleteAll(List<String> keys);
+
+    /**
+     * Deletes everything under the folder {@code prefix}. The root (empty prefix) is refused by
+     * every backend. Returns the keys that could not be deleted, mapped to the reason.
+     */
+    Map<String, String> deletePrefix(String prefix);
+
+    /**
+     * Moves everything under {@code sourcePrefix} below {@code destinationPrefix}. Returns the keys
+     * that could not be moved, mapped to the reason; those are left at the source.
+     */
+    Map<String, String> movePrefix(String sourcePrefix, String destinationPrefix);
+
+    /**
+     * Whether {@link #movePrefix} and {@link #deletePrefix} are single operations on this backend,
+     * as opposed to one request per object.
+     */
+    boolean hasNativeFolders();
+
+    default List<ListingPage> listAll(String prefix, String delimiter) {
+        List<ListingPage> pages = new ArrayList<>();
+        String cursor = null;
+        do {
+            ListingPage page = list(prefix, delimiter, cursor, MAX_KEYS);
+            pages.add(page);
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return pages;
+    }
+
+    // Asynchronous forms of the single-request operations. The defaults run the blocking call in
+    // the calling thread; backends with a non-blocking client override them, so no thread waits
+    // while the request is in flight. Failures complete the future exceptionally.
+
+    default CompletableFuture<ObjectInfo> headAsync(String key) {
+        return completed(() -> head(key));
+    }
+
+    default CompletableFuture<ListingPage> listAsync(String prefix, String delimiter, String cursor, int maxKeys) {
+        return completed(() -> list(prefix, delimiter, cursor, maxKeys));
+    }
+
+    default CompletableFuture<Void> putEmptyAsync(String key, String contentType, Map<String, String> metadata) {
+        return completed(() -> {
+            putEmpty(key, contentType, metadata);
+            return null;
+        });
+    }
+
+    default CompletableFuture<Void> copyAsync(String sourceKey, String destinationKey) {
+        return completed(() -> {
+            copy(sourceKey, destinationKey);
+            return null;
+        });
+    }
+
+    default CompletableFuture<Void> deleteAsync(String key) {
+        return completed(() -> {
+            delete(key);
+            return null;
+        });
+    }
+
+    default CompletableFuture<List<ListingPage>> listAllAsync(String prefix, String delimiter) {
+        return listRemaining(prefix, delimiter, null, new ArrayList<>());
+    }
+
+    private CompletableFuture<List<ListingPage>> listRemaining(String prefix, String delimiter, String cursor,
+            List<ListingPage> pages) {
+        return listAsync(prefix, delimiter, cursor, MAX_KEYS).thenCompose(page -> {
+            pages.add(page);
+            return page.nextCursor() == null
+                    ? CompletableFuture.completedFuture(pages)
+                    : listRemaining(prefix, delimiter, page.nextCursor(), pages);
+        });
+    }
+
+    private static <T> CompletableFuture<T> completed(Supplier<T> operation) {
+        try {
+            return CompletableFuture.completedFuture(operation.get());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Listing entries only carry key, size, ETag and modification time; the remaining fields are
+     * filled by {@link #head} and {@link #get}. For a ranged read the size is that of the range.
+     */
+    record ObjectInfo(String key, long size, String eTag, Instant lastModified, String contentType,
+            Map<String, String> metadata, String checksumSha256, String checksumCrc32c) {
+
+        public ObjectInfo(String key, long size, String eTag, Instant lastModified) {
+            this(key, size, eTag, lastModified, null, Map.of(), null, null);
+        }
+    }
+
+    /**
+     * {@code nextCursor} is null on the last page. {@code folders} optionally describes common
+     * prefixes, with the total size below the prefix and its latest modification; backends without
+     * folder metadata leave it empty.
+     */
+    record ListingPage(List<ObjectInfo> objects, List<String> commonPrefixes, String nextCursor,
+            Map<String, ObjectInfo> folders) {
+
+        public ListingPage(List<ObjectInfo> objects, List<String> commonPrefixes, String nextCursor) {
+            this(objects, commonPrefixes, nextCursor, Map.of());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.fileManagement.FileManagement.service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * An open object body together with what the backend reported about it. Closing releases the
+ * body normally; {@link #abort()} gives up on the rest without reading it, e.g. when the client
+ * has gone away mid-download.
+ */
+public class StoredObject extends FilterInputStream {
+
+    private final StorageBackend.ObjectInfo info;
+    private final Runnable abort;
+
+    public StoredObject(StorageBackend.ObjectInfo info, InputStream content, Runnable abort) {
+        super(content);
+        this.info = info;
+        this.abort = abort;
+    }
+
+    public StorageBackend.ObjectInfo info() {
+        return info;
+    }
+
+    public void abort() {
+        abort.run();
+    }
+
+    /**
+     * Copies the rest of the body to {@code out} and closes it. If the copy fails (typically the
+     * client went away) the body is aborted instead of closed, since closing would first read the
+     * rest of the object just to discard it.
+     */
+    public long transferToAndClose(OutputStream out) throws IOException {
+        long transferred;
+        try {
+            transferred = transferTo(out);
+        } catch (IOException | RuntimeException e) {
+            abort();
+            throw e;
+        }
+        close();
+        return transferred;
+    }
+
+    /**
+     * The same object read through {@code content}, a stream wrapping this one; aborting still
+     * aborts the underlying body.
+     */
+    public StoredObject withContent(InputStream content) {
+        return new StoredObject(info, content, abort);
+    }
+}
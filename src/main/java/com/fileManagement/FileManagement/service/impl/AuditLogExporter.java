@@ -0,0 +1,153 @@
+package com.fileManagement.FileManagement.service.impl;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fileManagement.FileManagement.dto.LogQuery;
+import com.fileManagement.FileManagement.entity.FileOperationLog;
+import com.fileManagement.FileManagement.exceptions.InvalidRequestException;
+import com.fileManagement.FileManagement.repository.FileOperationLogSpecifications;
+
+/**
+ * Streams audit rows straight from a database cursor to an output stream. The query runs in a
+ * read-only transaction with a fetch size, which is what makes the Postgres driver use a cursor
+ * instead of loading the whole result, so memory stays constant whatever the row count.
+ */
+@Component
+public class AuditLogExporter {
+
+    public static final String NDJSON = "ndjson";
+    public static final String CSV = "csv";
+
+    private static final String CSV_HEADER = "id,username,operation,filePath,destinationPath,timestamp,status,errorMessage\n";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+
+    public AuditLogExporter(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${audit.export.fetchSize:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    public void export(LogQuery query, String format, OutputStream outputStream) {
+        if (!NDJSON.equals(format) && !CSV.equals(format)) {
+            throw new InvalidRequestException("Unsupported export format: " + format);
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT id, username, operation, file_path, destination_path, timestamp, status, error_message "
+                + "FROM file_operation_logs WHERE 1 = 1");
+        List<Object> params = new ArrayList<>();
+
+        if (query.getUsername() != null) {
+            sql.append(" AND username = ?");
+            params.add(query.getUsername());
+        }
+        if (query.getFilePath() != null) {
+            sql.append(" AND file_path = ?");
+            params.add(query.getFilePath());
+        }
+        if (query.getPathPrefix() != null && !query.getPathPrefix().isEmpty()) {
+            sql.append(" AND file_path LIKE ? ESCAPE '\\'");
+            params.add(FileOperationLogSpecifications.escapeLike(query.getPathPrefix()) + "%");
+        }
+        if (query.getOperation() != null) {
+            sql.append(" AND operation = ?");
+            params.add(query.getOperation());
+        }
+        if (query.getFrom() != null) {
+            sql.append(" AND timestamp >= ?");
+            params.add(query.getFrom());
+        }
+        if (query.getTo() != null) {
+            sql.append(" AND timestamp < ?");
+            params.add(query.getTo());
+        }
+        sql.append(" ORDER BY timestamp, id");
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+
+        try {
+            if (CSV.equals(format)) {
+                writer.write(CSV_HEADER);
+            }
+
+            readOnlyTransaction.executeWithoutResult(status ->
+                    jdbcTemplate.query(sql.toString(), rs -> {
+                        try {
+                            FileOperationLog entry = mapRow(rs);
+                            if (CSV.equals(format)) {
+                                writeCsv(writer, entry);
+                            } else {
+                                writer.write(objectMapper.writeValueAsString(entry));
+                                writer.write('\n');
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }, params.toArray()));
+
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private FileOperationLog mapRow(ResultSet rs) throws SQLException {
+        return FileOperationLog.builder()
+                .id(rs.getLong("id"))
+                .username(rs.getString("username"))
+                .operation(rs.getString("operation"))
+                .filePath(rs.getString("file_path"))
+                .destinationPath(rs.getString("destination_path"))
+                .timestamp(rs.getTimestamp("timestamp").toLocalDateTime())
+                .status(rs.getString("status"))
+                .errorMessage(rs.getString("error_message"))
+                .build();
+    }
+
+    private void writeCsv(Writer writer, FileOperationLog entry) throws IOException {
+        writer.write(String.valueOf(entry.getId()));
+        for (String value : new String[] { entry.getUsername(), entry.getOperation(), entry.getFilePath(),
+                entry.getDestinationPath(), String.valueOf(entry.getTimestamp()), entry.getStatus(), entry.getErrorMessage() }) {
+            writer.write(',');
+            writer.write(csvField(value));
+        }
+        writer.write('\n');
+    }
+
+    private String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+}
@@ -0,0 +1,234 @@
+package com.fileManagement.FileManagement.service.impl;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fileManagement.FileManagement.entity.FileOperationLog;
+import com.fileManagement.FileManagement.entity.FileOperationRollup;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write-behind pipeline for audit records. Callers only enqueue; a single background thread
+ * drains the queue and inserts rows with batched JDBC, flushing when a batch is full or when the
+ * flush interval has passed since the first queued record. What happens when the queue is full is
+ * decided by {@link OverflowPolicy}. Each batch also bumps the hourly counters in
+ * file_operation_rollups_hourly. On shutdown the queue is drained before the data source closes.
+ */
+@Component
+@Slf4j
+public class AuditLogWriter implements SmartLifecycle {
+
+    public enum OverflowPolicy {
+        /** Wait for space in the queue; no record is lost, but requests slow down with the database. */
+        BLOCK,
+        /** Discard the record and count it; requests never wait on the database. */
+        DROP,
+        /** Insert the record on the calling thread. */
+        CALLER_RUNS
+    }
+
+    private static final String INSERT_SQL = "INSERT INTO file_operation_logs "
+            + "(username, operation, file_path, destination_path, timestamp, status, error_message) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String ROLLUP_SQL = "INSERT INTO file_operation_rollups_hourly "
+            + "(bucket_start, username, operation, status, op_count) VALUES (?, ?, ?, ?, ?) "
+            + "ON CONFLICT (bucket_start, username, operation, status) "
+            + "DO UPDATE SET op_count = file_operation_rollups_hourly.op_count + EXCLUDED.op_count";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<FileOperationLog> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public AuditLogWriter(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${audit.queue.capacity:10000}") int queueCapacity,
+            @Value("${audit.batch.size:500}") int batchSize,
+            @Value("${audit.flush.interval:1s}") Duration flushInterval,
+            @Value("${audit.overflowPolicy:BLOCK}") OverflowPolicy overflowPolicy) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public void enqueue(FileOperationLog entry) {
+        if (!running) {
+            insert(List.of(entry));
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case BLOCK:
+                try {
+                    queue.put(entry);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    insert(List.of(entry));
+                }
+                break;
+            case DROP:
+                if (!queue.offer(entry) && dropped.incrementAndGet() % 1000 == 1) {
+                    log.warn("Audit queue full, {} record(s) dropped so far", dropped.get());
+                }
+                break;
+            case CALLER_RUNS:
+                if (!queue.offer(entry)) {
+                    insert(List.of(entry));
+                }
+                break;
+        }
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private void drainLoop() {
+        List<FileOperationLog> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                FileOperationLog first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize && running) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    FileOperationLog next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                queue.drainTo(batch, batchSize - batch.size());
+            } catch (InterruptedException e) {
+                // stop() interrupts to cut the flush wait short; keep draining until the queue is empty
+                queue.drainTo(batch, batchSize - batch.size());
+            }
+
+            if (!batch.isEmpty()) {
+                insert(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void insert(List<FileOperationLog> batch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                // Rows and their rollup increments commit together, so a retried batch is never counted twice
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, entry) -> {
+                        ps.setString(1, entry.getUsername());
+                        ps.setString(2, entry.getOperation());
+                        ps.setString(3, entry.getFilePath());
+                        ps.setString(4, entry.getDestinationPath());
+                        ps.setTimestamp(5, Timestamp.valueOf(entry.getTimestamp()));
+                        ps.setString(6, entry.getStatus());
+                        ps.setString(7, entry.getErrorMessage());
+                    });
+                    
+                    List<Map.Entry<FileOperationRollup.Key, Long>> rollups = new ArrayList<>(rollUp(batch).entrySet());
+                    jdbcTemplate.batchUpdate(ROLLUP_SQL, rollups, rollups.size(), (ps, rollup) -> {
+                        ps.setTimestamp(1, Timestamp.valueOf(rollup.getKey().getBucketStart()));
+                        ps.setString(2, rollup.getKey().getUsername());
+                        ps.setString(3, rollup.getKey().getOperation());
+                        ps.setString(4, rollup.getKey().getStatus());
+                        ps.setLong(5, rollup.getValue());
+                    });
+                });
+                return;
+            } catch (DataAccessException e) {
+                if (attempt >= 3) {
+                    log.error("Dropping {} audit record(s) after {} failed attempts: {}", batch.size(), attempt, e.getMessage());
+                    dropped.addAndGet(batch.size());
+                    return;
+                }
+                log.warn("Failed to write {} audit record(s), retrying: {}", batch.size(), e.getMessage());
+                try {
+                    Thread.sleep(500L * attempt);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private Map<FileOperationRollup.Key, Long> rollUp(List<FileOperationLog> batch) {
+        Map<FileOperationRollup.Key, Long> counts = new HashMap<>();
+        for (FileOperationLog entry : batch) {
+            FileOperationRollup.Key key = new FileOperationRollup.Key(
+                    entry.getTimestamp().truncatedTo(ChronoUnit.HOURS),
+                    entry.getUsername(),
+                    entry.getOperation(),
+                    entry.getStatus() != null ? entry.getStatus() : "UNKNOWN");
+            counts.merge(key, 1L, Long::sum);
+        }
+        return counts;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::drainLoop, "audit-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        writerThread.interrupt();
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("Audit writer did not drain in time; flushing {} record(s) on the shutdown thread", queue.size());
+            List<FileOperationLog> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            insert(remaining);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
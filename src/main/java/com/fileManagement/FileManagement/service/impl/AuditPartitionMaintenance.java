@@ -0,0 +1,138 @@
+package com.fileManagement.FileManagement.service.impl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the monthly partitions of file_operation_logs ahead of the clock and enforces retention by
+ * dropping whole partitions, so old audit data goes away without row deletes, vacuum or index bloat.
+ * Hourly rollups are far smaller and are kept for their own, longer retention.
+ *
+ * <p>Rows outside every monthly partition land in file_operation_logs_default. Creating a month's
+ * partition moves its rows out of there first (Postgres refuses the partition otherwise), and
+ * default rows past retention are deleted row by row.
+ */
+@Component
+@Slf4j
+public class AuditPartitionMaintenance {
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final Pattern UPPER_BOUND = Pattern.compile("TO \\('([0-9-]+) [0-9:]+'\\)");
+    private static final String DEFAULT_PARTITION = "file_operation_logs_default";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final int rollupRetentionMonths;
+
+    public AuditPartitionMaintenance(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${audit.partitions.monthsAhead:3}") int monthsAhead,
+            @Value("${audit.retention.months:24}") int retentionMonths,
+            @Value("${audit.rollups.retention.months:60}") int rollupRetentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.rollupRetentionMonths = rollupRetentionMonths;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${audit.partitions.cron:0 15 2 * * *}")
+    public void maintain() {
+        try {
+            createUpcomingPartitions();
+            dropExpiredPartitions();
+            checkDefaultPartition();
+            jdbcTemplate.update("DELETE FROM file_operation_rollups_hourly WHERE bucket_start < ?",
+                    LocalDate.now().withDayOfMonth(1).minusMonths(rollupRetentionMonths).atStartOfDay());
+        } catch (DataAccessException e) {
+            log.error("Audit partition maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    private void createUpcomingPartitions() {
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        for (int i = 0; i <= monthsAhead; i++, month = month.plusMonths(1)) {
+            createPartition(month);
+        }
+    }
+
+    private void createPartition(LocalDate month) {
+        String name = "file_operation_logs_" + month.format(PARTITION_SUFFIX);
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name))) {
+            return;
+        }
+        LocalDateTime from = month.atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atStartOfDay();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("CREATE TEMPORARY TABLE audit_rows_moved (LIKE file_operation_logs) ON COMMIT DROP");
+            int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION
+                    + " WHERE timestamp >= ? AND timestamp < ? RETURNING *) "
+                    + "INSERT INTO audit_rows_moved SELECT * FROM moved", from, to);
+            jdbcTemplate.execute(String.format(
+                    "CREATE TABLE %s PARTITION OF file_operation_logs FOR VALUES FROM ('%s') TO ('%s')",
+                    name, month, month.plusMonths(1)));
+            jdbcTemplate.update("INSERT INTO file_operation_logs SELECT * FROM audit_rows_moved");
+            if (moved > 0) {
+                log.info("Moved {} audit record(s) from the default partition into {}", moved, name);
+            }
+        });
+    }
+
+    /**
+     * Applies retention to the default partition and warns while it holds rows, which means the
+     * partitions are not kept ahead of the clock.
+     */
+    private void checkDefaultPartition() {
+        LocalDateTime cutoff = LocalDate.now().withDayOfMonth(1).minusMonths(retentionMonths).atStartOfDay();
+        jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION + " WHERE timestamp < ?", cutoff);
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + DEFAULT_PARTITION + ")", Boolean.class))) {
+            log.warn("Audit records outside the monthly partitions are kept in {}", DEFAULT_PARTITION);
+        }
+    }
+
+    private void dropExpiredPartitions() {
+        LocalDateTime cutoff = LocalDate.now().withDayOfMonth(1).minusMonths(retentionMonths).atStartOfDay();
+
+        List<Map<String, Object>> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname AS name, pg_get_expr(c.relpartbound, c.oid) AS bound "
+                        + "FROM pg_inherits i "
+                        + "JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "JOIN pg_class p ON p.oid = i.inhparent "
+                        + "WHERE p.relname = 'file_operation_logs' AND p.relnamespace = current_schema()::regnamespace");
+
+        for (Map<String, Object> partition : partitions) {
+            Matcher matcher = UPPER_BOUND.matcher(String.valueOf(partition.get("bound")));
+            if (!matcher.find()) {
+                continue;
+            }
+            LocalDateTime upperBound = LocalDate.parse(matcher.group(1)).atStartOfDay();
+            if (!upperBound.isAfter(cutoff)) {
+                String name = (String) partition.get("name");
+                log.info("Dropping audit partition {} (data before {})", name, upperBound);
+                jdbcTemplate.execute("ALTER TABLE file_operation_logs DETACH PARTITION \"" + name + "\"");
+                jdbcTemplate.execute("DROP TABLE \"" + name + "\"");
+            }
+        }
+    }
+}
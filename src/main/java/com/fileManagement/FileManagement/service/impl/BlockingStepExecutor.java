@@ -0,0 +1,39 @@
+package com.fileManagement.FileManagement.service.impl;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs the blocking steps of the async operations (Postgres updates, audit logging) so that they
+ * never execute on the async S3 client's completion threads. Its thread count bounds how many of
+ * those steps run at once; the S3 requests themselves stay bounded by connections.
+ */
+@Component
+public class BlockingStepExecutor implements Executor {
+
+    private final ThreadPoolExecutor executor;
+
+    public BlockingStepExecutor(@Value("${aws.s3.async.blockingStepParallelism:16}") int parallelism) {
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("async-step-"));
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        executor.execute(command);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
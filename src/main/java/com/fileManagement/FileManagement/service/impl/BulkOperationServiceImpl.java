@@ -0,0 +1,177 @@
+package com.fileManagement.FileManagement.service.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+
+import com.fileManagement.FileManagement.dto.BulkOperationRequest;
+import com.fileManagement.FileManagement.dto.BulkOperationResponse;
+import com.fileManagement.FileManagement.service.BulkOperationService;
+import com.fileManagement.FileManagement.service.DeduplicationService;
+import com.fileManagement.FileManagement.service.LoggingService;
+import com.fileManagement.FileManagement.service.StorageBackend;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Executes a list of file operations as two storage phases instead of one round trip per item:
+ * every MOVE/RENAME copy runs first (concurrently on S3), then all DELETEs plus the sources of
+ * successful copies go out as one batch delete. Items are validated up front, and a path may only be touched by
+ * one item of a request so the phases cannot interfere with each other.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkOperationServiceImpl implements BulkOperationService {
+
+    private static final String SUCCESS = "SUCCESS";
+    private static final String FAILED = "FAILED";
+
+    private final StorageBackend storageBackend;
+    private final LoggingService loggingService;
+    private final MetadataCache metadataCache;
+    private final DeduplicationService deduplicationService;
+    private final ReservedPrefixes reservedPrefixes;
+
+    @Override
+    public BulkOperationResponse execute(BulkOperationRequest request) {
+        List<BulkOperationRequest.Item> items = request.getOperations();
+        List<BulkOperationResponse.Result> results = new ArrayList<>(items.size());
+        Map<String, Integer> itemBySource = new HashMap<>();
+        Set<String> claimedKeys = new HashSet<>();
+        Map<String, String> destinationsBySource = new LinkedHashMap<>();
+        List<String> deletes = new ArrayList<>();
+
+        for (BulkOperationRequest.Item item : items) {
+            String path = item.getPath().startsWith("/") ? item.getPath().substring(1) : item.getPath();
+            String destination = null;
+            String error = null;
+
+            if (path.isEmpty() || path.endsWith("/")) {
+                error = "Folders are not supported by bulk operations";
+            } else if ("RENAME".equals(item.getOperation())) {
+                if (item.getNewName() == null || item.getNewName().isEmpty() || item.getNewName().contains("/")) {
+                    error = "Invalid new name";
+                } else {
+                    destination = path.substring(0, path.lastIndexOf('/') + 1) + item.getNewName();
+                }
+            } else if ("MOVE".equals(item.getOperation())) {
+                if (item.getDestinationPath() == null || item.getDestinationPath().isEmpty()) {
+                    error = "Destination path is required";
+                } else {
+                    destination = StoragePaths.normalizeFilePath(item.getDestinationPath(), path.substring(path.lastIndexOf('/') + 1));
+                }
+            }
+
+            if (error == null && (reservedPrefixes.isReserved(path) || reservedPrefixes.isReserved(destination))) {
+                error = "Path is reserved";
+            }
+            if (error == null && path.equals(destination)) {
+                error = "Source and destination are the same";
+            }
+            if (error == null && (claimedKeys.contains(path) || claimedKeys.contains(destination))) {
+                error = "Path is used by another operation in this request";
+            }
+
+            results.add(BulkOperationResponse.Result.builder()
+                    .operation(item.getOperation())
+                    .path(path)
+                    .destinationPath(destination)
+                    .status(error == null ? null : FAILED)
+                    .message(error)
+                    .build());
+
+            if (error == null) {
+                claimedKeys.add(path);
+                itemBySource.put(path, results.size() - 1);
+                if (destination == null) {
+                    deletes.add(path);
+                } else {
+                    claimedKeys.add(destination);
+                    destinationsBySource.put(path, destination);
+                }
+            }
+        }
+
+        try {
+            Map<String, String> copyFailures = destinationsBySource.isEmpty()
+                    ? Map.of()
+                    : storageBackend.copyAll(destinationsBySource);
+            copyFailures.forEach((source, reason) -> fail(results.get(itemBySource.get(source)), reason));
+
+            destinationsBySource.keySet().stream()
+                    .filter(source -> !copyFailures.containsKey(source))
+                    .forEach(deletes::add);
+
+            Map<String, String> deleteFailures = deletes.isEmpty() ? Map.of() : storageBackend.deleteAll(deletes);
+            List<String> orphanedCopies = new ArrayList<>();
+            deleteFailures.forEach((key, reason) -> {
+                BulkOperationResponse.Result result = results.get(itemBySource.get(key));
+                fail(result, reason);
+                if (result.getDestinationPath() != null) {
+                    orphanedCopies.add(result.getDestinationPath());
+                }
+            });
+            if (!orphanedCopies.isEmpty()) {
+                Map<String, String> rollbackFailures = storageBackend.deleteAll(orphanedCopies);
+                if (!rollbackFailures.isEmpty()) {
+                    log.error("Failed to remove {} copies whose source could not be deleted", rollbackFailures.size());
+                }
+            }
+
+            Map<String, String> moved = new LinkedHashMap<>();
+            List<String> deleted = new ArrayList<>();
+            for (String key : deletes) {
+                BulkOperationResponse.Result result = results.get(itemBySource.get(key));
+                if (result.getStatus() != null) {
+                    continue;
+                }
+                if (result.getDestinationPath() == null) {
+                    deleted.add(key);
+                } else {
+                    moved.put(key, result.getDestinationPath());
+                }
+            }
+            deduplicationService.deletePaths(deleted);
+            deduplicationService.movePaths(moved);
+        } finally {
+            claimedKeys.forEach(metadataCache::invalidateObject);
+        }
+
+        int failed = 0;
+        for (BulkOperationResponse.Result result : results) {
+            if (result.getStatus() == null) {
+                result.setStatus(SUCCESS);
+            } else {
+                failed++;
+            }
+
+            loggingService.logOperation(
+                    request.getUsername(),
+                    result.getOperation(),
+                    result.getPath(),
+                    result.getDestinationPath(),
+                    result.getStatus(),
+                    result.getMessage()
+            );
+        }
+
+        return BulkOperationResponse.builder()
+                .succeeded(results.size() - failed)
+                .failed(failed)
+                .results(results)
+                .build();
+    }
+
+    private void fail(BulkOperationResponse.Result result, String reason) {
+        result.setStatus(FAILED);
+        result.setMessage(reason);
+    }
+}
@@ -0,0 +1,24 @@
+package com.fileManagement.FileManagement.service.impl;
+
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+
+import com.fileManagement.FileManagement.service.CacheService;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class CacheServiceImpl implements CacheService {
+
+    private final MetadataCache metadataCache;
+    private final DiskObjectCache diskObjectCache;
+
+    @Override
+    public Map<String, Map<String, Object>> getStats() {
+        Map<String, Map<String, Object>> stats = metadataCache.stats();
+        stats.put("disk", diskObjectCache.stats());
+        return stats;
+    }
+}
@@ -0,0 +1,174 @@
+package com.fileManagement.FileManagement.service.impl;
+
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import com.fileManagement.FileManagement.service.MultipartUploadService;
+import com.fileManagement.FileManagement.service.StorageBackend;
+import com.fileManagement.FileManagement.service.StoredObject;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Catalog mode ({@code storage.catalog.enabled}): every write through the physical backend is
+ * mirrored into the object catalog, and folder listings (with a '/' delimiter) are answered from it
+ * once the first reconcile has completed, including total size and latest change per sub-folder.
+ *
+ * <p>Recursive listings still come from the backend, since folder jobs, ZIP downloads and prefix
+ * operations must see every object even if the catalog lags behind. A failed catalog update never
+ * fails the write that already happened; the reconciler repairs it.
+ */
+@Component
+@Primary
+@ConditionalOnExpression(ObjectCatalog.ENABLED)
+@Slf4j
+public class CatalogStorageBackend implements StorageBackend {
+
+    private final StorageBackend physical;
+    private final ObjectCatalog objectCatalog;
+    private final BlockingStepExecutor blockingSteps;
+
+    public CatalogStorageBackend(@Qualifier(StorageBackend.PHYSICAL) StorageBackend physical, ObjectCatalog objectCatalog,
+            BlockingStepExecutor blockingSteps) {
+        this.physical = physical;
+        this.objectCatalog = objectCatalog;
+        this.blockingSteps = blockingSteps;
+    }
+
+    @Override
+    public MultipartUploadService.UploadResult put(String key, String contentType, InputStream content) {
+        MultipartUploadService.UploadResult result = physical.put(key, contentType, content);
+        sync(key, () -> objectCatalog.put(physical.head(key)));
+        return result;
+    }
+
+    @Override
+    public void putEmpty(String key, String contentType, Map<String, String> metadata) {
+        physical.putEmpty(key, contentType, metadata);
+        sync(key, () -> objectCatalog.put(physical.head(key)));
+    }
+
+    @Override
+    public StoredObject get(String key, String range, String ifMatch, boolean withChecksums) {
+        return physical.get(key, range, ifMatch, withChecksums);
+    }
+
+    @Override
+    public ObjectInfo head(String key) {
+        return physical.head(key);
+    }
+
+    @Override
+    public ListingPage list(String prefix, String delimiter, String cursor, int maxKeys) {
+        if ("/".equals(delimiter) && objectCatalog.isReady()) {
+            return objectCatalog.list(prefix, cursor, maxKeys);
+        }
+        return physical.list(prefix, delimiter, cursor, maxKeys);
+    }
+
+    @Override
+    public ListingPage listAfter(String prefix, String startAfter, int maxKeys) {
+        return physical.listAfter(prefix, startAfter, maxKeys);
+    }
+
+    @Override
+    public void copy(String sourceKey, String destinationKey) {
+        physical.copy(sourceKey, destinationKey);
+        sync(destinationKey, () -> objectCatalog.copy(Map.of(sourceKey, destinationKey)));
+    }
+
+    @Override
+    public void delete(String key) {
+        physical.delete(key);
+        sync(key, () -> objectCatalog.remove(List.of(key)));
+    }
+
+    @Override
+    public CompletableFuture<ObjectInfo> headAsync(String key) {
+        return physical.headAsync(key);
+    }
+
+    @Override
+    public CompletableFuture<ListingPage> listAsync(String prefix, String delimiter, String cursor, int maxKeys) {
+        if ("/".equals(delimiter) && objectCatalog.isReady()) {
+            return CompletableFuture.supplyAsync(() -> objectCatalog.list(prefix, cursor, maxKeys), blockingSteps);
+        }
+        return physical.listAsync(prefix, delimiter, cursor, maxKeys);
+    }
+
+    @Override
+    public CompletableFuture<Void> putEmptyAsync(String key, String contentType, Map<String, String> metadata) {
+        return physical.putEmptyAsync(key, contentType, metadata)
+                .thenCompose(ignored -> physical.headAsync(key)
+                        .thenAcceptAsync(info -> sync(key, () -> objectCatalog.put(info)), blockingSteps)
+                        .exceptionally(e -> {
+                            log.warn("Object catalog not updated for {} until the next reconcile: {}",
+                                    key, Futures.unwrap(e).getMessage());
+                            return null;
+                        }));
+    }
+
+    @Override
+    public CompletableFuture<Void> copyAsync(String sourceKey, String destinationKey) {
+        return physical.copyAsync(sourceKey, destinationKey)
+                .thenRunAsync(() -> sync(destinationKey, () -> objectCatalog.copy(Map.of(sourceKey, destinationKey))), blockingSteps);
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteAsync(String key) {
+        return physical.deleteAsync(key)
+                .thenRunAsync(() -> sync(key, () -> objectCatalog.remove(List.of(key))), blockingSteps);
+    }
+
+    @Override
+    public Map<String, String> copyAll(Map<String, String> destinationsBySource) {
+        Map<String, String> failures = physical.copyAll(destinationsBySource);
+        Map<String, String> copied = new LinkedHashMap<>(destinationsBySource);
+        copied.keySet().removeAll(failures.keySet());
+        sync(copied.size() + " copies", () -> objectCatalog.copy(copied));
+        return failures;
+    }
+
+    @Override
+    public Map<String, String> deleteAll(List<String> keys) {
+        Map<String, String> failures = physical.deleteAll(keys);
+        List<String> deleted = keys.stream().filter(key -> !failures.containsKey(key)).toList();
+        sync(deleted.size() + " deletes", () -> objectCatalog.remove(deleted));
+        return failures;
+    }
+
+    @Override
+    public Map<String, String> deletePrefix(String prefix) {
+        Map<String, String> failures = physical.deletePrefix(prefix);
+        sync(prefix, () -> objectCatalog.removePrefix(prefix, failures.keySet()));
+        return failures;
+    }
+
+    @Override
+    public Map<String, String> movePrefix(String sourcePrefix, String destinationPrefix) {
+        Map<String, String> failures = physical.movePrefix(sourcePrefix, destinationPrefix);
+        sync(sourcePrefix, () -> objectCatalog.movePrefix(sourcePrefix, destinationPrefix, failures.keySet()));
+        return failures;
+    }
+
+    @Override
+    public boolean hasNativeFolders() {
+        return physical.hasNativeFolders();
+    }
+
+    private void sync(String what, Runnable update) {
+        try {
+            update.run();
+        } catch (RuntimeException e) {
+            log.warn("Object catalog not updated for {} until the next reconcile: {}", what, e.getMessage());
+        }
+    }
+}
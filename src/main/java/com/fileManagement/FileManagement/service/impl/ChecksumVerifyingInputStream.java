@@ -0,0 +1,126 @@
+package com.fileManagement.FileManagement.service.impl;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+
+/**
+ * Recomputes an object's SHA-256 while it is read and compares it with the checksum S3 stored.
+ * Multipart objects carry a composite checksum, the SHA-256 of the concatenated part digests
+ * followed by {@code -<parts>}, so the stream is digested in {@code partSize} slices as well.
+ *
+ * <p>The comparison happens inside the read that delivers the last byte, before those bytes are
+ * returned: on a mismatch the caller gets an IOException instead of the tail of the object, so a
+ * response with a declared Content-Length ends up visibly truncated rather than silently wrong.
+ */
+final class ChecksumVerifyingInputStream extends FilterInputStream {
+
+    private final String key;
+    private final String expected;
+    private final long partSize;
+    private final MessageDigest partDigest = Checksums.sha256();
+    private final MessageDigest compositeDigest = Checksums.sha256();
+    private long remaining;
+    private long partRemaining;
+    private int parts;
+    private boolean verified;
+
+    /**
+     * @param partSize size of every part but the last for a composite checksum, 0 for a full-object one
+     */
+    ChecksumVerifyingInputStream(InputStream in, String key, long contentLength, String expected, long partSize) {
+        super(in);
+        this.key = key;
+        this.expected = expected;
+        this.partSize = partSize;
+        this.remaining = contentLength;
+        this.partRemaining = partSize > 0 ? partSize : Long.MAX_VALUE;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        int n = read(single, 0, 1);
+        return n < 0 ? -1 : single[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n < 0) {
+            if (remaining > 0) {
+                throw new IOException("Object " + key + " ended " + remaining + " bytes early");
+            }
+            verify();
+            return -1;
+        }
+
+        update(b, off, n);
+        remaining -= n;
+        if (remaining <= 0) {
+            verify();
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        // Every byte has to pass through the digest
+        byte[] buffer = new byte[(int) Math.min(n, 8192)];
+        long skipped = 0;
+        while (skipped < n) {
+            int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+            if (read < 0) {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void update(byte[] b, int off, int len) {
+        while (len > 0) {
+            int chunk = (int) Math.min(len, partRemaining);
+            partDigest.update(b, off, chunk);
+            off += chunk;
+            len -= chunk;
+            partRemaining -= chunk;
+            if (partRemaining == 0) {
+                finishPart();
+            }
+        }
+    }
+
+    private void finishPart() {
+        compositeDigest.update(partDigest.digest());
+        parts++;
+        partRemaining = partSize;
+    }
+
+    private void verify() throws IOException {
+        if (verified) {
+            return;
+        }
+        verified = true;
+
+        String actual;
+        if (partSize > 0) {
+            if (partRemaining != partSize || parts == 0) {
+                finishPart();
+            }
+            actual = Checksums.base64(compositeDigest.digest()) + "-" + parts;
+        } else {
+            actual = Checksums.base64(partDigest.digest());
+        }
+
+        if (!actual.equals(expected)) {
+            throw new IOException("Checksum mismatch for " + key + ": expected " + expected + ", got " + actual);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.fileManagement.FileManagement.service.impl;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.zip.CRC32C;
+
+/**
+ * Checksum helpers using the encodings S3 uses for its checksum headers: base64 of the SHA-256
+ * digest, and base64 of the big-endian 4-byte CRC32C value.
+ */
+final class Checksums {
+
+    static final String SHA256_METADATA = "sha256";
+    static final String CRC32C_METADATA = "crc32c";
+    static final String PART_SIZE_METADATA = "part-size";
+
+    private Checksums() {
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    static String sha256Base64(byte[] data, int offset, int length) {
+        MessageDigest digest = sha256();
+        digest.update(data, offset, length);
+        return Base64.getEncoder().encodeToString(digest.digest());
+    }
+
+    static String base64(byte[] digest) {
+        return Base64.getEncoder().encodeToString(digest);
+    }
+
+    static String base64(CRC32C crc) {
+        return Base64.getEncoder().encodeToString(ByteBuffer.allocate(4).putInt((int) crc.getValue()).array());
+    }
+}
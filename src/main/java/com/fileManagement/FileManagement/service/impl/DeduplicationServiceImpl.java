@@ -0,0 +1,302 @@
+package com.fileManagement.FileManagement.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fileManagement.FileManagement.dto.FileDto;
+import com.fileManagement.FileManagement.exceptions.FileStorageException;
+import com.fileManagement.FileManagement.repository.FileOperationLogSpecifications;
+import com.fileManagement.FileManagement.service.DeduplicationService;
+import com.fileManagement.FileManagement.service.MultipartUploadService;
+import com.fileManagement.FileManagement.service.StorageBackend;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Dedup mode: file content is stored once per SHA-256 under {@code storage.dedup.blobPrefix}, and
+ * the logical path holds an empty pointer object while content_blob_refs maps it to the blob. A
+ * duplicate upload therefore costs a hash pass over the spooled file plus a pointer and a row;
+ * rename/move copy the empty pointer and update the row. Blobs carry a reference count and are
+ * deleted with their last reference.
+ *
+ * <p>Mapping changes run in one transaction with their reference count changes. Blobs whose count
+ * reaches zero are only deleted once that transaction has committed, each in a short transaction of
+ * its own that removes the row (still at zero) before the object: a concurrent upload of the same
+ * content waits on that row and then stores the blob again. If anything fails along the way the
+ * blob is left behind as an orphan, never a mapping without its blob; a row left at zero is not
+ * trusted as stored by the next upload.
+ *
+ * <p>With dedup off and no mappings left from a time it was on, every path is a plain object: the
+ * lookups and mapping updates return without a database round trip.
+ */
+@Service
+@Slf4j
+public class DeduplicationServiceImpl implements DeduplicationService {
+
+    static final String BLOB_HASH_METADATA = "blob-sha256";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StorageBackend storageBackend;
+    private final String blobPrefix;
+    private final boolean enabled;
+    // Whether content_blob_refs had rows when first checked; only consulted while dedup is off,
+    // when nothing adds mappings
+    private volatile Boolean hasMappings;
+
+    public DeduplicationServiceImpl(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            StorageBackend storageBackend,
+            @Value("${storage.dedup.blobPrefix:.blobs/}") String blobPrefix,
+            @Value("${storage.dedup.enabled:false}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.storageBackend = storageBackend;
+        this.blobPrefix = blobPrefix;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Stores content at a logical path. The source is read twice: once to hash it, and a second
+     * time only if no blob with that hash exists yet.
+     */
+    @Override
+    public MultipartUploadService.UploadResult store(String path, String contentType, InputStreamSource content) {
+        MessageDigest digest = Checksums.sha256();
+        CRC32C crc = new CRC32C();
+        long size;
+        try (InputStream inputStream = new CheckedInputStream(new DigestInputStream(content.getInputStream(), digest), crc)) {
+            size = inputStream.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            throw new FileStorageException("Failed to read upload: " + e.getMessage(), e);
+        }
+        byte[] sha256 = digest.digest();
+        String hash = HexFormat.of().formatHex(sha256);
+        MultipartUploadService.UploadResult checksums =
+                new MultipartUploadService.UploadResult(size, Checksums.base64(sha256), Checksums.base64(crc));
+
+        // Take the reference before anything else, so the blob cannot be collected meanwhile. A row
+        // without references may belong to a blob whose collection failed half way, so it is stored again
+        Boolean stored = jdbcTemplate.queryForObject(
+                "INSERT INTO content_blobs (hash, size, ref_count) VALUES (?, ?, 1) "
+                        + "ON CONFLICT (hash) DO UPDATE SET ref_count = content_blobs.ref_count + 1, "
+                        + "stored = content_blobs.stored AND content_blobs.ref_count > 0 RETURNING stored",
+                Boolean.class, hash, size);
+
+        try {
+            if (!Boolean.TRUE.equals(stored)) {
+                try (InputStream inputStream = content.getInputStream()) {
+                    storageBackend.put(blobPrefix + hash, contentType, inputStream);
+                }
+                jdbcTemplate.update("UPDATE content_blobs SET stored = TRUE WHERE hash = ?", hash);
+            } else {
+                log.debug("Deduplicated {} against blob {}", path, hash);
+            }
+
+            storageBackend.putEmpty(path, contentType, Map.of(
+                    BLOB_HASH_METADATA, hash,
+                    Checksums.SHA256_METADATA, checksums.checksumSha256(),
+                    Checksums.CRC32C_METADATA, checksums.checksumCrc32c()));
+
+            deleteUnreferenced(transactionTemplate.execute(status -> {
+                List<String> previous = jdbcTemplate.queryForList(
+                        "SELECT hash FROM content_blob_refs WHERE path = ? FOR UPDATE", String.class, path);
+                jdbcTemplate.update("INSERT INTO content_blob_refs (path, hash) VALUES (?, ?) "
+                        + "ON CONFLICT (path) DO UPDATE SET hash = EXCLUDED.hash, created_at = now()", path, hash);
+                // Re-uploading the same content releases the extra reference taken above
+                return release(countByHash(previous));
+            }));
+            return checksums;
+        } catch (IOException | RuntimeException e) {
+            try {
+                deleteUnreferenced(transactionTemplate.execute(status -> release(Map.of(hash, 1L))));
+            } catch (RuntimeException releaseFailure) {
+                log.error("Failed to release reference to blob {}: {}", hash, releaseFailure.getMessage());
+            }
+            if (e instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new FileStorageException("Failed to read upload: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Optional<String> resolveBlobKey(String path) {
+        if (!inUse()) {
+            return Optional.empty();
+        }
+        return jdbcTemplate.queryForList("SELECT hash FROM content_blob_refs WHERE path = ?", String.class, path)
+                .stream()
+                .findFirst()
+                .map(hash -> blobPrefix + hash);
+    }
+
+    /**
+     * Replaces the zero sizes the backend reports for pointer objects with the size of their blob.
+     */
+    @Override
+    public void applySizes(List<FileDto> files) {
+        Map<String, FileDto> pointers = files.stream()
+                .filter(file -> "FILE".equals(file.getType()) && file.getSize() == 0)
+                .collect(Collectors.toMap(FileDto::getPath, file -> file, (a, b) -> a));
+        if (pointers.isEmpty() || !inUse()) {
+            return;
+        }
+
+        jdbcTemplate.query("SELECT r.path, b.size FROM content_blob_refs r JOIN content_blobs b ON b.hash = r.hash "
+                        + "WHERE r.path = ANY (?)",
+                rs -> {
+                    pointers.get(rs.getString(1)).setSize(rs.getLong(2));
+                },
+                (Object) pointers.keySet().toArray(String[]::new));
+    }
+
+    /**
+     * Follows objects copied from one path to another; a mapping already at the destination was
+     * overwritten by the copy and is released.
+     */
+    @Override
+    public void movePaths(Map<String, String> destinationsBySource) {
+        if (destinationsBySource.isEmpty() || !inUse()) {
+            return;
+        }
+        deleteUnreferenced(transactionTemplate.execute(status -> {
+            List<String> unreferenced = deleteMappings(destinationsBySource.values());
+            List<Object[]> updates = destinationsBySource.entrySet().stream()
+                    .map(move -> new Object[] { move.getValue(), move.getKey() })
+                    .toList();
+            jdbcTemplate.batchUpdate("UPDATE content_blob_refs SET path = ? WHERE path = ?", updates);
+            return unreferenced;
+        }));
+    }
+
+    @Override
+    public void movePrefix(String sourcePrefix, String destinationPrefix) {
+        if (!inUse()) {
+            return;
+        }
+        String pattern = FileOperationLogSpecifications.escapeLike(sourcePrefix) + "%";
+        deleteUnreferenced(transactionTemplate.execute(status -> {
+            List<String> unreferenced = release(countByHash(jdbcTemplate.queryForList(
+                    "DELETE FROM content_blob_refs WHERE path IN "
+                            + "(SELECT ? || substr(path, ?) FROM content_blob_refs WHERE path LIKE ? ESCAPE '\\') RETURNING hash",
+                    String.class, destinationPrefix, sourcePrefix.length() + 1, pattern)));
+            jdbcTemplate.update("UPDATE content_blob_refs SET path = ? || substr(path, ?) WHERE path LIKE ? ESCAPE '\\'",
+                    destinationPrefix, sourcePrefix.length() + 1, pattern);
+            return unreferenced;
+        }));
+    }
+
+    @Override
+    public void deletePaths(Collection<String> paths) {
+        if (paths.isEmpty() || !inUse()) {
+            return;
+        }
+        deleteUnreferenced(transactionTemplate.execute(status -> deleteMappings(paths)));
+    }
+
+    @Override
+    public void deletePrefix(String prefix, Set<String> retainedPaths) {
+        if (!inUse()) {
+            return;
+        }
+        String pattern = FileOperationLogSpecifications.escapeLike(prefix) + "%";
+        deleteUnreferenced(transactionTemplate.execute(status -> release(countByHash(jdbcTemplate.queryForList(
+                "DELETE FROM content_blob_refs WHERE path LIKE ? ESCAPE '\\' AND NOT (path = ANY (?)) RETURNING hash",
+                String.class, pattern, retainedPaths.toArray(String[]::new))))));
+    }
+
+    private boolean inUse() {
+        if (enabled) {
+            return true;
+        }
+        Boolean known = hasMappings;
+        if (known == null) {
+            known = Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM content_blob_refs)", Boolean.class));
+            hasMappings = known;
+        }
+        return known;
+    }
+
+    private List<String> deleteMappings(Collection<String> paths) {
+        return release(countByHash(jdbcTemplate.queryForList(
+                "DELETE FROM content_blob_refs WHERE path = ANY (?) RETURNING hash",
+                String.class, (Object) paths.toArray(String[]::new))));
+    }
+
+    /**
+     * Drops references inside the caller's transaction and returns the blobs left without any. They
+     * are only deleted after that transaction commits (see deleteUnreferenced), since a rollback
+     * restores their references.
+     */
+    private List<String> release(Map<String, Long> references) {
+        List<String> unreferenced = new ArrayList<>();
+        references.forEach((hash, count) -> {
+            Long remaining = jdbcTemplate.queryForObject(
+                    "UPDATE content_blobs SET ref_count = ref_count - ? WHERE hash = ? RETURNING ref_count",
+                    Long.class, count, hash);
+            if (remaining != null && remaining <= 0) {
+                unreferenced.add(hash);
+            }
+        });
+        return unreferenced;
+    }
+
+    /**
+     * Deletes blobs that had no references when the releasing transaction committed. Each one is
+     * re-checked and its row deleted first, in its own transaction that stays open (holding the row
+     * lock) until the object is gone; a blob that was referenced again in the meantime is kept.
+     */
+    private void deleteUnreferenced(List<String> hashes) {
+        if (hashes == null) {
+            return;
+        }
+        for (String hash : hashes) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    List<String> deleted = jdbcTemplate.queryForList(
+                            "DELETE FROM content_blobs WHERE hash = ? AND ref_count <= 0 RETURNING hash", String.class, hash);
+                    if (!deleted.isEmpty()) {
+                        storageBackend.delete(blobPrefix + hash);
+                    }
+                });
+            } catch (RuntimeException e) {
+                log.warn("Unreferenced blob {} was not deleted: {}", hash, e.getMessage());
+            }
+        }
+    }
+
+    private Map<String, Long> countByHash(List<String> hashes) {
+        Map<String, Long> counts = new HashMap<>();
+        hashes.forEach(hash -> counts.merge(hash, 1L, Long::sum));
+        return counts;
+    }
+
+}
@@ -0,0 +1,304 @@
+package com.fileManagement.FileManagement.service.impl;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Optional read-through cache of whole objects on local disk. Files are named after a hash of
+ * the object key and its version (ETag, plus the content checksum for dedup pointers, whose ETag
+ * never changes), so a changed object simply misses and its old file ages out. The total size is
+ * bounded with LRU eviction; the index is rebuilt from the directory on startup, oldest file first.
+ *
+ * <p>Misses are filled while the object streams to the first client: bytes are teed into a
+ * temporary file, which is moved into place atomically only if the whole object arrived.
+ *
+ * <p>A hit is handed out as an open channel, opened while eviction is locked out: an entry evicted
+ * while it is being served only loses its name, and its space is freed once the reader closes it.
+ */
+@Component
+@Slf4j
+public class DiskObjectCache {
+
+    private static final String ENTRY_SUFFIX = ".bin";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long maxSize;
+    private final long maxObjectSize;
+    // Access-ordered: iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalSize;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public DiskObjectCache(
+            @Value("${cache.disk.enabled:false}") boolean enabled,
+            @Value("${cache.disk.directory:${java.io.tmpdir}/file-management-cache}") Path directory,
+            @Value("${cache.disk.maxSize:10GB}") DataSize maxSize,
+            @Value("${cache.disk.maxObjectSize:1GB}") DataSize maxObjectSize) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.maxSize = maxSize.toBytes();
+        this.maxObjectSize = maxObjectSize.toBytes();
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(directory);
+
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.toList();
+        }
+        List<Path> cached = files.stream()
+                .filter(file -> {
+                    if (file.getFileName().toString().endsWith(TEMP_SUFFIX)) {
+                        deleteQuietly(file);
+                        return false;
+                    }
+                    return file.getFileName().toString().endsWith(ENTRY_SUFFIX);
+                })
+                .sorted((a, b) -> Long.compare(a.toFile().lastModified(), b.toFile().lastModified()))
+                .toList();
+
+        synchronized (this) {
+            for (Path file : cached) {
+                long size = file.toFile().length();
+                entries.put(file.getFileName().toString(), size);
+                totalSize += size;
+            }
+            evict();
+        }
+        log.info("Disk cache at {} holds {} objects ({} bytes)", directory, entries.size(), totalSize);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Opens the cached copy of an object. The caller owns the returned channel and must close it.
+     */
+    public Optional<FileChannel> lookup(String key, String version) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        String name = entryName(key, version);
+        Path file = directory.resolve(name);
+
+        FileChannel channel;
+        synchronized (this) {
+            if (entries.get(name) == null) {
+                misses.incrementAndGet();
+                return Optional.empty();
+            }
+            try {
+                channel = FileChannel.open(file, StandardOpenOption.READ);
+            } catch (IOException e) {
+                totalSize -= entries.remove(name);
+                misses.incrementAndGet();
+                return Optional.empty();
+            }
+        }
+        hits.incrementAndGet();
+        return Optional.of(channel);
+    }
+
+    /**
+     * Wraps an object stream so the bytes read from it are also written to the cache. Objects over
+     * {@code cache.disk.maxObjectSize} are passed through untouched.
+     */
+    public InputStream readThrough(String key, String version, long contentLength, InputStream source) {
+        if (!enabled || contentLength > maxObjectSize) {
+            return source;
+        }
+        try {
+            Path temp = Files.createTempFile(directory, "fill-", TEMP_SUFFIX);
+            return new TeeInputStream(source, temp, entryName(key, version), contentLength);
+        } catch (IOException e) {
+            log.warn("Cannot cache {}: {}", key, e.getMessage());
+            return source;
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        synchronized (this) {
+            stats.put("entries", entries.size());
+            stats.put("bytes", totalSize);
+        }
+        stats.put("maxBytes", maxSize);
+        stats.put("hitCount", hits.get());
+        stats.put("missCount", misses.get());
+        stats.put("evictionCount", evictions.get());
+        return stats;
+    }
+
+    private void commit(Path temp, String name, long size) {
+        try {
+            Files.move(temp, directory.resolve(name), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.warn("Failed to add {} to the disk cache: {}", name, e.getMessage());
+            deleteQuietly(temp);
+            return;
+        }
+
+        synchronized (this) {
+            Long previous = entries.put(name, size);
+            totalSize += size - (previous == null ? 0 : previous);
+            evict();
+        }
+    }
+
+    // Called with the monitor held
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+        while (totalSize > maxSize && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            deleteQuietly(directory.resolve(entry.getKey()));
+            totalSize -= entry.getValue();
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private String entryName(String key, String version) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(key.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(String.valueOf(version).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest()) + ENTRY_SUFFIX;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Copies everything read into the temporary file. A write failure only stops the caching; the
+     * reader is not affected.
+     */
+    private final class TeeInputStream extends FilterInputStream {
+
+        private final Path temp;
+        private final String name;
+        private final long contentLength;
+        private OutputStream cacheOutput;
+        private long written;
+
+        TeeInputStream(InputStream in, Path temp, String name, long contentLength) throws IOException {
+            super(in);
+            this.temp = temp;
+            this.name = name;
+            this.contentLength = contentLength;
+            this.cacheOutput = Files.newOutputStream(temp);
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            int n = read(single, 0, 1);
+            return n < 0 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0 && cacheOutput != null) {
+                try {
+                    cacheOutput.write(b, off, n);
+                    written += n;
+                } catch (IOException e) {
+                    log.warn("Stopped caching {}: {}", name, e.getMessage());
+                    discard();
+                }
+            }
+            if ((n < 0 || written == contentLength) && cacheOutput != null) {
+                finish();
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // Skipped bytes would leave a hole in the cached copy
+            discard();
+            return super.skip(n);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                discard();
+            }
+        }
+
+        private void finish() {
+            try {
+                cacheOutput.close();
+                cacheOutput = null;
+            } catch (IOException e) {
+                discard();
+                return;
+            }
+            if (written == contentLength) {
+                commit(temp, name, written);
+            } else {
+                deleteQuietly(temp);
+            }
+        }
+
+        private void discard() {
+            if (cacheOutput != null) {
+                try {
+                    cacheOutput.close();
+                } catch (IOException e) {
+                    // the partial file is deleted either way
+                }
+                cacheOutput = null;
+                deleteQuietly(temp);
+            }
+        }
+    }
+}
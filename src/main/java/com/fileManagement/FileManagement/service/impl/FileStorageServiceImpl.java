@@ -1,9 +1,16 @@
 package com.fileManagement.FileManagement.service.impl;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -11,50 +18,52 @@ import org.springframework.web.multipart.MultipartFile;
 
 import com.fileManagement.FileManagement.dto.FileDto;
 import com.fileManagement.FileManagement.dto.FileUploadResponse;
+import com.fileManagement.FileManagement.dto.PageDto;
 import com.fileManagement.FileManagement.exceptions.FileStorageException;
+import com.fileManagement.FileManagement.exceptions.ObjectChangedException;
+import com.fileManagement.FileManagement.service.DeduplicationService;
 import com.fileManagement.FileManagement.service.FileStorageService;
 import com.fileManagement.FileManagement.service.LoggingService;
+import com.fileManagement.FileManagement.service.MultipartUploadService;
+import com.fileManagement.FileManagement.service.StorageBackend;
+import com.fileManagement.FileManagement.service.StoredObject;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import software.amazon.awssdk.core.ResponseBytes;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
-import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
-import software.amazon.awssdk.services.s3.model.GetObjectRequest;
-import software.amazon.awssdk.services.s3.model.GetObjectResponse;
-import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
-import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
-import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
-import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
-import software.amazon.awssdk.services.s3.model.S3Exception;
-import software.amazon.awssdk.services.s3.model.S3Object;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class FileStorageServiceImpl implements FileStorageService {
 
-    private final S3Client s3Client;
+    private final StorageBackend storageBackend;
     private final LoggingService loggingService;
+    private final MetadataCache metadataCache;
+    private final DeduplicationService deduplicationService;
+    private final DiskObjectCache diskObjectCache;
+    private final ReservedPrefixes reservedPrefixes;
+    private final BlockingStepExecutor blockingSteps;
+    private final UploadExecutor uploadExecutor;
 
-    @Value("${aws.s3.bucketName}")
-    private String bucketName;
+    @Value("${upload.batch.parallelism:8}")
+    private int batchParallelism;
 
     @Override
     public FileUploadResponse uploadFile(String folderPath, MultipartFile file, String username) {
         try {
-            String filePath = normalizeFilePath(folderPath, file.getOriginalFilename());
-            
-            PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(filePath)
-                    .contentType(file.getContentType())
-                    .build();
-
-            s3Client.putObject(putObjectRequest, RequestBody.fromBytes(file.getBytes()));
+            String filePath = StoragePaths.normalizeFilePath(folderPath, file.getOriginalFilename());
+            reservedPrefixes.check(filePath);
+            
+            MultipartUploadService.UploadResult upload;
+            if (deduplicationService.isEnabled()) {
+                upload = deduplicationService.store(filePath, file.getContentType(), file);
+            } else {
+                try (InputStream inputStream = file.getInputStream()) {
+                    upload = storageBackend.put(filePath, file.getContentType(), inputStream);
+                }
+                deduplicationService.deletePaths(List.of(filePath));
+            }
+            metadataCache.invalidateObject(filePath);
             
             loggingService.logOperation(
                     username,
@@ -69,10 +78,13 @@ public class FileStorageServiceImpl implements FileStorageService {
                     .fileName(file.getOriginalFilename())
                     .filePath(filePath)
                     .contentType(file.getContentType())
-                    .size(file.getSize())
+                    .size(upload.size())
+                    .status("SUCCESS")
+                    .checksumSha256(upload.checksumSha256())
+                    .checksumCrc32c(upload.checksumCrc32c())
                     .message("File uploaded successfully")
                     .build();
-        } catch (IOException | S3Exception e) {
+        } catch (IOException | FileStorageException e) {
             log.error("Failed to upload file: {}", e.getMessage());
             
             loggingService.logOperation(
@@ -88,15 +100,145 @@ public class FileStorageServiceImpl implements FileStorageService {
         }
     }
 
+    /**
+     * Uploads every part of a batch request, at most {@code upload.batch.parallelism} at a time.
+     * A failing file is reported in its own result and does not abort the rest of the batch.
+     */
     @Override
-    public byte[] downloadFile(String filePath, String username) {
+    public List<FileUploadResponse> uploadFiles(String folderPath, List<MultipartFile> files, String username) {
+        Semaphore permits = new Semaphore(batchParallelism);
+        List<Future<FileUploadResponse>> uploads = new ArrayList<>();
+        
+        for (MultipartFile file : files) {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new FileStorageException("Interrupted while uploading files");
+            }
+            uploads.add(uploadExecutor.submit(() -> {
+                try {
+                    return uploadFile(folderPath, file, username);
+                } catch (FileStorageException e) {
+                    return FileUploadResponse.builder()
+                            .fileName(file.getOriginalFilename())
+                            .contentType(file.getContentType())
+                            .size(file.getSize())
+                            .status("FAILED")
+                            .message(e.getMessage())
+                            .build();
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+        
+        List<FileUploadResponse> results = new ArrayList<>();
+        for (int i = 0; i < uploads.size(); i++) {
+            try {
+                results.add(uploads.get(i).get());
+            } catch (ExecutionException e) {
+                results.add(FileUploadResponse.builder()
+                        .fileName(files.get(i).getOriginalFilename())
+                        .status("FAILED")
+                        .message(e.getCause().getMessage())
+                        .build());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new FileStorageException("Interrupted while uploading files");
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public FileUploadResponse uploadFileStream(String folderPath, String fileName, String contentType, InputStream inputStream, String username) {
+        if (fileName == null || fileName.isBlank() || fileName.contains("/")) {
+            throw new FileStorageException("Invalid file name: " + fileName);
+        }
+        
+        String filePath = StoragePaths.normalizeFilePath(folderPath, fileName);
+        reservedPrefixes.check(filePath);
+        String resolvedContentType = contentType != null ? contentType : StoragePaths.getContentType(fileName);
+        
         try {
-            GetObjectRequest getObjectRequest = GetObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(filePath)
+            MultipartUploadService.UploadResult upload = storageBackend.put(filePath, resolvedContentType, inputStream);
+            deduplicationService.deletePaths(List.of(filePath));
+            metadataCache.invalidateObject(filePath);
+            
+            loggingService.logOperation(
+                    username,
+                    "UPLOAD",
+                    filePath,
+                    null,
+                    "SUCCESS",
+                    null
+            );
+
+            return FileUploadResponse.builder()
+                    .fileName(fileName)
+                    .filePath(filePath)
+                    .contentType(resolvedContentType)
+                    .size(upload.size())
+                    .status("SUCCESS")
+                    .checksumSha256(upload.checksumSha256())
+                    .checksumCrc32c(upload.checksumCrc32c())
+                    .message("File uploaded successfully")
                     .build();
+        } catch (FileStorageException e) {
+            log.error("Failed to upload file: {}", e.getMessage());
+            
+            loggingService.logOperation(
+                    username,
+                    "UPLOAD",
+                    filePath,
+                    null,
+                    "FAILED",
+                    e.getMessage()
+            );
+            
+            throw new FileStorageException("Failed to upload file: " + e.getMessage());
+        }
+    }
 
-            ResponseBytes<GetObjectResponse> objectBytes = s3Client.getObjectAsBytes(getObjectRequest);
+    @Override
+    public StoredObject downloadFileStream(String filePath, String username) {
+        return downloadFileStream(filePath, username, false);
+    }
+
+    /**
+     * Opens one byte range of the version of the object with the given ETag; the caller writes the
+     * audit entry, once for all ranges of a request. A changed object fails with ObjectChangedException
+     * and its cached details are dropped.
+     */
+    @Override
+    public StoredObject downloadFileRange(String filePath, String range, String eTag) {
+        reservedPrefixes.check(filePath);
+        String key = deduplicationService.resolveBlobKey(filePath).orElse(filePath);
+        try {
+            // The ETag is the pointer's when the file is deduplicated; blobs never change under their key
+            return storageBackend.get(key, range, key.equals(filePath) ? eTag : null, false);
+        } catch (ObjectChangedException e) {
+            metadataCache.invalidateObject(filePath);
+            throw e;
+        }
+    }
+
+    /**
+     * With {@code verify}, the object's SHA-256 (or composite checksum for multipart uploads) is
+     * recomputed as the stream is read, and a mismatch fails the read that would deliver the last bytes.
+     */
+    @Override
+    public StoredObject downloadFileStream(String filePath, String username, boolean verify) {
+        reservedPrefixes.check(filePath);
+        try {
+            String key = deduplicationService.resolveBlobKey(filePath).orElse(filePath);
+            StoredObject objectStream = storageBackend.get(key, null, verify);
+            if (verify) {
+                objectStream = verifying(key, objectStream);
+            } else if (diskObjectCache.isEnabled()) {
+                objectStream = readThrough(filePath, key, objectStream);
+            }
             
             loggingService.logOperation(
                     username,
@@ -107,8 +249,8 @@ public class FileStorageServiceImpl implements FileStorageService {
                     null
             );
             
-            return objectBytes.asByteArray();
-        } catch (S3Exception e) {
+            return objectStream;
+        } catch (FileStorageException e) {
             log.error("Failed to download file: {}", e.getMessage());
             
             loggingService.logOperation(
@@ -124,15 +266,79 @@ public class FileStorageServiceImpl implements FileStorageService {
         }
     }
 
+    /**
+     * Serves a full download from the local disk cache when it holds the current version of the
+     * object. The version comes from the (cached) object details, so a hit costs no backend request.
+     * Those same details are returned with the entry: reading them again could see a newer version
+     * than the one the entry holds.
+     */
+    @Override
+    public Optional<CachedFile> findCachedFile(String filePath, String username) {
+        if (!diskObjectCache.isEnabled()) {
+            return Optional.empty();
+        }
+        
+        FileDto details = getFileDetails(filePath);
+        Optional<CachedFile> cachedFile = diskObjectCache.lookup(filePath, cacheVersion(details))
+                .map(channel -> new CachedFile(channel, details));
+        if (cachedFile.isPresent()) {
+            loggingService.logOperation(
+                    username,
+                    "DOWNLOAD",
+                    filePath,
+                    null,
+                    "SUCCESS",
+                    null
+            );
+        }
+        return cachedFile;
+    }
+
+    private StoredObject readThrough(String filePath, String key, StoredObject objectStream) {
+        StorageBackend.ObjectInfo object = objectStream.info();
+        FileDto details = getFileDetails(filePath);
+        
+        // Details may lag behind a change made elsewhere; never file new bytes under an old version
+        if (key.equals(filePath) && !object.eTag().equals(details.getETag())) {
+            return objectStream;
+        }
+        
+        InputStream cachingStream = diskObjectCache.readThrough(
+                filePath, cacheVersion(details), object.size(), objectStream);
+        return objectStream.withContent(cachingStream);
+    }
+
+    // Dedup pointers all share the ETag of an empty object, so their content checksum is part of the version
+    private String cacheVersion(FileDto details) {
+        return details.getETag() + "/" + details.getChecksumSha256();
+    }
+
+    private StoredObject verifying(String key, StoredObject objectStream) {
+        StorageBackend.ObjectInfo object = objectStream.info();
+        String expected = object.checksumSha256();
+        long partSize = 0;
+        
+        if (expected != null && expected.contains("-")) {
+            String storedPartSize = object.metadata().get(Checksums.PART_SIZE_METADATA);
+            partSize = storedPartSize != null ? Long.parseLong(storedPartSize) : -1;
+        }
+        if (expected == null || partSize < 0) {
+            log.warn("No verifiable SHA-256 checksum stored for {}; serving it unverified", key);
+            return objectStream;
+        }
+        
+        InputStream verifyingStream = new ChecksumVerifyingInputStream(
+                objectStream, key, object.size(), expected, partSize);
+        return objectStream.withContent(verifyingStream);
+    }
+
     @Override
     public boolean deleteFile(String filePath, String username) {
+        reservedPrefixes.check(filePath);
         try {
-            DeleteObjectRequest deleteObjectRequest = DeleteObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(filePath)
-                    .build();
-
-            s3Client.deleteObject(deleteObjectRequest);
+            storageBackend.delete(filePath);
+            deduplicationService.deletePaths(List.of(filePath));
+            metadataCache.invalidateObject(filePath);
             
             loggingService.logOperation(
                     username,
@@ -144,7 +350,7 @@ public class FileStorageServiceImpl implements FileStorageService {
             );
             
             return true;
-        } catch (S3Exception e) {
+        } catch (FileStorageException e) {
             log.error("Failed to delete file: {}", e.getMessage());
             
             loggingService.logOperation(
@@ -165,22 +371,15 @@ public class FileStorageServiceImpl implements FileStorageService {
         try {
             String directory = filePath.substring(0, filePath.lastIndexOf('/') + 1);
             String newFilePath = directory + newName;
+            reservedPrefixes.check(filePath);
+            reservedPrefixes.check(newFilePath);
             
-            CopyObjectRequest copyObjectRequest = CopyObjectRequest.builder()
-                    .sourceBucket(bucketName)
-                    .sourceKey(filePath)
-                    .destinationBucket(bucketName)
-                    .destinationKey(newFilePath)
-                    .build();
-            
-            s3Client.copyObject(copyObjectRequest);
-            
-            DeleteObjectRequest deleteObjectRequest = DeleteObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(filePath)
-                    .build();
+            storageBackend.copy(filePath, newFilePath);
+            metadataCache.invalidateObject(newFilePath);
             
-            s3Client.deleteObject(deleteObjectRequest);
+            storageBackend.delete(filePath);
+            deduplicationService.movePaths(Map.of(filePath, newFilePath));
+            metadataCache.invalidateObject(filePath);
             
             loggingService.logOperation(
                     username,
@@ -192,7 +391,7 @@ public class FileStorageServiceImpl implements FileStorageService {
             );
             
             return true;
-        } catch (S3Exception e) {
+        } catch (FileStorageException e) {
             log.error("Failed to rename file: {}", e.getMessage());
             
             loggingService.logOperation(
@@ -212,23 +411,16 @@ public class FileStorageServiceImpl implements FileStorageService {
     public boolean moveFile(String sourcePath, String destinationPath, String username) {
         try {
             String fileName = sourcePath.substring(sourcePath.lastIndexOf('/') + 1);
-            String newFilePath = normalizeFilePath(destinationPath, fileName);
+            String newFilePath = StoragePaths.normalizeFilePath(destinationPath, fileName);
+            reservedPrefixes.check(sourcePath);
+            reservedPrefixes.check(newFilePath);
             
-            CopyObjectRequest copyObjectRequest = CopyObjectRequest.builder()
-                    .sourceBucket(bucketName)
-                    .sourceKey(sourcePath)
-                    .destinationBucket(bucketName)
-                    .destinationKey(newFilePath)
-                    .build();
-            
-            s3Client.copyObject(copyObjectRequest);
+            storageBackend.copy(sourcePath, newFilePath);
+            metadataCache.invalidateObject(newFilePath);
             
-            DeleteObjectRequest deleteObjectRequest = DeleteObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(sourcePath)
-                    .build();
-            
-            s3Client.deleteObject(deleteObjectRequest);
+            storageBackend.delete(sourcePath);
+            deduplicationService.movePaths(Map.of(sourcePath, newFilePath));
+            metadataCache.invalidateObject(sourcePath);
             
             loggingService.logOperation(
                     username,
@@ -240,7 +432,7 @@ public class FileStorageServiceImpl implements FileStorageService {
             );
             
             return true;
-        } catch (S3Exception e) {
+        } catch (FileStorageException e) {
             log.error("Failed to move file: {}", e.getMessage());
             
             loggingService.logOperation(
@@ -260,102 +452,242 @@ public class FileStorageServiceImpl implements FileStorageService {
     public List<FileDto> listFiles(String folderPath) {
         try {
             String prefix = folderPath.endsWith("/") ? folderPath : folderPath + "/";
+            reservedPrefixes.check(prefix);
             
-            ListObjectsV2Request listObjectsRequest = ListObjectsV2Request.builder()
-                    .bucket(bucketName)
-                    .prefix(prefix)
-                    .delimiter("/")
-                    .build();
-            
-            ListObjectsV2Response listObjectsResponse = s3Client.listObjectsV2(listObjectsRequest);
-            
-            List<FileDto> files = new ArrayList<>();
-            
-            for (S3Object s3Object : listObjectsResponse.contents()) {
-                if (!s3Object.key().equals(prefix)) {
-                    String fileName = s3Object.key().substring(s3Object.key().lastIndexOf('/') + 1);
-                    
-                    if (!fileName.isEmpty()) {
-                        files.add(FileDto.builder()
-                                .name(fileName)
-                                .path(s3Object.key())
-                                .size(s3Object.size())
-                                .lastModified(LocalDateTime.ofInstant(s3Object.lastModified(), java.time.ZoneId.systemDefault()))
-                                .type("FILE")
-                                .contentType(getContentType(fileName))
-                                .build());
-                    }
-                }
-            }
-            
-            return files;
-        } catch (S3Exception e) {
+            return metadataCache.listing(MetadataCache.FILES, prefix,
+                    () -> toFiles(storageBackend.listAll(prefix, "/"), prefix));
+        } catch (FileStorageException e) {
             log.error("Failed to list files: {}", e.getMessage());
             throw new FileStorageException("Failed to list files: " + e.getMessage());
         }
     }
 
     @Override
-    public FileDto getFileDetails(String filePath) {
+    public PageDto<FileDto> listFiles(String folderPath, int pageSize, String cursor, String sort) {
+        ListingPages.validatePageSize(pageSize);
+        if (!ListingPages.isNativeOrder(sort)) {
+            return ListingPages.sortedPage(listFiles(folderPath), pageSize, cursor, sort);
+        }
+        
         try {
-            HeadObjectRequest headObjectRequest = HeadObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(filePath)
-                    .build();
-
-            HeadObjectResponse headObjectResponse = s3Client.headObject(headObjectRequest);
+            String prefix = folderPath.endsWith("/") ? folderPath : folderPath + "/";
+            reservedPrefixes.check(prefix);
             
-            String fileName = filePath.substring(filePath.lastIndexOf('/') + 1);
+            StorageBackend.ListingPage page = storageBackend.list(
+                    prefix, "/", ListingPages.continuationToken(cursor), pageSize);
             
-            return FileDto.builder()
+            return toFilesPage(page, prefix);
+        } catch (FileStorageException e) {
+            log.error("Failed to list files: {}", e.getMessage());
+            throw new FileStorageException("Failed to list files: " + e.getMessage());
+        }
+    }
+
+    private List<FileDto> toFiles(List<StorageBackend.ListingPage> pages, String prefix) {
+        List<FileDto> files = new ArrayList<>();
+        
+        for (StorageBackend.ListingPage page : pages) {
+            for (StorageBackend.ObjectInfo object : page.objects()) {
+                addFile(files, object, prefix);
+            }
+        }
+        deduplicationService.applySizes(files);
+        
+        return files;
+    }
+
+    private PageDto<FileDto> toFilesPage(StorageBackend.ListingPage page, String prefix) {
+        return PageDto.<FileDto>builder()
+                .items(toFiles(List.of(page), prefix))
+                .nextCursor(ListingPages.tokenCursor(page.nextCursor()))
+                .build();
+    }
+
+    private void addFile(List<FileDto> files, StorageBackend.ObjectInfo object, String prefix) {
+        if (object.key().equals(prefix) || reservedPrefixes.isReserved(object.key())) {
+            return;
+        }
+        
+        String fileName = object.key().substring(object.key().lastIndexOf('/') + 1);
+        
+        if (!fileName.isEmpty()) {
+            files.add(FileDto.builder()
                     .name(fileName)
-                    .path(filePath)
-                    .size(headObjectResponse.contentLength())
-                    .lastModified(LocalDateTime.ofInstant(headObjectResponse.lastModified(), java.time.ZoneId.systemDefault()))
+                    .path(object.key())
+                    .size(object.size())
+                    .lastModified(LocalDateTime.ofInstant(object.lastModified(), java.time.ZoneId.systemDefault()))
                     .type("FILE")
-                    .contentType(headObjectResponse.contentType())
-                    .build();
-        } catch (S3Exception e) {
+                    .contentType(StoragePaths.getContentType(fileName))
+                    .eTag(object.eTag())
+                    .build());
+        }
+    }
+
+    @Override
+    public FileDto getFileDetails(String filePath) {
+        reservedPrefixes.check(filePath);
+        try {
+            return metadataCache.details(filePath, () -> toFileDetails(filePath, storageBackend.head(filePath)));
+        } catch (FileStorageException e) {
             log.error("Failed to get file details: {}", e.getMessage());
             throw new FileStorageException("Failed to get file details: " + e.getMessage());
         }
     }
 
-    private String normalizeFilePath(String folderPath, String fileName) {
-        if (folderPath == null || folderPath.isEmpty() || folderPath.equals("/")) {
-            return fileName;
+    private FileDto toFileDetails(String filePath, StorageBackend.ObjectInfo object) {
+        String fileName = filePath.substring(filePath.lastIndexOf('/') + 1);
+        
+        FileDto fileDto = FileDto.builder()
+                .name(fileName)
+                .path(filePath)
+                .size(object.size())
+                .lastModified(LocalDateTime.ofInstant(object.lastModified(), java.time.ZoneId.systemDefault()))
+                .type("FILE")
+                .contentType(object.contentType())
+                .eTag(object.eTag())
+                .checksumSha256(object.metadata().getOrDefault(
+                        Checksums.SHA256_METADATA, object.checksumSha256()))
+                .checksumCrc32c(object.metadata().getOrDefault(
+                        Checksums.CRC32C_METADATA, object.checksumCrc32c()))
+                .build();
+        deduplicationService.applySizes(List.of(fileDto));
+        
+        return fileDto;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteFileAsync(String filePath, String username) {
+        reservedPrefixes.check(filePath);
+        
+        return storageBackend.deleteAsync(filePath)
+                .thenApplyAsync(ignored -> {
+                    deduplicationService.deletePaths(List.of(filePath));
+                    metadataCache.invalidateObject(filePath);
+                    
+                    loggingService.logOperation(username, "DELETE", filePath, null, "SUCCESS", null);
+                    return true;
+                }, blockingSteps)
+                .exceptionallyAsync(e -> {
+                    throw failed(e, "DELETE", "delete file", username, filePath, null);
+                }, blockingSteps);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> renameFileAsync(String filePath, String newName, String username) {
+        String directory = filePath.substring(0, filePath.lastIndexOf('/') + 1);
+        String newFilePath = directory + newName;
+        reservedPrefixes.check(filePath);
+        reservedPrefixes.check(newFilePath);
+        
+        return relocateAsync(filePath, newFilePath)
+                .thenApplyAsync(ignored -> {
+                    loggingService.logOperation(username, "RENAME", filePath, newFilePath, "SUCCESS", null);
+                    return true;
+                }, blockingSteps)
+                .exceptionallyAsync(e -> {
+                    throw failed(e, "RENAME", "rename file", username, filePath, newName);
+                }, blockingSteps);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> moveFileAsync(String sourcePath, String destinationPath, String username) {
+        String fileName = sourcePath.substring(sourcePath.lastIndexOf('/') + 1);
+        String newFilePath = StoragePaths.normalizeFilePath(destinationPath, fileName);
+        reservedPrefixes.check(sourcePath);
+        reservedPrefixes.check(newFilePath);
+        
+        return relocateAsync(sourcePath, newFilePath)
+                .thenApplyAsync(ignored -> {
+                    loggingService.logOperation(username, "MOVE", sourcePath, newFilePath, "SUCCESS", null);
+                    return true;
+                }, blockingSteps)
+                .exceptionallyAsync(e -> {
+                    throw failed(e, "MOVE", "move file", username, sourcePath, destinationPath);
+                }, blockingSteps);
+    }
+
+    private CompletableFuture<Void> relocateAsync(String sourcePath, String newFilePath) {
+        return storageBackend.copyAsync(sourcePath, newFilePath)
+                .thenCompose(ignored -> {
+                    metadataCache.invalidateObject(newFilePath);
+                    return storageBackend.deleteAsync(sourcePath);
+                })
+                .thenRunAsync(() -> {
+                    deduplicationService.movePaths(Map.of(sourcePath, newFilePath));
+                    metadataCache.invalidateObject(sourcePath);
+                }, blockingSteps);
+    }
+
+    /**
+     * Logs a failed async operation the way the blocking variants do and returns the exception to
+     * fail the future with. Failures other than FileStorageException are passed on unchanged.
+     */
+    private RuntimeException failed(Throwable e, String operation, String action, String username, String path,
+            String destination) {
+        Throwable cause = Futures.unwrap(e);
+        if (!(cause instanceof FileStorageException)) {
+            return Futures.propagate(cause);
+        }
+        log.error("Failed to {}: {}", action, cause.getMessage());
+        
+        loggingService.logOperation(username, operation, path, destination, "FAILED", cause.getMessage());
+        
+        return new FileStorageException("Failed to " + action + ": " + cause.getMessage());
+    }
+
+    @Override
+    public CompletableFuture<List<FileDto>> listFilesAsync(String folderPath) {
+        String prefix = folderPath.endsWith("/") ? folderPath : folderPath + "/";
+        reservedPrefixes.check(prefix);
+        
+        return metadataCache.listingAsync(MetadataCache.FILES, prefix,
+                        () -> storageBackend.listAllAsync(prefix, "/")
+                                .thenApplyAsync(pages -> toFiles(pages, prefix), blockingSteps))
+                .exceptionally(e -> {
+                    throw listingFailed(e);
+                });
+    }
+
+    @Override
+    public CompletableFuture<PageDto<FileDto>> listFilesAsync(String folderPath, int pageSize, String cursor, String sort) {
+        ListingPages.validatePageSize(pageSize);
+        if (!ListingPages.isNativeOrder(sort)) {
+            return listFilesAsync(folderPath).thenApply(files -> ListingPages.sortedPage(files, pageSize, cursor, sort));
         }
         
-        String normalizedPath = folderPath.startsWith("/") ? folderPath.substring(1) : folderPath;
-        normalizedPath = normalizedPath.endsWith("/") ? normalizedPath : normalizedPath + "/";
+        String prefix = folderPath.endsWith("/") ? folderPath : folderPath + "/";
+        reservedPrefixes.check(prefix);
         
-        return normalizedPath + fileName;
+        return storageBackend.listAsync(prefix, "/", ListingPages.continuationToken(cursor), pageSize)
+                .thenApplyAsync(page -> toFilesPage(page, prefix), blockingSteps)
+                .exceptionally(e -> {
+                    throw listingFailed(e);
+                });
     }
-    
-    private String getContentType(String fileName) {
-        String extension = fileName.substring(fileName.lastIndexOf('.') + 1).toLowerCase();
-        switch (extension) {
-            case "pdf":
-                return "application/pdf";
-            case "jpg":
-            case "jpeg":
-                return "image/jpeg";
-            case "png":
-                return "image/png";
-            case "gif":
-                return "image/gif";
-            case "xlsx":
-                return "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
-            case "xls":
-                return "application/vnd.ms-excel";
-            case "docx":
-                return "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
-            case "doc":
-                return "application/msword";
-            case "txt":
-                return "text/plain";
-            default:
-                return "application/octet-stream";
+
+    private RuntimeException listingFailed(Throwable e) {
+        Throwable cause = Futures.unwrap(e);
+        if (!(cause instanceof FileStorageException)) {
+            return Futures.propagate(cause);
         }
+        log.error("Failed to list files: {}", cause.getMessage());
+        return new FileStorageException("Failed to list files: " + cause.getMessage());
+    }
+
+    @Override
+    public CompletableFuture<FileDto> getFileDetailsAsync(String filePath) {
+        reservedPrefixes.check(filePath);
+        
+        return metadataCache.detailsAsync(filePath,
+                        () -> storageBackend.headAsync(filePath)
+                                .thenApplyAsync(object -> toFileDetails(filePath, object), blockingSteps))
+                .exceptionally(e -> {
+                    Throwable cause = Futures.unwrap(e);
+                    if (!(cause instanceof FileStorageException)) {
+                        throw Futures.propagate(cause);
+                    }
+                    log.error("Failed to get file details: {}", cause.getMessage());
+                    throw new FileStorageException("Failed to get file details: " + cause.getMessage());
+                });
     }
 }
@@ -0,0 +1,336 @@
+package com.fileManagement.FileManagement.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.fileManagement.FileManagement.dto.FolderJobRequest;
+import com.fileManagement.FileManagement.entity.FolderJob;
+import com.fileManagement.FileManagement.exceptions.FileStorageException;
+import com.fileManagement.FileManagement.exceptions.InvalidRequestException;
+import com.fileManagement.FileManagement.repository.FolderJobRepository;
+import com.fileManagement.FileManagement.service.DeduplicationService;
+import com.fileManagement.FileManagement.service.FolderJobService;
+import com.fileManagement.FileManagement.service.LoggingService;
+import com.fileManagement.FileManagement.service.StorageBackend;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs folder delete/rename/move as background jobs on a small bounded pool. A job works through
+ * the source one listing page (up to 1000 keys) at a time: copies run concurrently, then the copied
+ * sources are deleted in one batch, so each object is always at either the source or the
+ * destination. Progress and the last processed key are persisted after every page; jobs still
+ * queued or running at shutdown are picked up again on startup and continue after that key.
+ *
+ * <p>On a backend with native folders the whole move or delete is a single operation, so a job
+ * runs it in one step instead of page by page.
+ */
+@Service
+@Slf4j
+public class FolderJobServiceImpl implements FolderJobService {
+
+    private static final String QUEUED = "QUEUED";
+    private static final String RUNNING = "RUNNING";
+    private static final String SUCCEEDED = "SUCCEEDED";
+    private static final String FAILED = "FAILED";
+
+    private final StorageBackend storageBackend;
+    private final FolderJobRepository folderJobRepository;
+    private final LoggingService loggingService;
+    private final MetadataCache metadataCache;
+    private final DeduplicationService deduplicationService;
+    private final ReservedPrefixes reservedPrefixes;
+    private final ThreadPoolExecutor executor;
+    private volatile boolean stopping;
+
+    public FolderJobServiceImpl(
+            StorageBackend storageBackend,
+            FolderJobRepository folderJobRepository,
+            LoggingService loggingService,
+            MetadataCache metadataCache,
+            DeduplicationService deduplicationService,
+            ReservedPrefixes reservedPrefixes,
+            @Value("${folder.jobs.parallelism:2}") int parallelism,
+            @Value("${folder.jobs.queueCapacity:100}") int queueCapacity) {
+        this.storageBackend = storageBackend;
+        this.folderJobRepository = folderJobRepository;
+        this.loggingService = loggingService;
+        this.metadataCache = metadataCache;
+        this.deduplicationService = deduplicationService;
+        this.reservedPrefixes = reservedPrefixes;
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("folder-job-"));
+    }
+
+    @Override
+    public FolderJob submitJob(FolderJobRequest request) {
+        String sourcePath = StoragePaths.normalizeFolderPath(request.getPath());
+        if (sourcePath.isEmpty()) {
+            throw new InvalidRequestException("Folder path is required");
+        }
+
+        String destinationPath = null;
+        switch (request.getOperation()) {
+            case "RENAME" -> {
+                if (request.getNewName() == null || request.getNewName().isEmpty() || request.getNewName().contains("/")) {
+                    throw new InvalidRequestException("Invalid new name");
+                }
+                String parentPath = sourcePath.substring(0, sourcePath.lastIndexOf("/", sourcePath.length() - 2) + 1);
+                destinationPath = parentPath + request.getNewName() + "/";
+            }
+            case "MOVE" -> {
+                if (request.getDestinationPath() == null || request.getDestinationPath().isEmpty()) {
+                    throw new InvalidRequestException("Destination path is required");
+                }
+                String folderName = sourcePath.substring(sourcePath.lastIndexOf("/", sourcePath.length() - 2) + 1);
+                destinationPath = StoragePaths.normalizeFolderPath(request.getDestinationPath()) + folderName;
+            }
+            default -> { }
+        }
+        if (StoragePaths.hasDotSegment(sourcePath) || StoragePaths.hasDotSegment(destinationPath)) {
+            throw new InvalidRequestException("Paths may not contain '.' or '..' segments");
+        }
+        reservedPrefixes.check(sourcePath);
+        reservedPrefixes.check(destinationPath);
+        if (destinationPath != null && destinationPath.startsWith(sourcePath)) {
+            throw new InvalidRequestException("Cannot move a folder into itself");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        FolderJob job = folderJobRepository.save(FolderJob.builder()
+                .operation(request.getOperation() + "_FOLDER")
+                .sourcePath(sourcePath)
+                .destinationPath(destinationPath)
+                .username(request.getUsername())
+                .status(QUEUED)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+
+        try {
+            schedule(job.getId());
+        } catch (RejectedExecutionException e) {
+            folderJobRepository.delete(job);
+            throw new FileStorageException("Too many folder jobs queued, try again later");
+        }
+        return job;
+    }
+
+    @Override
+    public Optional<FolderJob> getJob(Long id) {
+        return folderJobRepository.findById(id);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeJobs() {
+        try {
+            for (FolderJob job : folderJobRepository.findByStatusInOrderByIdAsc(List.of(QUEUED, RUNNING))) {
+                log.info("Resuming folder job {} ({} {}) after {}", job.getId(), job.getOperation(), job.getSourcePath(), job.getLastKey());
+                schedule(job.getId());
+            }
+        } catch (RejectedExecutionException e) {
+            log.warn("Folder job queue full while resuming; remaining jobs stay queued until the next start");
+        } catch (DataAccessException e) {
+            log.error("Failed to resume folder jobs: {}", e.getMessage());
+        }
+    }
+
+    private void schedule(Long jobId) {
+        executor.execute(() -> run(jobId));
+    }
+
+    private void run(Long jobId) {
+        FolderJob job = folderJobRepository.findById(jobId).orElse(null);
+        if (job == null || stopping) {
+            return;
+        }
+
+        try {
+            job.setStatus(RUNNING);
+            if (job.getTotalKeys() == null) {
+                job.setTotalKeys(countKeys(job.getSourcePath()));
+            }
+            job = save(job);
+
+            if (storageBackend.hasNativeFolders()) {
+                runAtOnce(job);
+                return;
+            }
+
+            String startAfter = job.getLastKey();
+            StorageBackend.ListingPage page;
+            do {
+                if (stopping) {
+                    return;
+                }
+
+                page = storageBackend.listAfter(job.getSourcePath(), startAfter, StorageBackend.MAX_KEYS);
+                if (page.objects().isEmpty()) {
+                    break;
+                }
+
+                List<String> keys = page.objects().stream().map(StorageBackend.ObjectInfo::key).toList();
+                Map<String, String> failures;
+                if (job.getDestinationPath() == null) {
+                    failures = storageBackend.deleteAll(keys);
+                    deduplicationService.deletePaths(keys.stream().filter(key -> !failures.containsKey(key)).toList());
+                } else {
+                    failures = movePage(keys, job.getSourcePath(), job.getDestinationPath());
+                }
+
+                metadataCache.invalidatePrefix(job.getSourcePath());
+                if (job.getDestinationPath() != null) {
+                    metadataCache.invalidatePrefix(job.getDestinationPath());
+                }
+
+                startAfter = keys.get(keys.size() - 1);
+                job.setLastKey(startAfter);
+                job.setProcessedKeys(job.getProcessedKeys() + keys.size() - failures.size());
+                job.setFailedKeys(job.getFailedKeys() + failures.size());
+                if (!failures.isEmpty() && job.getErrorMessage() == null) {
+                    Map.Entry<String, String> first = failures.entrySet().iterator().next();
+                    job.setErrorMessage(first.getKey() + ": " + first.getValue());
+                }
+                job = save(job);
+            } while (page.nextCursor() != null);
+
+            finish(job, job.getFailedKeys() == 0 ? SUCCEEDED : FAILED, job.getFailedKeys() == 0
+                    ? null
+                    : job.getFailedKeys() + " objects were left at the source (first error: " + job.getErrorMessage() + ")");
+        } catch (RuntimeException e) {
+            if (stopping) {
+                log.info("Folder job {} interrupted by shutdown; it resumes after {}", jobId, job.getLastKey());
+                return;
+            }
+            // Anything else would leave the job RUNNING until the next restart picks it up again
+            log.error("Folder job {} failed", jobId, e);
+            finish(job, FAILED, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Copies one page of keys to the destination and removes the sources that were copied. A copy
+     * whose source cannot be deleted is removed again, so no object ends up in both places.
+     */
+    private Map<String, String> movePage(List<String> keys, String sourcePrefix, String destinationPrefix) {
+        Map<String, String> destinationsBySource = new LinkedHashMap<>();
+        keys.forEach(key -> destinationsBySource.put(key, destinationPrefix + key.substring(sourcePrefix.length())));
+
+        Map<String, String> failures = new LinkedHashMap<>(storageBackend.copyAll(destinationsBySource));
+        List<String> copiedSources = keys.stream().filter(key -> !failures.containsKey(key)).toList();
+
+        Map<String, String> deleteFailures = copiedSources.isEmpty() ? Map.of() : storageBackend.deleteAll(copiedSources);
+        if (!deleteFailures.isEmpty()) {
+            List<String> orphanedCopies = new ArrayList<>();
+            deleteFailures.keySet().forEach(key -> orphanedCopies.add(destinationsBySource.get(key)));
+            Map<String, String> rollbackFailures = storageBackend.deleteAll(orphanedCopies);
+            if (!rollbackFailures.isEmpty()) {
+                log.error("Failed to remove {} copies under {} whose source could not be deleted", rollbackFailures.size(), destinationPrefix);
+            }
+            failures.putAll(deleteFailures);
+        }
+
+        Map<String, String> moved = new LinkedHashMap<>(destinationsBySource);
+        moved.keySet().removeAll(failures.keySet());
+        deduplicationService.movePaths(moved);
+        return failures;
+    }
+
+    /**
+     * Moves or deletes the whole folder in one backend operation and finishes the job.
+     */
+    private void runAtOnce(FolderJob job) {
+        Map<String, String> failures;
+        try {
+            if (job.getDestinationPath() == null) {
+                failures = storageBackend.deletePrefix(job.getSourcePath());
+                deduplicationService.deletePrefix(job.getSourcePath(), failures.keySet());
+            } else {
+                failures = storageBackend.movePrefix(job.getSourcePath(), job.getDestinationPath());
+                if (failures.isEmpty()) {
+                    deduplicationService.movePrefix(job.getSourcePath(), job.getDestinationPath());
+                }
+            }
+        } finally {
+            metadataCache.invalidatePrefix(job.getSourcePath());
+            if (job.getDestinationPath() != null) {
+                metadataCache.invalidatePrefix(job.getDestinationPath());
+            }
+        }
+
+        job.setProcessedKeys(Math.max(job.getTotalKeys() - failures.size(), 0));
+        job.setFailedKeys(failures.size());
+        if (failures.isEmpty()) {
+            finish(job, SUCCEEDED, null);
+        } else {
+            Map.Entry<String, String> first = failures.entrySet().iterator().next();
+            finish(job, FAILED, failures.size() + " objects were left at the source (first error: "
+                    + first.getKey() + ": " + first.getValue() + ")");
+        }
+    }
+
+    private long countKeys(String prefix) {
+        long count = 0;
+        String cursor = null;
+        do {
+            StorageBackend.ListingPage page = storageBackend.list(prefix, null, cursor, StorageBackend.MAX_KEYS);
+            count += page.objects().size();
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return count;
+    }
+
+    private void finish(FolderJob job, String status, String message) {
+        job.setStatus(status);
+        job.setErrorMessage(message);
+        job.setFinishedAt(LocalDateTime.now());
+        try {
+            save(job);
+        } catch (DataAccessException e) {
+            log.error("Failed to record the result of folder job {}: {}", job.getId(), e.getMessage());
+        }
+
+        loggingService.logOperation(
+                job.getUsername(),
+                job.getOperation(),
+                job.getSourcePath(),
+                job.getDestinationPath(),
+                SUCCEEDED.equals(status) ? "SUCCESS" : "FAILED",
+                message
+        );
+    }
+
+    private FolderJob save(FolderJob job) {
+        job.setUpdatedAt(LocalDateTime.now());
+        return folderJobRepository.save(job);
+    }
+
+    /**
+     * Stops taking pages and lets running jobs finish the page in hand; whatever is left keeps its
+     * QUEUED/RUNNING status and checkpoint for the next start.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        stopping = true;
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+}
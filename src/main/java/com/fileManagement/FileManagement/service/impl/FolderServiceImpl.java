@@ -1,57 +1,110 @@
 package com.fileManagement.FileManagement.service.impl;
 
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 
+import com.fileManagement.FileManagement.dto.ArchiveImportResponse;
 import com.fileManagement.FileManagement.dto.FileDto;
+import com.fileManagement.FileManagement.dto.FileUploadResponse;
 import com.fileManagement.FileManagement.dto.FolderDto;
+import com.fileManagement.FileManagement.dto.PageDto;
 import com.fileManagement.FileManagement.exceptions.FileStorageException;
+import com.fileManagement.FileManagement.exceptions.InvalidRequestException;
 import com.fileManagement.FileManagement.service.FileStorageService;
+import com.fileManagement.FileManagement.service.DeduplicationService;
 import com.fileManagement.FileManagement.service.FolderService;
 import com.fileManagement.FileManagement.service.LoggingService;
+import com.fileManagement.FileManagement.service.MultipartUploadService;
+import com.fileManagement.FileManagement.service.StorageBackend;
+import com.fileManagement.FileManagement.service.StoredObject;
 
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.CommonPrefix;
-import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
-import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
-import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
-import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
-import software.amazon.awssdk.services.s3.model.S3Exception;
-import software.amazon.awssdk.services.s3.model.S3Object;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class FolderServiceImpl implements FolderService {
 
-    private final S3Client s3Client;
+    private final StorageBackend storageBackend;
     private final LoggingService loggingService;
     private final FileStorageService fileStorageService;
+    private final S3BatchOperations s3BatchOperations;
+    private final MetadataCache metadataCache;
+    private final DeduplicationService deduplicationService;
+    private final ReservedPrefixes reservedPrefixes;
+    private final BlockingStepExecutor blockingSteps;
+    private final UploadExecutor uploadExecutor;
     
-    @Value("${aws.s3.bucketName}")
-    private String bucketName;
+    @Value("${folder.zip.prefetch:4}")
+    private int zipPrefetch;
+    
+    // Listings in flight per hierarchy request, the same bound S3BatchOperations puts on its pool
+    @Value("${aws.s3.operations.parallelism:16}")
+    private int listingParallelism;
+    
+    @Value("${folder.import.parallelism:8}")
+    private int importParallelism;
+    
+    @Value("${folder.import.bufferLimit:8388608}")
+    private int importBufferLimit;
+    
+    @Value("${folder.import.sharedBuffers:32}")
+    private int importSharedBuffers;
+    
+    @Value("${folder.import.maxEntries:10000}")
+    private int importMaxEntries;
+    
+    @Value("${folder.import.maxSize:10GB}")
+    private DataSize importMaxSize;
+    
+    @Value("${folder.import.maxCompressionRatio:100}")
+    private int importMaxCompressionRatio;
+    
+    // Entries buffered by all imports together; each import is also limited to folder.import.parallelism
+    private Semaphore sharedImportBuffers;
+    
+    @PostConstruct
+    public void init() {
+        sharedImportBuffers = new Semaphore(importSharedBuffers);
+    }
 
     @Override
     public boolean createFolder(String folderPath, String username) {
         try {
-            String normalizedFolderPath = normalizeFolderPath(folderPath);
+            String normalizedFolderPath = StoragePaths.normalizeFolderPath(folderPath);
+            reservedPrefixes.check(normalizedFolderPath);
             
-            PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(normalizedFolderPath)
-                    .build();
-
-            s3Client.putObject(putObjectRequest, RequestBody.empty());
+            storageBackend.putEmpty(normalizedFolderPath, null, Map.of());
+            metadataCache.invalidateObject(normalizedFolderPath);
             
             loggingService.logOperation(
                     username,
@@ -63,7 +116,7 @@ public class FolderServiceImpl implements FolderService {
             );
             
             return true;
-        } catch (S3Exception e) {
+        } catch (FileStorageException e) {
             log.error("Failed to create folder: {}", e.getMessage());
             
             loggingService.logOperation(
@@ -81,23 +134,35 @@ public class FolderServiceImpl implements FolderService {
 
     @Override
     public boolean deleteFolder(String folderPath, String username) {
+        String normalizedFolderPath = StoragePaths.normalizeFolderPath(folderPath);
+        if (normalizedFolderPath.isEmpty()) {
+            throw new InvalidRequestException("Folder path is required");
+        }
+        reservedPrefixes.check(normalizedFolderPath);
+        
         try {
-            String normalizedFolderPath = normalizeFolderPath(folderPath);
-            
-            ListObjectsV2Request listRequest = ListObjectsV2Request.builder()
-                    .bucket(bucketName)
-                    .prefix(normalizedFolderPath)
-                    .build();
-            
-            ListObjectsV2Response listResponse = s3Client.listObjectsV2(listRequest);
+            Map<String, String> failures;
+            try {
+                failures = storageBackend.deletePrefix(normalizedFolderPath);
+                deduplicationService.deletePrefix(normalizedFolderPath, failures.keySet());
+            } finally {
+                metadataCache.invalidatePrefix(normalizedFolderPath);
+            }
             
-            for (S3Object s3Object : listResponse.contents()) {
-                DeleteObjectRequest deleteRequest = DeleteObjectRequest.builder()
-                        .bucket(bucketName)
-                        .key(s3Object.key())
-                        .build();
+            if (!failures.isEmpty()) {
+                String message = describeFailures("Could not delete", failures);
+                log.error("Failed to delete folder {}: {}", normalizedFolderPath, message);
                 
-                s3Client.deleteObject(deleteRequest);
+                loggingService.logOperation(
+                        username,
+                        "DELETE_FOLDER",
+                        normalizedFolderPath,
+                        null,
+                        "FAILED",
+                        message
+                );
+                
+                throw new FileStorageException("Failed to delete folder: " + message);
             }
             
             loggingService.logOperation(
@@ -110,7 +175,7 @@ public class FolderServiceImpl implements FolderService {
             );
             
             return true;
-        } catch (S3Exception e) {
+        } catch (FileStorageException e) {
             log.error("Failed to delete folder: {}", e.getMessage());
             
             loggingService.logOperation(
@@ -129,7 +194,7 @@ public class FolderServiceImpl implements FolderService {
     @Override
     public boolean renameFolder(String folderPath, String newName, String username) {
         try {
-            String normalizedFolderPath = normalizeFolderPath(folderPath);
+            String normalizedFolderPath = StoragePaths.normalizeFolderPath(folderPath);
             
             String parentPath = "";
             if (normalizedFolderPath.contains("/")) {
@@ -137,33 +202,34 @@ public class FolderServiceImpl implements FolderService {
             }
             
             String newFolderPath = parentPath + newName + "/";
+            reservedPrefixes.check(normalizedFolderPath);
+            reservedPrefixes.check(newFolderPath);
             
-            ListObjectsV2Request listRequest = ListObjectsV2Request.builder()
-                    .bucket(bucketName)
-                    .prefix(normalizedFolderPath)
-                    .build();
-            
-            ListObjectsV2Response listResponse = s3Client.listObjectsV2(listRequest);
+            Map<String, String> failures;
+            try {
+                failures = storageBackend.movePrefix(normalizedFolderPath, newFolderPath);
+                if (failures.isEmpty()) {
+                    deduplicationService.movePrefix(normalizedFolderPath, newFolderPath);
+                }
+            } finally {
+                metadataCache.invalidatePrefix(normalizedFolderPath);
+                metadataCache.invalidatePrefix(newFolderPath);
+            }
             
-            for (S3Object s3Object : listResponse.contents()) {
-                String relativePath = s3Object.key().substring(normalizedFolderPath.length());
-                String newKey = newFolderPath + relativePath;
-                
-                CopyObjectRequest copyRequest = CopyObjectRequest.builder()
-                        .sourceBucket(bucketName)
-                        .sourceKey(s3Object.key())
-                        .destinationBucket(bucketName)
-                        .destinationKey(newKey)
-                        .build();
-                
-                s3Client.copyObject(copyRequest);
+            if (!failures.isEmpty()) {
+                String message = describeFailures("Could not rename", failures);
+                log.error("Failed to rename folder {}: {}", normalizedFolderPath, message);
                 
-                DeleteObjectRequest deleteRequest = DeleteObjectRequest.builder()
-                        .bucket(bucketName)
-                        .key(s3Object.key())
-                        .build();
+                loggingService.logOperation(
+                        username,
+                        "RENAME_FOLDER",
+                        normalizedFolderPath,
+                        newFolderPath,
+                        "FAILED",
+                        message
+                );
                 
-                s3Client.deleteObject(deleteRequest);
+                throw new FileStorageException("Failed to rename folder: " + message);
             }
             
             loggingService.logOperation(
@@ -176,7 +242,7 @@ public class FolderServiceImpl implements FolderService {
             );
             
             return true;
-        } catch (S3Exception e) {
+        } catch (FileStorageException e) {
             log.error("Failed to rename folder: {}", e.getMessage());
             
             loggingService.logOperation(
@@ -195,8 +261,8 @@ public class FolderServiceImpl implements FolderService {
     @Override
     public boolean moveFolder(String sourcePath, String destinationPath, String username) {
         try {
-            String normalizedSourcePath = normalizeFolderPath(sourcePath);
-            String normalizedDestPath = normalizeFolderPath(destinationPath);
+            String normalizedSourcePath = StoragePaths.normalizeFolderPath(sourcePath);
+            String normalizedDestPath = StoragePaths.normalizeFolderPath(destinationPath);
             
             String folderName = "";
             if (normalizedSourcePath.endsWith("/")) {
@@ -209,33 +275,34 @@ public class FolderServiceImpl implements FolderService {
             }
             
             String newFolderPath = normalizedDestPath + folderName + "/";
+            reservedPrefixes.check(normalizedSourcePath);
+            reservedPrefixes.check(newFolderPath);
             
-            ListObjectsV2Request listRequest = ListObjectsV2Request.builder()
-                    .bucket(bucketName)
-                    .prefix(normalizedSourcePath)
-                    .build();
-            
-            ListObjectsV2Response listResponse = s3Client.listObjectsV2(listRequest);
+            Map<String, String> failures;
+            try {
+                failures = storageBackend.movePrefix(normalizedSourcePath, newFolderPath);
+                if (failures.isEmpty()) {
+                    deduplicationService.movePrefix(normalizedSourcePath, newFolderPath);
+                }
+            } finally {
+                metadataCache.invalidatePrefix(normalizedSourcePath);
+                metadataCache.invalidatePrefix(newFolderPath);
+            }
             
-            for (S3Object s3Object : listResponse.contents()) {
-                String relativePath = s3Object.key().substring(normalizedSourcePath.length());
-                String newKey = newFolderPath + relativePath;
-                
-                CopyObjectRequest copyRequest = CopyObjectRequest.builder()
-                        .sourceBucket(bucketName)
-                        .sourceKey(s3Object.key())
-                        .destinationBucket(bucketName)
-                        .destinationKey(newKey)
-                        .build();
-                
-                s3Client.copyObject(copyRequest);
+            if (!failures.isEmpty()) {
+                String message = describeFailures("Could not move", failures);
+                log.error("Failed to move folder {}: {}", normalizedSourcePath, message);
                 
-                DeleteObjectRequest deleteRequest = DeleteObjectRequest.builder()
-                        .bucket(bucketName)
-                        .key(s3Object.key())
-                        .build();
+                loggingService.logOperation(
+                        username,
+                        "MOVE_FOLDER",
+                        normalizedSourcePath,
+                        newFolderPath,
+                        "FAILED",
+                        message
+                );
                 
-                s3Client.deleteObject(deleteRequest);
+                throw new FileStorageException("Failed to move folder: " + message);
             }
             
             loggingService.logOperation(
@@ -248,7 +315,7 @@ public class FolderServiceImpl implements FolderService {
             );
             
             return true;
-        } catch (S3Exception e) {
+        } catch (FileStorageException e) {
             log.error("Failed to move folder: {}", e.getMessage());
             
             loggingService.logOperation(
@@ -267,199 +334,772 @@ public class FolderServiceImpl implements FolderService {
     @Override
     public List<FileDto> listFolderContents(String folderPath) {
         try {
-            String normalizedFolderPath = normalizeFolderPath(folderPath);
+            String normalizedFolderPath = StoragePaths.normalizeFolderPath(folderPath);
+            reservedPrefixes.check(normalizedFolderPath);
             
-            ListObjectsV2Request listRequest = ListObjectsV2Request.builder()
-                    .bucket(bucketName)
-                    .prefix(normalizedFolderPath)
-                    .delimiter("/")
-                    .build();
+            return metadataCache.listing(MetadataCache.FOLDER, normalizedFolderPath,
+                    () -> toContents(storageBackend.listAll(normalizedFolderPath, "/"), normalizedFolderPath));
+        } catch (FileStorageException e) {
+            log.error("Failed to list folder contents: {}", e.getMessage());
+            throw new FileStorageException("Failed to list folder contents: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public PageDto<FileDto> listFolderContents(String folderPath, int pageSize, String cursor, String sort) {
+        ListingPages.validatePageSize(pageSize);
+        if (!ListingPages.isNativeOrder(sort)) {
+            return ListingPages.sortedPage(listFolderContents(folderPath), pageSize, cursor, sort);
+        }
+        
+        try {
+            String normalizedFolderPath = StoragePaths.normalizeFolderPath(folderPath);
+            reservedPrefixes.check(normalizedFolderPath);
             
-            ListObjectsV2Response listResponse = s3Client.listObjectsV2(listRequest);
+            StorageBackend.ListingPage page = storageBackend.list(
+                    normalizedFolderPath, "/", ListingPages.continuationToken(cursor), pageSize);
             
-            List<FileDto> contents = new ArrayList<>();
+            return toContentsPage(page, normalizedFolderPath);
+        } catch (FileStorageException e) {
+            log.error("Failed to list folder contents: {}", e.getMessage());
+            throw new FileStorageException("Failed to list folder contents: " + e.getMessage());
+        }
+    }
+
+    private List<FileDto> toContents(List<StorageBackend.ListingPage> pages, String normalizedFolderPath) {
+        List<FileDto> folders = new ArrayList<>();
+        List<FileDto> files = new ArrayList<>();
+        
+        for (StorageBackend.ListingPage page : pages) {
+            addContents(page, normalizedFolderPath, folders, files);
+        }
+        deduplicationService.applySizes(files);
+        
+        folders.addAll(files);
+        return folders;
+    }
+
+    private PageDto<FileDto> toContentsPage(StorageBackend.ListingPage page, String normalizedFolderPath) {
+        return PageDto.<FileDto>builder()
+                .items(toContents(List.of(page), normalizedFolderPath))
+                .nextCursor(ListingPages.tokenCursor(page.nextCursor()))
+                .build();
+    }
+
+    private void addContents(StorageBackend.ListingPage page, String normalizedFolderPath, List<FileDto> folders, List<FileDto> files) {
+        for (String commonPrefix : page.commonPrefixes()) {
+            if (reservedPrefixes.isReserved(commonPrefix)) {
+                continue;
+            }
+            String folderName = commonPrefix;
+            folderName = folderName.substring(normalizedFolderPath.length(), folderName.length() - 1);
             
-            for (CommonPrefix commonPrefix : listResponse.commonPrefixes()) {
-                String folderName = commonPrefix.prefix();
-                folderName = folderName.substring(normalizedFolderPath.length(), folderName.length() - 1);
+            if (!folderName.isEmpty()) {
+                StorageBackend.ObjectInfo details = page.folders().get(commonPrefix);
+                folders.add(FileDto.builder()
+                        .name(folderName)
+                        .path(commonPrefix)
+                        .size(details == null ? 0 : details.size())
+                        .lastModified(details == null
+                                ? LocalDateTime.now()
+                                : LocalDateTime.ofInstant(details.lastModified(), java.time.ZoneId.systemDefault()))
+                        .type("FOLDER")
+                        .build());
+            }
+        }
+        
+        for (StorageBackend.ObjectInfo object : page.objects()) {
+            if (!object.key().equals(normalizedFolderPath) && !reservedPrefixes.isReserved(object.key())) {
+                String fileName = object.key().substring(normalizedFolderPath.length());
                 
-                if (!folderName.isEmpty()) {
-                    contents.add(FileDto.builder()
-                            .name(folderName)
-                            .path(commonPrefix.prefix())
-                            .size(0)
-                            .lastModified(LocalDateTime.now()) 
-                            .type("FOLDER")
+                if (!fileName.contains("/") && !fileName.isEmpty()) {
+                    files.add(FileDto.builder()
+                            .name(fileName)
+                            .path(object.key())
+                            .size(object.size())
+                            .lastModified(LocalDateTime.ofInstant(object.lastModified(), java.time.ZoneId.systemDefault()))
+                            .type("FILE")
+                            .contentType(StoragePaths.getContentType(fileName))
+                            .eTag(object.eTag())
                             .build());
                 }
             }
+        }
+    }
+
+    private FolderDto rootFolder(String normalizedFolderPath) {
+        String folderName = "";
+        if (normalizedFolderPath.equals("")) {
+            folderName = "root";
+        } else {
+            int lastSlashBeforeLast = normalizedFolderPath.lastIndexOf("/", normalizedFolderPath.length() - 2);
+            folderName = normalizedFolderPath.substring(lastSlashBeforeLast + 1, normalizedFolderPath.length() - 1);
+        }
+        
+        return FolderDto.builder()
+                .name(folderName)
+                .path(normalizedFolderPath)
+                .files(new ArrayList<>())
+                .subFolders(new ArrayList<>())
+                .build();
+    }
+
+    /**
+     * Fills in the files and sub-folders of each folder of a level from its listing and returns
+     * the sub-folders, which form the next level.
+     */
+    private List<FolderDto> nextLevel(List<FolderDto> level, List<List<StorageBackend.ListingPage>> results) {
+        List<FolderDto> nextLevel = new ArrayList<>();
+        List<FileDto> levelFiles = new ArrayList<>();
+        
+        for (int i = 0; i < level.size(); i++) {
+            FolderDto folder = level.get(i);
+            List<FileDto> subFolders = new ArrayList<>();
+            
+            for (StorageBackend.ListingPage page : results.get(i)) {
+                addContents(page, folder.getPath(), subFolders, folder.getFiles());
+            }
+            levelFiles.addAll(folder.getFiles());
             
-            // Add files
-            for (S3Object s3Object : listResponse.contents()) {
-                if (!s3Object.key().equals(normalizedFolderPath)) {
-                    String fileName = s3Object.key().substring(normalizedFolderPath.length());
+            for (FileDto subFolder : subFolders) {
+                FolderDto child = FolderDto.builder()
+                        .name(subFolder.getName())
+                        .path(subFolder.getPath())
+                        .files(new ArrayList<>())
+                        .subFolders(new ArrayList<>())
+                        .build();
+                
+                folder.getSubFolders().add(child);
+                nextLevel.add(child);
+            }
+        }
+        deduplicationService.applySizes(levelFiles);
+        
+        return nextLevel;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> createFolderAsync(String folderPath, String username) {
+        String normalizedFolderPath = StoragePaths.normalizeFolderPath(folderPath);
+        reservedPrefixes.check(normalizedFolderPath);
+        
+        return storageBackend.putEmptyAsync(normalizedFolderPath, null, Map.of())
+                .thenApplyAsync(ignored -> {
+                    metadataCache.invalidateObject(normalizedFolderPath);
                     
-                    if (!fileName.contains("/") && !fileName.isEmpty()) {
-                        contents.add(FileDto.builder()
-                                .name(fileName)
-                                .path(s3Object.key())
-                                .size(s3Object.size())
-                                .lastModified(LocalDateTime.ofInstant(s3Object.lastModified(), java.time.ZoneId.systemDefault()))
-                                .type("FILE")
-                                .contentType(getContentType(fileName))
-                                .build());
+                    loggingService.logOperation(username, "CREATE_FOLDER", normalizedFolderPath, null, "SUCCESS", null);
+                    return true;
+                }, blockingSteps)
+                .exceptionallyAsync(e -> {
+                    Throwable cause = Futures.unwrap(e);
+                    if (!(cause instanceof FileStorageException)) {
+                        throw Futures.propagate(cause);
                     }
-                }
-            }
-            
-            return contents;
-        } catch (S3Exception e) {
-            log.error("Failed to list folder contents: {}", e.getMessage());
-            throw new FileStorageException("Failed to list folder contents: " + e.getMessage());
+                    log.error("Failed to create folder: {}", cause.getMessage());
+                    
+                    loggingService.logOperation(username, "CREATE_FOLDER", folderPath, null, "FAILED", cause.getMessage());
+                    
+                    throw new FileStorageException("Failed to create folder: " + cause.getMessage());
+                }, blockingSteps);
+    }
+
+    @Override
+    public CompletableFuture<List<FileDto>> listFolderContentsAsync(String folderPath) {
+        String normalizedFolderPath = StoragePaths.normalizeFolderPath(folderPath);
+        reservedPrefixes.check(normalizedFolderPath);
+        
+        return metadataCache.listingAsync(MetadataCache.FOLDER, normalizedFolderPath,
+                        () -> storageBackend.listAllAsync(normalizedFolderPath, "/")
+                                .thenApplyAsync(pages -> toContents(pages, normalizedFolderPath), blockingSteps))
+                .exceptionally(e -> {
+                    throw failed(e, "list folder contents");
+                });
+    }
+
+    @Override
+    public CompletableFuture<PageDto<FileDto>> listFolderContentsAsync(String folderPath, int pageSize, String cursor, String sort) {
+        ListingPages.validatePageSize(pageSize);
+        if (!ListingPages.isNativeOrder(sort)) {
+            return listFolderContentsAsync(folderPath)
+                    .thenApply(contents -> ListingPages.sortedPage(contents, pageSize, cursor, sort));
+        }
+        
+        String normalizedFolderPath = StoragePaths.normalizeFolderPath(folderPath);
+        reservedPrefixes.check(normalizedFolderPath);
+        
+        return storageBackend.listAsync(normalizedFolderPath, "/", ListingPages.continuationToken(cursor), pageSize)
+                .thenApplyAsync(page -> toContentsPage(page, normalizedFolderPath), blockingSteps)
+                .exceptionally(e -> {
+                    throw failed(e, "list folder contents");
+                });
+    }
+
+    /**
+     * Builds the tree one level at a time: the folders of the current level are listed with a
+     * delimiter call, up to {@code aws.s3.operations.parallelism} at once, and the sub-folders found
+     * become the next level. Wall-clock time grows with depth rather than with the number of objects,
+     * and no thread waits while a listing is in flight. A negative depth means unlimited.
+     */
+    @Override
+    public CompletableFuture<FolderDto> getFolderHierarchyAsync(String folderPath, int depth) {
+        String normalizedFolderPath = StoragePaths.normalizeFolderPath(folderPath);
+        reservedPrefixes.check(normalizedFolderPath);
+        FolderDto folderDto = rootFolder(normalizedFolderPath);
+        
+        return walkLevels(List.of(folderDto), 0, depth)
+                .thenApply(ignored -> folderDto)
+                .exceptionally(e -> {
+                    throw failed(e, "get folder hierarchy");
+                });
+    }
+
+    private CompletableFuture<Void> walkLevels(List<FolderDto> level, int currentDepth, int depth) {
+        if (level.isEmpty() || (depth >= 0 && currentDepth >= depth)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        AtomicReferenceArray<List<StorageBackend.ListingPage>> listings = new AtomicReferenceArray<>(level.size());
+        AtomicInteger next = new AtomicInteger();
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+        for (int i = 0; i < Math.min(listingParallelism, level.size()); i++) {
+            workers.add(listNext(level, next, listings));
         }
+        
+        return CompletableFuture.allOf(workers.toArray(CompletableFuture[]::new))
+                .thenComposeAsync(ignored -> {
+                    List<List<StorageBackend.ListingPage>> pages = new ArrayList<>(level.size());
+                    for (int i = 0; i < level.size(); i++) {
+                        pages.add(listings.get(i));
+                    }
+                    return walkLevels(nextLevel(level, pages), currentDepth + 1, depth);
+                }, blockingSteps);
     }
 
+    /**
+     * One worker of a level walk: lists the next folder nobody has taken yet and, once that listing
+     * is done, moves on to the following one, so each worker has a single listing in flight. The
+     * hop through blockingSteps keeps backends that complete synchronously from nesting one stack
+     * frame per folder.
+     */
+    private CompletableFuture<Void> listNext(List<FolderDto> level, AtomicInteger next,
+            AtomicReferenceArray<List<StorageBackend.ListingPage>> listings) {
+        int index = next.getAndIncrement();
+        if (index >= level.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return storageBackend.listAllAsync(level.get(index).getPath(), "/")
+                .thenComposeAsync(pages -> {
+                    listings.set(index, pages);
+                    return listNext(level, next, listings);
+                }, blockingSteps);
+    }
+
+    private RuntimeException failed(Throwable e, String action) {
+        Throwable cause = Futures.unwrap(e);
+        if (!(cause instanceof FileStorageException)) {
+            return Futures.propagate(cause);
+        }
+        log.error("Failed to {}: {}", action, cause.getMessage());
+        return new FileStorageException("Failed to " + action + ": " + cause.getMessage());
+    }
+
+    /**
+     * Writes the folder as a ZIP while it is being read. Up to {@code prefetch} objects are opened
+     * ahead of the one being written, so the next bodies are already arriving while the current
+     * entry is compressed; only those open streams are held, never whole objects or temp files.
+     */
     @Override
-    public FolderDto getFolderHierarchy(String folderPath) {
+    public void downloadFolderAsZip(String folderPath, String username, OutputStream outputStream) {
+        String normalizedFolderPath = StoragePaths.normalizeFolderPath(folderPath);
+        reservedPrefixes.check(normalizedFolderPath);
+        Deque<ZipItem> window = new ArrayDeque<>();
+        
         try {
-            String normalizedFolderPath = normalizeFolderPath(folderPath);
+            ZipOutputStream zip = new ZipOutputStream(outputStream);
+            zip.setLevel(Deflater.BEST_SPEED);
             
-            String folderName = "";
-            if (normalizedFolderPath.equals("")) {
-                folderName = "root";
-            } else if (normalizedFolderPath.endsWith("/")) {
-                int lastSlashBeforeLast = normalizedFolderPath.lastIndexOf("/", normalizedFolderPath.length() - 2);
-                if (lastSlashBeforeLast >= 0) {
-                    folderName = normalizedFolderPath.substring(lastSlashBeforeLast + 1, normalizedFolderPath.length() - 1);
-                } else {
-                    folderName = normalizedFolderPath.substring(0, normalizedFolderPath.length() - 1);
+            String cursor = null;
+            do {
+                StorageBackend.ListingPage page = storageBackend.list(normalizedFolderPath, null, cursor, StorageBackend.MAX_KEYS);
+                cursor = page.nextCursor();
+                
+                for (StorageBackend.ObjectInfo object : page.objects()) {
+                    if (object.key().equals(normalizedFolderPath) || reservedPrefixes.isReserved(object.key())) {
+                        continue;
+                    }
+                    
+                    ZipItem item = new ZipItem(object);
+                    if (!object.key().endsWith("/")) {
+                        item.prefetch(s3BatchOperations.submit(() -> {
+                            // Empty objects may be dedup pointers whose content lives in a blob
+                            String key = object.size() == 0
+                                    ? deduplicationService.resolveBlobKey(object.key()).orElse(object.key())
+                                    : object.key();
+                            return item.fetched(storageBackend.get(key, null, false));
+                        }));
+                    }
+                    window.addLast(item);
+                    
+                    if (window.size() > zipPrefetch) {
+                        writeZipEntry(zip, window.removeFirst(), normalizedFolderPath);
+                    }
                 }
-            } else {
-                folderName = normalizedFolderPath.substring(normalizedFolderPath.lastIndexOf("/") + 1);
-            }
+            } while (cursor != null);
             
-            FolderDto folderDto = FolderDto.builder()
-                    .name(folderName)
-                    .path(normalizedFolderPath)
-                    .files(new ArrayList<>())
-                    .subFolders(new ArrayList<>())
-                    .build();
+            while (!window.isEmpty()) {
+                writeZipEntry(zip, window.removeFirst(), normalizedFolderPath);
+            }
+            zip.finish();
+            zip.flush();
             
-            ListObjectsV2Request listObjectsRequest = ListObjectsV2Request.builder()
-                    .bucket(bucketName)
-                    .prefix(normalizedFolderPath)
-                    .build();
+            loggingService.logOperation(
+                    username,
+                    "DOWNLOAD_FOLDER",
+                    normalizedFolderPath,
+                    null,
+                    "SUCCESS",
+                    null
+            );
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to download folder: {}", e.getMessage());
+            window.forEach(ZipItem::discard);
             
-            ListObjectsV2Response listObjectsResponse = s3Client.listObjectsV2(listObjectsRequest);
+            loggingService.logOperation(
+                    username,
+                    "DOWNLOAD_FOLDER",
+                    folderPath,
+                    null,
+                    "FAILED",
+                    e.getMessage()
+            );
             
-            Map<String, FolderDto> folderMap = new HashMap<>();
-            folderMap.put(normalizedFolderPath, folderDto);
+            throw new FileStorageException("Failed to download folder: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Expands a ZIP archive under the target folder. Entries are read sequentially from the stream;
+     * entries up to {@code folder.import.bufferLimit} are buffered and uploaded in parallel (at most
+     * {@code folder.import.parallelism} buffered at once per import and {@code folder.import.sharedBuffers}
+     * across all imports), larger ones are streamed through the multipart upload engine directly
+     * from the archive. Folder markers are created for every directory, explicit or implied, the
+     * same way createFolder does.
+     *
+     * <p>An archive with too many entries, too much content or a suspicious compression ratio is
+     * rejected as soon as it crosses the limit; entries already uploaded are kept.
+     */
+    @Override
+    public ArchiveImportResponse importArchive(String folderPath, InputStream archiveStream, String username) {
+        String normalizedFolderPath = StoragePaths.normalizeFolderPath(folderPath);
+        reservedPrefixes.check(normalizedFolderPath);
+        List<Future<FileUploadResponse>> results = new ArrayList<>();
+        Set<String> createdFolders = new HashSet<>();
+        Semaphore buffers = new Semaphore(importParallelism);
+        ArchiveLimits limits = new ArchiveLimits(importMaxEntries, importMaxSize.toBytes(), importMaxCompressionRatio);
+        
+        try (ZipInputStream zip = new ZipInputStream(limits.compressed(archiveStream))) {
+            InputStream content = limits.uncompressed(zip);
+            if (!normalizedFolderPath.isEmpty()) {
+                ensureFolder(normalizedFolderPath, createdFolders);
+            }
             
-            for (S3Object s3Object : listObjectsResponse.contents()) {
-                if (s3Object.key().equals(normalizedFolderPath)) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                limits.countEntry();
+                String relativePath = sanitizeEntryName(entry.getName());
+                if (relativePath == null) {
+                    results.add(CompletableFuture.completedFuture(
+                            entryResult(entry.getName(), null, 0, null, "FAILED", "Unsafe entry name")));
                     continue;
                 }
                 
-                String relativePath = s3Object.key().substring(normalizedFolderPath.length());
-                String[] pathParts = relativePath.split("/");
+                String key = normalizedFolderPath + relativePath;
+                if (reservedPrefixes.isReserved(key)) {
+                    results.add(CompletableFuture.completedFuture(
+                            entryResult(entry.getName(), null, 0, null, "FAILED", "Path is reserved")));
+                    continue;
+                }
+                ensureParentFolders(key, normalizedFolderPath, createdFolders);
                 
-                boolean isFolder = s3Object.key().endsWith("/");
+                if (entry.isDirectory()) {
+                    ensureFolder(key, createdFolders);
+                    continue;
+                }
                 
-                String currentPath = normalizedFolderPath;
-                FolderDto currentFolder = folderDto;
+                String contentType = StoragePaths.getContentType(relativePath);
+                acquire(buffers);
+                try {
+                    acquire(sharedImportBuffers);
+                } catch (FileStorageException e) {
+                    buffers.release();
+                    throw e;
+                }
                 
-                for (int i = 0; i < pathParts.length; i++) {
-                    String part = pathParts[i];
-                    
-                    if (part.isEmpty()) {
-                        continue;
-                    }
-                    
-                    if (currentPath.endsWith("/")) {
-                        currentPath += part;
-                    } else {
-                        currentPath += "/" + part;
-                    }
-                    
-                    if (i < pathParts.length - 1 || isFolder) {
-                        folderPath = currentPath + "/";
-                        
-                        if (!folderMap.containsKey(folderPath)) {
-                            FolderDto newFolder = FolderDto.builder()
-                                    .name(part)
-                                    .path(folderPath)
-                                    .files(new ArrayList<>())
-                                    .subFolders(new ArrayList<>())
-                                    .build();
-                            
-                            currentFolder.getSubFolders().add(newFolder);
-                            folderMap.put(folderPath, newFolder);
+                byte[] head;
+                try {
+                    head = content.readNBytes(importBufferLimit + 1);
+                } catch (IOException e) {
+                    releaseImportBuffer(buffers);
+                    throw e;
+                }
+                
+                if (head.length <= importBufferLimit) {
+                    results.add(uploadExecutor.submit(() -> {
+                        try {
+                            return uploadEntry(key, contentType, new ByteArrayInputStream(head), username);
+                        } finally {
+                            releaseImportBuffer(buffers);
                         }
-                        
-                        currentFolder = folderMap.get(folderPath);
-                    } 
-                    else {
-                        FileDto fileDto = FileDto.builder()
-                                .name(part)
-                                .path(s3Object.key())
-                                .size(s3Object.size())
-                                .lastModified(LocalDateTime.ofInstant(s3Object.lastModified(), java.time.ZoneId.systemDefault()))
-                                .type("FILE")
-                                .contentType(getContentType(part))
-                                .build();
-                        
-                        currentFolder.getFiles().add(fileDto);
+                    }));
+                } else {
+                    try {
+                        InputStream rest = new FilterInputStream(content) {
+                            @Override
+                            public void close() {
+                                // the archive stream stays open for the next entry
+                            }
+                        };
+                        results.add(CompletableFuture.completedFuture(uploadEntry(key, contentType,
+                                new SequenceInputStream(new ByteArrayInputStream(head), rest), username)));
+                    } finally {
+                        releaseImportBuffer(buffers);
                     }
                 }
             }
+            limits.check();
+        } catch (IOException | FileStorageException | InvalidRequestException e) {
+            // A limit hit while an entry streamed surfaces as that entry's I/O failure
+            String message = limits.violation() != null ? limits.violation() : e.getMessage();
+            log.error("Failed to read archive: {}", message);
+            
+            loggingService.logOperation(
+                    username,
+                    "IMPORT_ARCHIVE",
+                    folderPath,
+                    null,
+                    "FAILED",
+                    message
+            );
+            
+            awaitQuietly(results);
+            if (limits.violation() != null) {
+                throw new InvalidRequestException(message);
+            }
+            if (e instanceof InvalidRequestException invalidRequest) {
+                throw invalidRequest;
+            }
+            throw new FileStorageException("Failed to import archive: " + message, e);
+        } finally {
+            metadataCache.invalidatePrefix(normalizedFolderPath);
+        }
+        
+        List<FileUploadResponse> entries = new ArrayList<>();
+        for (Future<FileUploadResponse> result : results) {
+            entries.add(awaitEntry(result));
+        }
+        int failed = (int) entries.stream().filter(e -> "FAILED".equals(e.getStatus())).count();
+        
+        loggingService.logOperation(
+                username,
+                "IMPORT_ARCHIVE",
+                normalizedFolderPath,
+                null,
+                failed == 0 ? "SUCCESS" : "FAILED",
+                failed == 0 ? null : failed + " of " + entries.size() + " entries failed"
+        );
+        
+        return ArchiveImportResponse.builder()
+                .targetPath(normalizedFolderPath)
+                .succeeded(entries.size() - failed)
+                .failed(failed)
+                .entries(entries)
+                .build();
+    }
+
+    private FileUploadResponse uploadEntry(String key, String contentType, InputStream content, String username) {
+        String fileName = key.substring(key.lastIndexOf('/') + 1);
+        try {
+            MultipartUploadService.UploadResult upload = storageBackend.put(key, contentType, content);
+            deduplicationService.deletePaths(List.of(key));
+            
+            loggingService.logOperation(username, "UPLOAD", key, null, "SUCCESS", null);
+            FileUploadResponse result = entryResult(fileName, key, upload.size(), contentType, "SUCCESS", "File uploaded successfully");
+            result.setChecksumSha256(upload.checksumSha256());
+            result.setChecksumCrc32c(upload.checksumCrc32c());
+            return result;
+        } catch (FileStorageException e) {
+            log.error("Failed to upload archive entry {}: {}", key, e.getMessage());
             
-            return folderDto;
-        } catch (S3Exception e) {
-            log.error("Failed to get folder hierarchy: {}", e.getMessage());
-            throw new FileStorageException("Failed to get folder hierarchy: " + e.getMessage());
+            loggingService.logOperation(username, "UPLOAD", key, null, "FAILED", e.getMessage());
+            return entryResult(fileName, key, 0, contentType, "FAILED", e.getMessage());
         }
     }
 
-    private String normalizeFolderPath(String folderPath) {
-        if (folderPath == null || folderPath.isEmpty() || folderPath.equals("/")) {
-            return "";
+    private FileUploadResponse entryResult(String fileName, String filePath, long size, String contentType, String status, String message) {
+        return FileUploadResponse.builder()
+                .fileName(fileName)
+                .filePath(filePath)
+                .contentType(contentType)
+                .size(size)
+                .status(status)
+                .message(message)
+                .build();
+    }
+
+    private void ensureParentFolders(String key, String root, Set<String> createdFolders) {
+        int slash = key.indexOf('/', root.length());
+        while (slash >= 0 && slash < key.length() - 1) {
+            ensureFolder(key.substring(0, slash + 1), createdFolders);
+            slash = key.indexOf('/', slash + 1);
         }
+    }
+
+    private void ensureFolder(String folderKey, Set<String> createdFolders) {
+        if (createdFolders.add(folderKey)) {
+            storageBackend.putEmpty(folderKey, null, Map.of());
+        }
+    }
+
+    /**
+     * Returns the entry path relative to the import folder, or null for names that would escape it.
+     */
+    private String sanitizeEntryName(String name) {
+        String path = name.replace('\\', '/');
+        while (path.startsWith("/")) {
+            path = path.substring(1);
+        }
+        if (path.isEmpty()) {
+            return null;
+        }
+        for (String part : path.split("/")) {
+            if (part.equals("..") || part.equals(".")) {
+                return null;
+            }
+        }
+        return path;
+    }
+
+    private FileUploadResponse awaitEntry(Future<FileUploadResponse> result) {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            return entryResult(null, null, 0, null, "FAILED", e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FileStorageException("Interrupted while importing archive", e);
+        }
+    }
+
+    private void awaitQuietly(List<Future<FileUploadResponse>> results) {
+        for (Future<FileUploadResponse> result : results) {
+            try {
+                result.get();
+            } catch (ExecutionException e) {
+                // reported through the archive failure
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void releaseImportBuffer(Semaphore buffers) {
+        sharedImportBuffers.release();
+        buffers.release();
+    }
+
+    private void acquire(Semaphore semaphore) {
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FileStorageException("Interrupted while importing archive", e);
+        }
+    }
+
+    private void writeZipEntry(ZipOutputStream zip, ZipItem item, String normalizedFolderPath) throws IOException {
+        ZipEntry entry = new ZipEntry(item.object().key().substring(normalizedFolderPath.length()));
+        entry.setTime(item.object().lastModified().toEpochMilli());
+        zip.putNextEntry(entry);
         
-        String normalizedPath = folderPath.startsWith("/") ? folderPath.substring(1) : folderPath;
-        normalizedPath = normalizedPath.endsWith("/") ? normalizedPath : normalizedPath + "/";
-        
-        return normalizedPath;
+        if (item.hasBody()) {
+            item.open().transferToAndClose(zip);
+        }
+        zip.closeEntry();
     }
-    
-    private String getContentType(String fileName) {
-        String extension = "";
-        int i = fileName.lastIndexOf('.');
-        if (i > 0) {
-            extension = fileName.substring(i + 1).toLowerCase();
+
+    /**
+     * One entry of the ZIP window and, for files, the prefetch of its body. A body that arrives
+     * after the item was discarded is aborted by the prefetch task itself, so no pooled connection
+     * is left holding an unread response.
+     */
+    private static final class ZipItem {
+
+        private final StorageBackend.ObjectInfo object;
+        private Future<StoredObject> body;
+        private StoredObject fetched;
+        private boolean discarded;
+
+        ZipItem(StorageBackend.ObjectInfo object) {
+            this.object = object;
+        }
+
+        StorageBackend.ObjectInfo object() {
+            return object;
+        }
+
+        boolean hasBody() {
+            return body != null;
+        }
+
+        void prefetch(Future<StoredObject> body) {
+            this.body = body;
+        }
+
+        StoredObject fetched(StoredObject stored) {
+            synchronized (this) {
+                if (!discarded) {
+                    fetched = stored;
+                    return stored;
+                }
+            }
+            stored.abort();
+            return null;
+        }
+
+        StoredObject open() throws IOException {
+            try {
+                return body.get();
+            } catch (ExecutionException e) {
+                throw new IOException("Failed to fetch " + object.key() + ": " + e.getCause().getMessage(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while fetching " + object.key(), e);
+            }
+        }
+
+        // Abort rather than close so the connection is not drained just to be thrown away
+        void discard() {
+            if (body == null) {
+                return;
+            }
+            body.cancel(false);
+            StoredObject stored;
+            synchronized (this) {
+                discarded = true;
+                stored = fetched;
+                fetched = null;
+            }
+            if (stored != null) {
+                stored.abort();
+            }
+        }
+    }
+
+    /**
+     * Counts what an archive import reads, before and after decompression. Reading fails once the
+     * content exceeds {@code folder.import.maxSize}, or expands more than
+     * {@code folder.import.maxCompressionRatio} times; the ratio is only enforced past the first
+     * megabyte, so small, highly compressible files still import.
+     */
+    private static final class ArchiveLimits {
+
+        private static final long RATIO_THRESHOLD = 1024 * 1024;
+
+        private final int maxEntries;
+        private final long maxSize;
+        private final int maxCompressionRatio;
+        private int entries;
+        private long compressedBytes;
+        private long uncompressedBytes;
+        private String violation;
+
+        ArchiveLimits(int maxEntries, long maxSize, int maxCompressionRatio) {
+            this.maxEntries = maxEntries;
+            this.maxSize = maxSize;
+            this.maxCompressionRatio = maxCompressionRatio;
         }
+
+        InputStream compressed(InputStream in) {
+            return new FilterInputStream(in) {
+                @Override
+                public int read() throws IOException {
+                    int b = super.read();
+                    if (b >= 0) {
+                        compressedBytes++;
+                    }
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    int n = super.read(b, off, len);
+                    if (n > 0) {
+                        compressedBytes += n;
+                    }
+                    return n;
+                }
+            };
+        }
+
+        InputStream uncompressed(InputStream in) {
+            return new FilterInputStream(in) {
+                @Override
+                public int read() throws IOException {
+                    byte[] single = new byte[1];
+                    int n = read(single, 0, 1);
+                    return n < 0 ? -1 : single[0] & 0xff;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    int n = super.read(b, off, len);
+                    if (n > 0) {
+                        uncompressedBytes += n;
+                        if (exceeded()) {
+                            throw new IOException(violation);
+                        }
+                    }
+                    return n;
+                }
+            };
+        }
+
+        void countEntry() {
+            if (++entries > maxEntries) {
+                violation = "Archive has more than " + maxEntries + " entries";
+            }
+            check();
+        }
+
+        void check() {
+            if (violation != null || exceeded()) {
+                throw new InvalidRequestException(violation);
+            }
+        }
+
+        String violation() {
+            return violation;
+        }
+
+        private boolean exceeded() {
+            if (violation == null && uncompressedBytes > maxSize) {
+                violation = "Archive content exceeds " + maxSize + " bytes";
+            }
+            if (violation == null && uncompressedBytes > RATIO_THRESHOLD
+                    && uncompressedBytes > (long) maxCompressionRatio * compressedBytes) {
+                violation = "Archive expands more than " + maxCompressionRatio + " times";
+            }
+            return violation != null;
+        }
+    }
+
+    private String describeFailures(String action, Map<String, String> failures) {
+        String sample = failures.entrySet().stream()
+                .limit(5)
+                .map(entry -> entry.getKey() + " (" + entry.getValue() + ")")
+                .collect(Collectors.joining(", "));
         
-        switch (extension) {
-            case "pdf":
-                return "application/pdf";
-            case "jpg":
-            case "jpeg":
-                return "image/jpeg";
-            case "png":
-                return "image/png";
-            case "gif":
-                return "image/gif";
-            case "xlsx":
-                return "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
-            case "xls":
-                return "application/vnd.ms-excel";
-            case "docx":
-                return "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
-            case "doc":
-                return "application/msword";
-            case "txt":
-                return "text/plain";
-            default:
-                return "application/octet-stream";
-        }
-    }
-}
\ No newline at end of file
+        return action + " " + failures.size() + " object(s): " + sample + (failures.size() > 5 ? ", ..." : "");
+    }
+}
@@ -0,0 +1,32 @@
+package com.fileManagement.FileManagement.service.impl;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Helpers for the async service operations.
+ */
+final class Futures {
+
+    private Futures() {
+    }
+
+    /**
+     * The exception a future failed with, without the CompletionException wrapper that dependent
+     * stages add.
+     */
+    static Throwable unwrap(Throwable e) {
+        while ((e instanceof CompletionException || e instanceof ExecutionException) && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e;
+    }
+
+    /**
+     * Rethrows from inside a stage: runtime exceptions as they are, anything else wrapped.
+     */
+    static RuntimeException propagate(Throwable e) {
+        Throwable cause = unwrap(e);
+        return cause instanceof RuntimeException runtimeException ? runtimeException : new CompletionException(cause);
+    }
+}
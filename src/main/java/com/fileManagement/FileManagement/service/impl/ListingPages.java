@@ -0,0 +1,105 @@
+package com.fileManagement.FileManagement.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+import com.fileManagement.FileManagement.dto.FileDto;
+import com.fileManagement.FileManagement.dto.PageDto;
+import com.fileManagement.FileManagement.exceptions.InvalidRequestException;
+
+/**
+ * Cursor and sort handling shared by the paginated listings. Listing by name follows the storage
+ * backend's own key order, so its cursor wraps the backend's listing cursor and each page is a
+ * single list call. Any other sort needs the whole folder, so its cursor is a plain offset
+ * into the sorted listing.
+ */
+final class ListingPages {
+
+    static final String SORT_NAME = "name";
+    static final int MAX_PAGE_SIZE = 1000;
+
+    private static final String TOKEN = "t";
+    private static final String OFFSET = "o";
+
+    private ListingPages() {
+    }
+
+    static boolean isNativeOrder(String sort) {
+        return sort == null || sort.isEmpty() || SORT_NAME.equals(sort);
+    }
+
+    static void validatePageSize(int pageSize) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("pageSize must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    static String continuationToken(String cursor) {
+        return cursor == null ? null : decode(cursor, SORT_NAME, TOKEN);
+    }
+
+    static String tokenCursor(String continuationToken) {
+        return continuationToken == null ? null : encode(SORT_NAME, TOKEN, continuationToken);
+    }
+
+    static PageDto<FileDto> sortedPage(List<FileDto> all, int pageSize, String cursor, String sort) {
+        int offset = 0;
+        if (cursor != null) {
+            try {
+                offset = Integer.parseInt(decode(cursor, sort, OFFSET));
+            } catch (NumberFormatException e) {
+                throw new InvalidRequestException("Invalid cursor");
+            }
+        }
+
+        List<FileDto> sorted = new ArrayList<>(all);
+        sorted.sort(comparator(sort));
+        int from = Math.min(Math.max(offset, 0), sorted.size());
+        int to = Math.min(from + pageSize, sorted.size());
+
+        return PageDto.<FileDto>builder()
+                .items(new ArrayList<>(sorted.subList(from, to)))
+                .nextCursor(to < sorted.size() ? encode(sort, OFFSET, String.valueOf(to)) : null)
+                .build();
+    }
+
+    private static Comparator<FileDto> comparator(String sort) {
+        Comparator<FileDto> byName = Comparator.comparing(FileDto::getName);
+        switch (sort) {
+            case "name_desc":
+                return byName.reversed();
+            case "size":
+                return Comparator.comparingLong(FileDto::getSize).thenComparing(byName);
+            case "size_desc":
+                return Comparator.comparingLong(FileDto::getSize).reversed().thenComparing(byName);
+            case "lastModified":
+                return Comparator.comparing(FileDto::getLastModified).thenComparing(byName);
+            case "lastModified_desc":
+                return Comparator.comparing(FileDto::getLastModified).reversed().thenComparing(byName);
+            default:
+                throw new InvalidRequestException("Unsupported sort: " + sort);
+        }
+    }
+
+    // A cursor is only valid for the sort it was issued under
+    private static String encode(String sort, String kind, String value) {
+        String raw = sort + ":" + kind + ":" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String cursor, String sort, String kind) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 3);
+            if (parts.length == 3 && parts[0].equals(sort) && parts[1].equals(kind)) {
+                return parts[2];
+            }
+        } catch (IllegalArgumentException e) {
+            // fall through
+        }
+        throw new InvalidRequestException("Invalid cursor");
+    }
+}
@@ -0,0 +1,645 @@
+package com.fileManagement.FileManagement.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.UserDefinedFileAttributeView;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpRange;
+import org.springframework.stereotype.Component;
+
+import com.fileManagement.FileManagement.exceptions.FileStorageException;
+import com.fileManagement.FileManagement.exceptions.InvalidRequestException;
+import com.fileManagement.FileManagement.exceptions.ObjectChangedException;
+import com.fileManagement.FileManagement.service.MultipartUploadService;
+import com.fileManagement.FileManagement.service.StorageBackend;
+import com.fileManagement.FileManagement.service.StoredObject;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stores objects as plain files under {@code storage.local.root}; a key maps to the same relative
+ * path and a directory is its own folder marker. Writes stream into a temporary file next to the
+ * target with FileChannel.transferFrom and are renamed into place, so a reader never sees a partial
+ * object and an object file is never modified once visible. That makes copies hard links where the
+ * file system allows it, and folder rename/move a single directory rename no matter how much the
+ * folder holds. Reads map the file in windows of up to 64 MB instead of copying it through a
+ * channel buffer.
+ *
+ * <p>Content type and user metadata (checksums, dedup pointers) live in user-defined extended
+ * attributes where the file system supports them; otherwise the content type is derived from the
+ * file name and metadata is not kept. The ETag is derived from size, modification time and file
+ * identity, which changes with every write since each write is a new file.
+ */
+@Component
+@Qualifier(StorageBackend.PHYSICAL)
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+@Slf4j
+public class LocalStorageBackend implements StorageBackend {
+
+    private static final String TEMP_PREFIX = ".~upload-";
+    private static final String CONTENT_TYPE_ATTRIBUTE = "content-type";
+    private static final String METADATA_ATTRIBUTE_PREFIX = "meta.";
+    private static final long MAP_WINDOW = 64L * 1024 * 1024;
+    private static final long TRANSFER_CHUNK = 8L * 1024 * 1024;
+
+    private final Path root;
+    private boolean extendedAttributes;
+
+    public LocalStorageBackend(@Value("${storage.local.root:${java.io.tmpdir}/file-management-storage}") Path root) {
+        this.root = root.toAbsolutePath().normalize();
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(root);
+        extendedAttributes = Files.getFileStore(root).supportsFileAttributeView(UserDefinedFileAttributeView.class);
+        if (!extendedAttributes) {
+            log.warn("File system of {} has no user-defined attributes; content types are derived from names and object metadata is not kept", root);
+        }
+        log.info("Local storage backend at {}", root);
+    }
+
+    @Override
+    public MultipartUploadService.UploadResult put(String key, String contentType, InputStream content) {
+        Path target = resolve(key);
+        MessageDigest digest = Checksums.sha256();
+        CRC32C crc = new CRC32C();
+        Path temp = null;
+
+        try {
+            Files.createDirectories(target.getParent());
+            temp = Files.createTempFile(target.getParent(), TEMP_PREFIX, null);
+
+            long size = 0;
+            try (ReadableByteChannel source = Channels.newChannel(new CheckedInputStream(new DigestInputStream(content, digest), crc));
+                 FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                long transferred;
+                // A blocking source only transfers nothing once it is exhausted
+                while ((transferred = channel.transferFrom(source, size, TRANSFER_CHUNK)) > 0) {
+                    size += transferred;
+                }
+            }
+
+            MultipartUploadService.UploadResult result = new MultipartUploadService.UploadResult(
+                    size, Checksums.base64(digest.digest()), Checksums.base64(crc));
+            writeAttributes(temp, contentType, Map.of(
+                    Checksums.SHA256_METADATA, result.checksumSha256(),
+                    Checksums.CRC32C_METADATA, result.checksumCrc32c()));
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return result;
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            throw new FileStorageException("Failed to write " + key + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void putEmpty(String key, String contentType, Map<String, String> metadata) {
+        Path target = resolve(key);
+        Path temp = null;
+
+        try {
+            if (key.isEmpty() || key.endsWith("/")) {
+                Files.createDirectories(target);
+                return;
+            }
+            Files.createDirectories(target.getParent());
+            temp = Files.createTempFile(target.getParent(), TEMP_PREFIX, null);
+            writeAttributes(temp, contentType, metadata);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            throw new FileStorageException("Failed to write " + key + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public StoredObject get(String key, String range, String ifMatch, boolean withChecksums) {
+        Path file = resolve(key);
+        ObjectInfo info = head(key);
+        if (ifMatch != null && !ifMatch.equals(info.eTag())) {
+            throw new ObjectChangedException("Object changed: " + key);
+        }
+
+        long start = 0;
+        long end = info.size() - 1;
+        if (range != null) {
+            HttpRange httpRange = HttpRange.parseRanges(range).get(0);
+            start = httpRange.getRangeStart(info.size());
+            end = httpRange.getRangeEnd(info.size());
+            info = new ObjectInfo(key, end - start + 1, info.eTag(), info.lastModified(), info.contentType(),
+                    info.metadata(), info.checksumSha256(), info.checksumCrc32c());
+        }
+
+        try {
+            MappedInputStream content = new MappedInputStream(FileChannel.open(file, StandardOpenOption.READ), start, end + 1);
+            return new StoredObject(info, content, content::closeQuietly);
+        } catch (IOException e) {
+            throw new FileStorageException("Failed to read " + key + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public ObjectInfo head(String key) {
+        Path file = resolve(key);
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) {
+                throw new FileStorageException("No such object: " + key);
+            }
+            Map<String, String> stored = readAttributes(file);
+            String contentType = stored.remove(CONTENT_TYPE_ATTRIBUTE);
+            Map<String, String> metadata = new HashMap<>();
+            stored.forEach((name, value) -> {
+                if (name.startsWith(METADATA_ATTRIBUTE_PREFIX)) {
+                    metadata.put(name.substring(METADATA_ATTRIBUTE_PREFIX.length()), value);
+                }
+            });
+
+            return new ObjectInfo(key, attributes.size(), eTag(attributes), attributes.lastModifiedTime().toInstant(),
+                    contentType != null ? contentType : StoragePaths.getContentType(file.getFileName().toString()),
+                    metadata, metadata.get(Checksums.SHA256_METADATA), metadata.get(Checksums.CRC32C_METADATA));
+        } catch (NoSuchFileException e) {
+            throw new FileStorageException("No such object: " + key, e);
+        } catch (IOException e) {
+            throw new FileStorageException("Failed to read " + key + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * The cursor is the last key returned. Only the directories on the way to the prefix and the
+     * entries of the listed pages are visited, since children are read in key order.
+     */
+    @Override
+    public ListingPage list(String prefix, String delimiter, String cursor, int maxKeys) {
+        if (delimiter != null && !delimiter.equals("/")) {
+            throw new IllegalArgumentException("Unsupported delimiter: " + delimiter);
+        }
+        String directoryKey = prefix.substring(0, prefix.lastIndexOf('/') + 1);
+        Path directory = resolve(directoryKey);
+        List<Entry> entries = new ArrayList<>();
+
+        try {
+            if (delimiter == null) {
+                collect(directory, directoryKey, prefix, cursor, maxKeys + 1, entries);
+            } else {
+                for (Entry entry : children(directory, directoryKey)) {
+                    if (entry.key().startsWith(prefix) && (cursor == null || entry.key().compareTo(cursor) > 0)) {
+                        entries.add(entry);
+                        if (entries.size() > maxKeys) {
+                            break;
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new FileStorageException("Failed to list " + prefix + ": " + e.getMessage(), e);
+        }
+
+        boolean truncated = entries.size() > maxKeys;
+        if (truncated) {
+            entries = entries.subList(0, maxKeys);
+        }
+
+        List<ObjectInfo> objects = new ArrayList<>();
+        List<String> commonPrefixes = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (entry.directory() && delimiter != null) {
+                commonPrefixes.add(entry.key());
+            } else {
+                objects.add(new ObjectInfo(entry.key(), entry.size(), entry.eTag(), entry.lastModified()));
+            }
+        }
+        return new ListingPage(objects, commonPrefixes, truncated ? entries.get(entries.size() - 1).key() : null);
+    }
+
+    @Override
+    public ListingPage listAfter(String prefix, String startAfter, int maxKeys) {
+        return list(prefix, null, startAfter, maxKeys);
+    }
+
+    /**
+     * Depth-first walk in key order: with children sorted by key (directories with their trailing
+     * '/'), a pre-order walk visits every key under a directory in ascending order, so subtrees that
+     * lie entirely at or before {@code after} can be skipped without being read.
+     */
+    private boolean collect(Path directory, String directoryKey, String prefix, String after, int limit, List<Entry> out) throws IOException {
+        for (Entry entry : children(directory, directoryKey)) {
+            boolean underPrefix = entry.key().startsWith(prefix);
+            if (!underPrefix && !prefix.startsWith(entry.key())) {
+                continue;
+            }
+            if (underPrefix && (after == null || entry.key().compareTo(after) > 0)) {
+                out.add(entry);
+                if (out.size() >= limit) {
+                    return false;
+                }
+            }
+            if (entry.directory() && (after == null || after.startsWith(entry.key()) || entry.key().compareTo(after) > 0)) {
+                if (!collect(entry.path(), entry.key(), prefix, after, limit, out)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private List<Entry> children(Path directory, String directoryKey) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path child : stream) {
+                String name = child.getFileName().toString();
+                if (name.startsWith(TEMP_PREFIX)) {
+                    continue;
+                }
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(child, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                } catch (NoSuchFileException e) {
+                    continue;
+                }
+                boolean isDirectory = attributes.isDirectory();
+                entries.add(new Entry(directoryKey + name + (isDirectory ? "/" : ""), child, isDirectory,
+                        isDirectory ? 0 : attributes.size(), eTag(attributes), attributes.lastModifiedTime().toInstant()));
+            }
+        } catch (NoSuchFileException e) {
+            return List.of();
+        }
+        entries.sort(Comparator.comparing(Entry::key));
+        return entries;
+    }
+
+    @Override
+    public void copy(String sourceKey, String destinationKey) {
+        Path source = resolve(sourceKey);
+        Path target = resolve(destinationKey);
+        Path temp = null;
+
+        try {
+            if (sourceKey.endsWith("/")) {
+                Files.createDirectories(target);
+                return;
+            }
+            Files.createDirectories(target.getParent());
+            temp = target.resolveSibling(TEMP_PREFIX + UUID.randomUUID());
+            try {
+                Files.createLink(temp, source);
+            } catch (UnsupportedOperationException | IOException e) {
+                if (!Files.isRegularFile(source)) {
+                    throw new NoSuchFileException(sourceKey);
+                }
+                Files.copy(source, temp, StandardCopyOption.REPLACE_EXISTING);
+                Map<String, String> stored = readAttributes(source);
+                copyAttributes(stored, temp);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            throw new FileStorageException("Failed to copy " + sourceKey + " to " + destinationKey + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Deleting a folder marker removes the directory only if it is empty; like an S3 marker, its
+     * contents are separate objects.
+     */
+    @Override
+    public void delete(String key) {
+        try {
+            Files.deleteIfExists(resolve(key));
+        } catch (DirectoryNotEmptyException e) {
+            log.debug("Folder {} still has contents, leaving it in place", key);
+        } catch (IOException e) {
+            throw new FileStorageException("Failed to delete " + key + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Map<String, String> copyAll(Map<String, String> destinationsBySource) {
+        Map<String, String> failures = new LinkedHashMap<>();
+        destinationsBySource.forEach((sourceKey, destinationKey) -> {
+            try {
+                copy(sourceKey, destinationKey);
+            } catch (FileStorageException e) {
+                failures.put(sourceKey, e.getMessage());
+            }
+        });
+        return failures;
+    }
+
+    // Descending key order deletes the contents of a folder before its marker
+    @Override
+    public Map<String, String> deleteAll(List<String> keys) {
+        Map<String, String> failures = new LinkedHashMap<>();
+        keys.stream().sorted(Comparator.reverseOrder()).forEach(key -> {
+            try {
+                delete(key);
+            } catch (FileStorageException e) {
+                failures.put(key, e.getMessage());
+            }
+        });
+        return failures;
+    }
+
+    @Override
+    public Map<String, String> deletePrefix(String prefix) {
+        if (prefix.isEmpty() || !prefix.endsWith("/")) {
+            throw new IllegalArgumentException("Not a folder prefix: " + prefix);
+        }
+        Path directory = resolve(prefix);
+        Map<String, String> failures = new LinkedHashMap<>();
+        if (!Files.isDirectory(directory)) {
+            return failures;
+        }
+
+        try {
+            Files.walkFileTree(directory, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (IOException e) {
+                        failures.put(key(file, false), e.getMessage());
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException e) {
+                    if (e != null) {
+                        failures.put(key(dir, true), e.getMessage());
+                    } else {
+                        try {
+                            Files.deleteIfExists(dir);
+                        } catch (DirectoryNotEmptyException notEmpty) {
+                            // holds objects that could not be deleted
+                        } catch (IOException deleteFailure) {
+                            failures.put(key(dir, true), deleteFailure.getMessage());
+                        }
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            throw new FileStorageException("Failed to delete " + prefix + ": " + e.getMessage(), e);
+        }
+        return failures;
+    }
+
+    /**
+     * A single directory rename when the destination does not exist yet. Moving into an existing
+     * folder merges: each file is renamed on its own, replacing what is there, as an S3 move would.
+     */
+    @Override
+    public Map<String, String> movePrefix(String sourcePrefix, String destinationPrefix) {
+        if (destinationPrefix.startsWith(sourcePrefix)) {
+            throw new InvalidRequestException("Cannot move a folder into itself");
+        }
+        Path source = resolve(sourcePrefix);
+        Path target = resolve(destinationPrefix);
+        if (!Files.isDirectory(source)) {
+            return Map.of();
+        }
+
+        try {
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+                return Map.of();
+            } catch (IOException e) {
+                if (!Files.isDirectory(target)) {
+                    throw e;
+                }
+            }
+        } catch (IOException e) {
+            return Map.of(sourcePrefix, e.getMessage());
+        }
+        return merge(source, target);
+    }
+
+    private Map<String, String> merge(Path source, Path target) {
+        Map<String, String> failures = new LinkedHashMap<>();
+        try {
+            Files.walkFileTree(source, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) throws IOException {
+                    Files.createDirectories(target.resolve(source.relativize(dir)));
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    if (file.getFileName().toString().startsWith(TEMP_PREFIX)) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                    try {
+                        Files.move(file, target.resolve(source.relativize(file)),
+                                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                    } catch (IOException e) {
+                        failures.put(key(file, false), e.getMessage());
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException e) {
+                    try {
+                        Files.deleteIfExists(dir);
+                    } catch (IOException notEmpty) {
+                        // keeps the objects that could not be moved
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            failures.put(key(source, true), e.getMessage());
+        }
+        return failures;
+    }
+
+    @Override
+    public boolean hasNativeFolders() {
+        return true;
+    }
+
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root)) {
+            throw new InvalidRequestException("Invalid key: " + key);
+        }
+        return path;
+    }
+
+    private String key(Path path, boolean directory) {
+        String key = root.relativize(path).toString().replace(path.getFileSystem().getSeparator(), "/");
+        return directory && !key.isEmpty() ? key + "/" : key;
+    }
+
+    private String eTag(BasicFileAttributes attributes) {
+        return "\"" + Long.toHexString(attributes.size())
+                + "-" + Long.toHexString(attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS))
+                + "-" + Integer.toHexString(Objects.hashCode(attributes.fileKey())) + "\"";
+    }
+
+    private Map<String, String> readAttributes(Path file) {
+        Map<String, String> values = new HashMap<>();
+        UserDefinedFileAttributeView view = extendedAttributes
+                ? Files.getFileAttributeView(file, UserDefinedFileAttributeView.class)
+                : null;
+        if (view == null) {
+            return values;
+        }
+        try {
+            for (String name : view.list()) {
+                ByteBuffer buffer = ByteBuffer.allocate(view.size(name));
+                view.read(name, buffer);
+                buffer.flip();
+                values.put(name, StandardCharsets.UTF_8.decode(buffer).toString());
+            }
+        } catch (IOException e) {
+            log.warn("Failed to read attributes of {}: {}", file, e.getMessage());
+        }
+        return values;
+    }
+
+    private void writeAttributes(Path file, String contentType, Map<String, String> metadata) throws IOException {
+        Map<String, String> values = new HashMap<>();
+        if (contentType != null) {
+            values.put(CONTENT_TYPE_ATTRIBUTE, contentType);
+        }
+        metadata.forEach((name, value) -> values.put(METADATA_ATTRIBUTE_PREFIX + name, value));
+        copyAttributes(values, file);
+    }
+
+    private void copyAttributes(Map<String, String> values, Path file) throws IOException {
+        UserDefinedFileAttributeView view = extendedAttributes
+                ? Files.getFileAttributeView(file, UserDefinedFileAttributeView.class)
+                : null;
+        if (view == null) {
+            return;
+        }
+        for (Map.Entry<String, String> value : values.entrySet()) {
+            view.write(value.getKey(), StandardCharsets.UTF_8.encode(value.getValue()));
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete {}: {}", file, e.getMessage());
+        }
+    }
+
+    private record Entry(String key, Path path, boolean directory, long size, String eTag, Instant lastModified) {
+    }
+
+    /**
+     * Reads a byte range of a file through successive read-only mappings of at most
+     * {@code MAP_WINDOW} bytes. A window is unmapped by the garbage collector once it is replaced.
+     */
+    private static final class MappedInputStream extends InputStream {
+
+        private final FileChannel channel;
+        private final long end;
+        private long position;
+        private MappedByteBuffer window;
+
+        MappedInputStream(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.position = start;
+            this.end = end;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!fill()) {
+                return -1;
+            }
+            return window.get() & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int n = Math.min(len, window.remaining());
+            window.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return window == null ? 0 : window.remaining();
+        }
+
+        private boolean fill() throws IOException {
+            if (window != null && window.hasRemaining()) {
+                return true;
+            }
+            if (position >= end) {
+                return false;
+            }
+            long size = Math.min(MAP_WINDOW, end - position);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+            position += size;
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            window = null;
+            channel.close();
+        }
+
+        void closeQuietly() {
+            try {
+                close();
+            } catch (IOException e) {
+                // nothing left to release
+            }
+        }
+    }
+}
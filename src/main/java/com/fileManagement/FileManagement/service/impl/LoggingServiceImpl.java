@@ -1,13 +1,26 @@
 package com.fileManagement.FileManagement.service.impl;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
 import org.springframework.stereotype.Service;
 
+import com.fileManagement.FileManagement.dto.LogQuery;
+import com.fileManagement.FileManagement.dto.PageDto;
 import com.fileManagement.FileManagement.entity.FileOperationLog;
+import com.fileManagement.FileManagement.entity.FileOperationRollup;
+import com.fileManagement.FileManagement.exceptions.InvalidRequestException;
 import com.fileManagement.FileManagement.repository.FileOperationLogRepository;
+import com.fileManagement.FileManagement.repository.FileOperationLogSpecifications;
+import com.fileManagement.FileManagement.repository.FileOperationRollupRepository;
 import com.fileManagement.FileManagement.service.LoggingService;
 
 import lombok.RequiredArgsConstructor;
@@ -16,10 +29,14 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class LoggingServiceImpl implements LoggingService {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final FileOperationLogRepository logRepository;
+    private final FileOperationRollupRepository rollupRepository;
+    private final AuditLogWriter auditLogWriter;
+    private final AuditLogExporter auditLogExporter;
 
     @Override
-    @Async
     public void logOperation(String username, String operation, String filePath, String destinationPath, String status, String errorMessage) {
         FileOperationLog log = FileOperationLog.builder()
                 .username(username != null ? username : "anonymous")
@@ -31,16 +48,86 @@ public class LoggingServiceImpl implements LoggingService {
                 .errorMessage(errorMessage)
                 .build();
         
-        logRepository.save(log);
+        auditLogWriter.enqueue(log);
+    }
+
+    @Override
+    public PageDto<FileOperationLog> searchLogs(LogQuery query, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        // Prefix matches come off the index in path order and are sorted before every page, so
+        // bound how many rows that sort can see
+        if (query.getPathPrefix() != null && !query.getPathPrefix().isEmpty()
+                && (query.getFrom() == null || query.getTo() == null)) {
+            throw new InvalidRequestException("from and to are required when searching by path prefix");
+        }
+        
+        Specification<FileOperationLog> spec = FileOperationLogSpecifications.matching(query);
+        if (cursor != null) {
+            String[] position = decodeCursor(cursor);
+            spec = spec.and(FileOperationLogSpecifications.before(LocalDateTime.parse(position[0]), Long.parseLong(position[1])));
+        }
+        
+        // One row more than requested tells us whether another page exists without a count query
+        List<FileOperationLog> rows = logRepository.findBy(spec, q -> q
+                .sortBy(Sort.by(Sort.Direction.DESC, "timestamp", "id"))
+                .limit(limit + 1)
+                .all());
+        
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = new ArrayList<>(rows.subList(0, limit));
+            FileOperationLog last = rows.get(limit - 1);
+            nextCursor = encodeCursor(last.getTimestamp(), last.getId());
+        }
+        
+        return PageDto.<FileOperationLog>builder()
+                .items(rows)
+                .nextCursor(nextCursor)
+                .build();
     }
 
     @Override
-    public List<FileOperationLog> getLogsByFilePath(String filePath) {
-        return logRepository.findByFilePathContainingOrderByTimestampDesc(filePath);
+    public List<FileOperationRollup> getRollups(LogQuery query) {
+        if (query.getFrom() == null || query.getTo() == null) {
+            throw new InvalidRequestException("from and to are required");
+        }
+        
+        Specification<FileOperationRollup> spec = (root, cq, cb) -> cb.and(
+                cb.greaterThanOrEqualTo(root.get("bucketStart"), query.getFrom()),
+                cb.lessThan(root.get("bucketStart"), query.getTo()));
+        if (query.getUsername() != null) {
+            spec = spec.and((root, cq, cb) -> cb.equal(root.get("username"), query.getUsername()));
+        }
+        if (query.getOperation() != null) {
+            spec = spec.and((root, cq, cb) -> cb.equal(root.get("operation"), query.getOperation()));
+        }
+        
+        return rollupRepository.findAll(spec, Sort.by("bucketStart", "username", "operation", "status"));
     }
 
     @Override
-    public List<FileOperationLog> getLogsByUsername(String username) {
-        return logRepository.findByUsernameOrderByTimestampDesc(username);
+    public void exportLogs(LogQuery query, String format, OutputStream outputStream) {
+        auditLogExporter.export(query, format, outputStream);
+    }
+
+    private String encodeCursor(LocalDateTime timestamp, Long id) {
+        String raw = timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (position.length == 2) {
+                LocalDateTime.parse(position[0]);
+                Long.parseLong(position[1]);
+                return position;
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // fall through
+        }
+        throw new InvalidRequestException("Invalid cursor");
     }
 }
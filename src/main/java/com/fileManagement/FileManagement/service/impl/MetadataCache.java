@@ -0,0 +1,114 @@
+package com.fileManagement.FileManagement.service.impl;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fileManagement.FileManagement.dto.FileDto;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * In-process cache for folder listings and file details. Entries expire after a TTL and are
+ * evicted by size, but every mutation in this service invalidates the affected keys directly:
+ * the object itself, everything under a changed folder, and the listings of all ancestor folders
+ * (a new or removed sub-folder changes each of them). Writes made by other instances are only
+ * picked up once the TTL expires.
+ *
+ * <p>Both caches hold futures, so an async load in flight is shared by concurrent callers like a
+ * synchronous one; a failed load is not cached.
+ */
+@Component
+public class MetadataCache {
+
+    public static final String FILES = "files";
+    public static final String FOLDER = "folder";
+
+    private final AsyncCache<String, List<FileDto>> listings;
+    private final AsyncCache<String, FileDto> details;
+
+    public MetadataCache(
+            @Value("${cache.metadata.ttl:30s}") Duration ttl,
+            @Value("${cache.metadata.maxEntries:10000}") long maxEntries) {
+        this.listings = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxEntries)
+                .recordStats()
+                .buildAsync();
+        this.details = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxEntries)
+                .recordStats()
+                .buildAsync();
+    }
+
+    public List<FileDto> listing(String kind, String prefix, Supplier<List<FileDto>> loader) {
+        return listings.synchronous().get(kind + ":" + prefix, key -> List.copyOf(loader.get()));
+    }
+
+    public FileDto details(String key, Supplier<FileDto> loader) {
+        return details.synchronous().get(key, k -> loader.get());
+    }
+
+    public CompletableFuture<List<FileDto>> listingAsync(String kind, String prefix,
+            Supplier<CompletableFuture<List<FileDto>>> loader) {
+        return listings.get(kind + ":" + prefix, (key, executor) -> loader.get().thenApply(List::copyOf));
+    }
+
+    public CompletableFuture<FileDto> detailsAsync(String key, Supplier<CompletableFuture<FileDto>> loader) {
+        return details.get(key, (k, executor) -> loader.get());
+    }
+
+    public void invalidateObject(String key) {
+        details.synchronous().invalidate(key);
+        invalidateAncestorListings(key);
+    }
+
+    public void invalidatePrefix(String prefix) {
+        details.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+        listings.asMap().keySet().removeIf(key -> key.substring(key.indexOf(':') + 1).startsWith(prefix));
+        invalidateAncestorListings(prefix);
+    }
+
+    private void invalidateAncestorListings(String key) {
+        String path = key.endsWith("/") ? key.substring(0, key.length() - 1) : key;
+        int slash = path.lastIndexOf('/');
+        
+        while (true) {
+            String parent = slash < 0 ? "" : path.substring(0, slash + 1);
+            listings.synchronous().invalidate(FILES + ":" + parent);
+            listings.synchronous().invalidate(FOLDER + ":" + parent);
+            if (slash < 0) {
+                // listFiles on the root folder asks S3 for the "/" prefix
+                listings.synchronous().invalidate(FILES + ":/");
+                return;
+            }
+            slash = path.lastIndexOf('/', slash - 1);
+        }
+    }
+
+    public Map<String, Map<String, Object>> stats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        stats.put("listings", describe(listings.synchronous().stats(), listings.synchronous().estimatedSize()));
+        stats.put("details", describe(details.synchronous().stats(), details.synchronous().estimatedSize()));
+        return stats;
+    }
+
+    private Map<String, Object> describe(CacheStats cacheStats, long size) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("size", size);
+        description.put("hitCount", cacheStats.hitCount());
+        description.put("missCount", cacheStats.missCount());
+        description.put("hitRate", cacheStats.hitRate());
+        description.put("evictionCount", cacheStats.evictionCount());
+        description.put("averageLoadPenaltyMillis", cacheStats.averageLoadPenalty() / 1_000_000.0);
+        return description;
+    }
+}
@@ -0,0 +1,333 @@
+package com.fileManagement.FileManagement.service.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32C;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import com.fileManagement.FileManagement.exceptions.FileStorageException;
+import com.fileManagement.FileManagement.service.MultipartUploadService;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.ChecksumAlgorithm;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+
+/**
+ * Uploads a stream to S3 in fixed-size parts. Anything smaller than one part goes out as a
+ * single PutObject; larger streams are split into a multipart upload whose parts are sent
+ * concurrently. A part buffer grows with the bytes actually received, so a small file never
+ * allocates a whole part. Every buffer takes a permit from a shared pool before the first byte is
+ * read into it and keeps it until it has been sent, so at most 2 * parallelism part buffers exist
+ * across all requests, including those still being filled by a slow client; a read that turns out
+ * empty hands its permit straight back.
+ *
+ * <p>Every request carries a SHA-256 checksum header, which S3 verifies on receipt: the whole
+ * object for a single PutObject, each part for a multipart upload (S3 then keeps a composite
+ * checksum over the parts, and the part size is stored as metadata so it can be recomputed on
+ * download). Full-object SHA-256 and CRC32C are accumulated as each buffer is read, so the input
+ * is still only read once; they are stored as metadata where the object is written in one
+ * request, and returned to the caller either way.
+ */
+@Service
+@Slf4j
+public class MultipartUploadServiceImpl implements MultipartUploadService {
+
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+    private static final int MAX_PARTS = 10_000;
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+    private final S3Client s3Client;
+    private final String bucketName;
+    private final int partSize;
+    private final Semaphore partBuffers;
+    private final ExecutorService partExecutor;
+
+    public MultipartUploadServiceImpl(
+            S3Client s3Client,
+            @Value("${aws.s3.bucketName}") String bucketName,
+            @Value("${aws.s3.multipart.partSize:16MB}") DataSize partSize,
+            @Value("${aws.s3.multipart.parallelism:4}") int parallelism) {
+        if (partSize.toBytes() < MIN_PART_SIZE || partSize.toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("aws.s3.multipart.partSize must be between 5MB and 2GB");
+        }
+        this.s3Client = s3Client;
+        this.bucketName = bucketName;
+        this.partSize = (int) partSize.toBytes();
+        // Twice the thread count so the next part can be read while the previous ones are in flight
+        this.partBuffers = new Semaphore(parallelism * 2);
+        this.partExecutor = new ThreadPoolExecutor(parallelism, parallelism, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("s3-upload-"));
+    }
+
+    @Override
+    public UploadResult upload(String key, String contentType, InputStream inputStream) {
+        MessageDigest objectDigest = Checksums.sha256();
+        CRC32C objectCrc = new CRC32C();
+        Part firstPart;
+        try {
+            firstPart = readBufferedPart(inputStream);
+        } catch (IOException e) {
+            throw new FileStorageException("Failed to read upload stream: " + e.getMessage(), e);
+        }
+        objectDigest.update(firstPart.data(), 0, firstPart.length());
+        objectCrc.update(firstPart.data(), 0, firstPart.length());
+
+        if (firstPart.length() < partSize) {
+            UploadResult result = new UploadResult(firstPart.length(),
+                    Checksums.base64(objectDigest.digest()), Checksums.base64(objectCrc));
+            try {
+                putObject(key, contentType, firstPart.data(), firstPart.length(), result);
+            } finally {
+                if (firstPart.length() > 0) {
+                    partBuffers.release();
+                }
+            }
+            return result;
+        }
+
+        return uploadInParts(key, contentType, inputStream, firstPart, objectDigest, objectCrc);
+    }
+
+    /**
+     * Takes a buffer permit and reads the next part under it. The permit stays with a non-empty part
+     * until the part has been sent; it is returned here if the stream had already ended or the read fails.
+     */
+    private Part readBufferedPart(InputStream inputStream) throws IOException {
+        acquireBuffer();
+        boolean filled = false;
+        try {
+            Part part = readPart(inputStream);
+            filled = part.length() > 0;
+            return part;
+        } finally {
+            if (!filled) {
+                partBuffers.release();
+            }
+        }
+    }
+
+    /**
+     * Reads up to one part from the stream into a buffer that is grown as bytes arrive.
+     */
+    private Part readPart(InputStream inputStream) throws IOException {
+        byte[] buffer = new byte[Math.min(partSize, INITIAL_BUFFER_SIZE)];
+        int length = 0;
+        while (true) {
+            int read = inputStream.read(buffer, length, buffer.length - length);
+            if (read < 0) {
+                break;
+            }
+            length += read;
+            if (length == buffer.length) {
+                if (length == partSize) {
+                    break;
+                }
+                buffer = Arrays.copyOf(buffer, (int) Math.min(2L * buffer.length, partSize));
+            }
+        }
+        return new Part(buffer, length);
+    }
+
+    private void putObject(String key, String contentType, byte[] data, int length, UploadResult checksums) {
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .checksumAlgorithm(ChecksumAlgorithm.SHA256)
+                .checksumSHA256(checksums.checksumSha256())
+                .metadata(Map.of(
+                        Checksums.SHA256_METADATA, checksums.checksumSha256(),
+                        Checksums.CRC32C_METADATA, checksums.checksumCrc32c()))
+                .build();
+
+        s3Client.putObject(putObjectRequest, RequestBody.fromInputStream(new ByteArrayInputStream(data, 0, length), length));
+    }
+
+    private UploadResult uploadInParts(String key, String contentType, InputStream inputStream, Part firstPart,
+            MessageDigest objectDigest, CRC32C objectCrc) {
+        CreateMultipartUploadRequest createRequest = CreateMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .checksumAlgorithm(ChecksumAlgorithm.SHA256)
+                .metadata(Map.of(Checksums.PART_SIZE_METADATA, String.valueOf(partSize)))
+                .build();
+
+        String uploadId = s3Client.createMultipartUpload(createRequest).uploadId();
+
+        List<Future<CompletedPart>> parts = new ArrayList<>();
+        AtomicBoolean failed = new AtomicBoolean();
+        long totalBytes = 0;
+        try {
+            Part next = firstPart;
+            int partNumber = 1;
+
+            while (true) {
+                // The part already holds its buffer permit; the submitted task returns it once sent
+                parts.add(submitPart(key, uploadId, partNumber, next.data(), next.length(), failed));
+                totalBytes += next.length();
+                failFast(parts);
+
+                if (next.length() < partSize) {
+                    break;
+                }
+                next = readBufferedPart(inputStream);
+                if (next.length() == 0) {
+                    break;
+                }
+                objectDigest.update(next.data(), 0, next.length());
+                objectCrc.update(next.data(), 0, next.length());
+                if (++partNumber > MAX_PARTS) {
+                    partBuffers.release();
+                    throw new FileStorageException("Upload exceeds " + MAX_PARTS + " parts; increase aws.s3.multipart.partSize");
+                }
+            }
+
+            List<CompletedPart> completedParts = new ArrayList<>(parts.size());
+            for (Future<CompletedPart> part : parts) {
+                completedParts.add(part.get());
+            }
+            completedParts.sort(Comparator.comparing(CompletedPart::partNumber));
+
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                    .build());
+
+            log.debug("Uploaded {} in {} parts ({} bytes)", key, completedParts.size(), totalBytes);
+            return new UploadResult(totalBytes, Checksums.base64(objectDigest.digest()), Checksums.base64(objectCrc));
+        } catch (Exception e) {
+            // Let queued parts bail out and in-flight ones finish before aborting, so no part
+            // lands after the abort and every buffer permit is returned.
+            failed.set(true);
+            awaitQuietly(parts);
+            abort(key, uploadId);
+
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof FileStorageException fileStorageException) {
+                throw fileStorageException;
+            }
+            throw new FileStorageException("Multipart upload failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    private Future<CompletedPart> submitPart(String key, String uploadId, int partNumber, byte[] buffer, int length,
+            AtomicBoolean failed) {
+        try {
+            return partExecutor.submit(() -> {
+                try {
+                    if (failed.get()) {
+                        return null;
+                    }
+                    String checksum = Checksums.sha256Base64(buffer, 0, length);
+                    UploadPartRequest uploadPartRequest = UploadPartRequest.builder()
+                            .bucket(bucketName)
+                            .key(key)
+                            .uploadId(uploadId)
+                            .partNumber(partNumber)
+                            .contentLength((long) length)
+                            .checksumAlgorithm(ChecksumAlgorithm.SHA256)
+                            .checksumSHA256(checksum)
+                            .build();
+
+                    String eTag = s3Client.uploadPart(uploadPartRequest,
+                            RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, length), length)).eTag();
+
+                    return CompletedPart.builder().partNumber(partNumber).eTag(eTag).checksumSHA256(checksum).build();
+                } finally {
+                    partBuffers.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            partBuffers.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Stops reading the rest of the input as soon as any part has failed.
+     */
+    private void failFast(List<Future<CompletedPart>> parts) throws ExecutionException, InterruptedException {
+        for (Future<CompletedPart> part : parts) {
+            if (part.isDone()) {
+                part.get();
+            }
+        }
+    }
+
+    private void awaitQuietly(List<Future<CompletedPart>> parts) {
+        for (Future<CompletedPart> part : parts) {
+            try {
+                part.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                // already reported by the first failure
+            }
+        }
+    }
+
+    private void abort(String key, String uploadId) {
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+        } catch (SdkException e) {
+            log.error("Failed to abort multipart upload {} for {}: {}", uploadId, key, e.getMessage());
+        }
+    }
+
+    private void acquireBuffer() {
+        try {
+            partBuffers.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FileStorageException("Interrupted while waiting for an upload buffer", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        partExecutor.shutdown();
+    }
+
+    private record Part(byte[] data, int length) {
+    }
+}
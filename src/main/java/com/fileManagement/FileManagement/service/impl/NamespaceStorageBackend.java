@@ -0,0 +1,556 @@
+package com.fileManagement.FileManagement.service.impl;
+
+import java.io.InputStream;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fileManagement.FileManagement.exceptions.FileStorageException;
+import com.fileManagement.FileManagement.exceptions.InvalidRequestException;
+import com.fileManagement.FileManagement.exceptions.ObjectChangedException;
+import com.fileManagement.FileManagement.repository.FileOperationLogSpecifications;
+import com.fileManagement.FileManagement.service.MultipartUploadService;
+import com.fileManagement.FileManagement.service.StorageBackend;
+import com.fileManagement.FileManagement.service.StoredObject;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Namespace mode ({@code storage.namespace.enabled}): the folder tree lives in namespace_entries
+ * and each file row points at an immutable key under {@code storage.namespace.objectPrefix} in the
+ * physical backend. Renaming or moving a folder re-parents a single row, and listings are range
+ * scans on (parent_id, name) rather than backend listings.
+ *
+ * <p>A physical object is written before the row that references it and deleted after that row is
+ * gone, so a failure can leave an unreferenced object behind but never a row without its object.
+ * Objects already in the backend are not visible in this mode.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "storage.namespace.enabled", havingValue = "true")
+@Slf4j
+public class NamespaceStorageBackend implements StorageBackend {
+
+    private static final long ROOT_ID = 0;
+    private static final String COLUMNS =
+            "id, name, folder, physical_key, size, etag, content_type, metadata, modified_at";
+    private static final TypeReference<Map<String, String>> METADATA_TYPE = new TypeReference<>() {
+    };
+
+    private final StorageBackend physical;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final String objectPrefix;
+
+    public NamespaceStorageBackend(
+            @Qualifier(StorageBackend.PHYSICAL) StorageBackend physical,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            @Value("${storage.namespace.objectPrefix:.objects/}") String objectPrefix) {
+        this.physical = physical;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.objectPrefix = objectPrefix;
+    }
+
+    @Override
+    public MultipartUploadService.UploadResult put(String key, String contentType, InputStream content) {
+        checkFileKey(key);
+        String physicalKey = newPhysicalKey();
+        MultipartUploadService.UploadResult result = physical.put(physicalKey, contentType, content);
+        try {
+            putEntry(key, physicalKey, result.size(), contentType, Map.of(
+                    Checksums.SHA256_METADATA, result.checksumSha256(),
+                    Checksums.CRC32C_METADATA, result.checksumCrc32c()));
+        } catch (RuntimeException e) {
+            deletePhysical(List.of(physicalKey));
+            throw e;
+        }
+        return result;
+    }
+
+    @Override
+    public void putEmpty(String key, String contentType, Map<String, String> metadata) {
+        if (key.endsWith("/")) {
+            transactionTemplate.executeWithoutResult(status -> ensureFolders(key));
+            return;
+        }
+        checkFileKey(key);
+        putEntry(key, null, 0, contentType, metadata);
+    }
+
+    @Override
+    public StoredObject get(String key, String range, String ifMatch, boolean withChecksums) {
+        Entry entry = findFile(key);
+        ObjectInfo info = info(key, entry);
+        if (ifMatch != null && !ifMatch.equals(info.eTag())) {
+            throw new ObjectChangedException("Object changed: " + key);
+        }
+        if (entry.physicalKey() == null) {
+            return new StoredObject(info, InputStream.nullInputStream(), () -> {
+            });
+        }
+
+        StoredObject body = physical.get(entry.physicalKey(), range, false);
+        ObjectInfo bodyInfo = range == null ? info : new ObjectInfo(key, body.info().size(), info.eTag(),
+                info.lastModified(), info.contentType(), info.metadata(), info.checksumSha256(), info.checksumCrc32c());
+        return new StoredObject(bodyInfo, body, body::abort);
+    }
+
+    @Override
+    public ObjectInfo head(String key) {
+        return info(key, findFile(key));
+    }
+
+    @Override
+    public ListingPage list(String prefix, String delimiter, String cursor, int maxKeys) {
+        String directoryKey = prefix.substring(0, prefix.lastIndexOf('/') + 1);
+        String pattern = FileOperationLogSpecifications.escapeLike(prefix.substring(directoryKey.length())) + "%";
+        Optional<Entry> directory = find(directoryKey);
+        if (directory.isEmpty() || !directory.get().folder()) {
+            return new ListingPage(List.of(), List.of(), null);
+        }
+
+        String after = cursor != null && cursor.startsWith(directoryKey) ? cursor.substring(directoryKey.length()) : "";
+        List<Listed> rows = delimiter == null
+                ? listTree(directoryKey, directory.get().id(), pattern, after, maxKeys + 1)
+                : children(directoryKey, directory.get().id(), pattern, after, maxKeys + 1);
+
+        boolean truncated = rows.size() > maxKeys;
+        List<Listed> page = truncated ? rows.subList(0, maxKeys) : rows;
+        List<ObjectInfo> objects = new ArrayList<>();
+        List<String> commonPrefixes = new ArrayList<>();
+        for (Listed row : page) {
+            if (row.folder() && delimiter != null) {
+                commonPrefixes.add(row.key());
+            } else {
+                objects.add(new ObjectInfo(row.key(), row.size(), row.eTag(), row.modifiedAt()));
+            }
+        }
+        return new ListingPage(objects, commonPrefixes, truncated ? page.get(page.size() - 1).key() : null);
+    }
+
+    /**
+     * Lists the subtree in key order without a delimiter. Folder names keep their trailing '/' and
+     * sort in "C" order, so key order is a depth-first walk with siblings in name order. The walk
+     * starts from the cursor: each folder on the path down to it resumes with an index seek past
+     * the cursor's name at that level, so a page costs one seek per folder it enters, however much
+     * of the tree lies before the cursor.
+     */
+    private List<Listed> listTree(String directoryKey, long directoryId, String pattern, String after, int limit) {
+        Deque<Level> levels = new ArrayDeque<>();
+        String[] path = segments(after);
+        levels.push(new Level(directoryId, directoryKey, pattern, path.length == 0 ? "" : path[0]));
+        for (int i = 0; i + 1 < path.length && path[i].endsWith("/"); i++) {
+            Level parent = levels.peek();
+            Optional<Entry> folder = child(parent.id(), path[i]);
+            if (folder.isEmpty() || !folder.get().folder()) {
+                break;
+            }
+            levels.push(new Level(folder.get().id(), parent.key() + path[i], null, path[i + 1]));
+        }
+        // A cursor at a folder resumes with that folder's contents
+        if (path.length > 0 && path[path.length - 1].endsWith("/") && levels.size() == path.length) {
+            Level parent = levels.peek();
+            child(parent.id(), path[path.length - 1])
+                    .filter(Entry::folder)
+                    .ifPresent(folder -> levels.push(new Level(folder.id(), parent.key() + folder.name(), null, "")));
+        }
+
+        List<Listed> rows = new ArrayList<>();
+        while (!levels.isEmpty() && rows.size() < limit) {
+            Level level = levels.peek();
+            int wanted = limit - rows.size();
+            List<Listed> children = children(level.key(), level.id(), level.pattern(), level.after(), wanted);
+            Listed folder = null;
+            for (Listed child : children) {
+                rows.add(child);
+                level.after(child.key().substring(level.key().length()));
+                if (child.folder()) {
+                    folder = child;
+                    break;
+                }
+            }
+            if (folder != null) {
+                levels.push(new Level(folder.id(), folder.key(), null, ""));
+            } else if (children.size() < wanted) {
+                levels.pop();
+            }
+        }
+        return rows;
+    }
+
+    private List<Listed> children(String folderKey, long folderId, String pattern, String after, int limit) {
+        return jdbcTemplate.query("SELECT id, ?::text || name AS key, folder, size, etag, modified_at "
+                        + "FROM namespace_entries WHERE parent_id = ? AND name LIKE ? ESCAPE '\\' AND name > ? "
+                        + "ORDER BY name LIMIT ?",
+                this::mapListed, folderKey, folderId, pattern != null ? pattern : "%", after, limit);
+    }
+
+    @Override
+    public ListingPage listAfter(String prefix, String startAfter, int maxKeys) {
+        return list(prefix, null, startAfter, maxKeys);
+    }
+
+    @Override
+    public void copy(String sourceKey, String destinationKey) {
+        if (sourceKey.endsWith("/")) {
+            transactionTemplate.executeWithoutResult(status -> ensureFolders(destinationKey));
+            return;
+        }
+        checkFileKey(destinationKey);
+
+        Entry source = findFile(sourceKey);
+        String physicalKey = null;
+        if (source.physicalKey() != null) {
+            physicalKey = newPhysicalKey();
+            physical.copy(source.physicalKey(), physicalKey);
+        }
+        try {
+            putEntry(destinationKey, physicalKey, source.size(), source.contentType(), readMetadata(source.metadata()));
+        } catch (RuntimeException e) {
+            if (physicalKey != null) {
+                deletePhysical(List.of(physicalKey));
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Deleting a folder key removes the folder only when it is empty, as deleting an S3 folder
+     * marker leaves the objects below it in place.
+     */
+    @Override
+    public void delete(String key) {
+        Optional<Entry> entry = find(key);
+        if (entry.isEmpty() || entry.get().id() == ROOT_ID) {
+            return;
+        }
+        if (entry.get().folder()) {
+            jdbcTemplate.update("DELETE FROM namespace_entries e WHERE e.id = ? "
+                    + "AND NOT EXISTS (SELECT 1 FROM namespace_entries c WHERE c.parent_id = e.id)", entry.get().id());
+            return;
+        }
+        List<String> released = jdbcTemplate.queryForList(
+                "DELETE FROM namespace_entries WHERE id = ? RETURNING physical_key", String.class, entry.get().id());
+        deletePhysical(released);
+    }
+
+    @Override
+    public Map<String, String> copyAll(Map<String, String> destinationsBySource) {
+        Map<String, String> failures = new LinkedHashMap<>();
+        destinationsBySource.forEach((source, destination) -> {
+            try {
+                copy(source, destination);
+            } catch (RuntimeException e) {
+                failures.put(source, e.getMessage());
+            }
+        });
+        return failures;
+    }
+
+    /**
+     * Deletes in descending key order, so files go before the folders containing them.
+     */
+    @Override
+    public Map<String, String> deleteAll(List<String> keys) {
+        Map<String, String> failures = new LinkedHashMap<>();
+        keys.stream().sorted(Comparator.reverseOrder()).forEach(key -> {
+            try {
+                delete(key);
+            } catch (RuntimeException e) {
+                failures.put(key, e.getMessage());
+            }
+        });
+        return failures;
+    }
+
+    @Override
+    public Map<String, String> deletePrefix(String prefix) {
+        if (prefix.isEmpty() || !prefix.endsWith("/")) {
+            throw new IllegalArgumentException("Not a folder prefix: " + prefix);
+        }
+        Optional<Entry> folder = find(prefix);
+        if (folder.isEmpty() || !folder.get().folder()) {
+            return Map.of();
+        }
+
+        long folderId = folder.get().id();
+        List<String> released = transactionTemplate.execute(status -> {
+            lock(folderId);
+            List<String> physicalKeys = jdbcTemplate.queryForList("WITH RECURSIVE tree AS ("
+                    + "SELECT id, physical_key FROM namespace_entries WHERE parent_id = ? "
+                    + "UNION ALL SELECT e.id, e.physical_key FROM tree t JOIN namespace_entries e ON e.parent_id = t.id) "
+                    + "SELECT physical_key FROM tree WHERE physical_key IS NOT NULL", String.class, folderId);
+            jdbcTemplate.update("DELETE FROM namespace_entries WHERE id = ?", folderId);
+            return physicalKeys;
+        });
+        deletePhysical(released);
+        return Map.of();
+    }
+
+    /**
+     * Re-parents the source folder row when nothing exists at the destination. Otherwise the source
+     * is merged in: children without a counterpart are re-parented, folders present on both sides
+     * are merged recursively, and files replace the destination file of the same name.
+     */
+    @Override
+    public Map<String, String> movePrefix(String sourcePrefix, String destinationPrefix) {
+        if (destinationPrefix.startsWith(sourcePrefix)) {
+            throw new InvalidRequestException("Cannot move " + sourcePrefix + " into itself");
+        }
+        Optional<Entry> source = find(sourcePrefix);
+        if (source.isEmpty() || !source.get().folder()) {
+            return Map.of();
+        }
+
+        List<String> released = transactionTemplate.execute(status -> {
+            lock(source.get().id());
+            long parentId = ensureFolders(parentKey(destinationPrefix));
+            List<String> replaced = new ArrayList<>();
+            moveInto(source.get(), parentId, name(destinationPrefix), replaced);
+            return replaced;
+        });
+        deletePhysical(released);
+        return Map.of();
+    }
+
+    private void moveInto(Entry entry, long parentId, String name, List<String> replaced) {
+        Optional<Entry> existing = child(parentId, name);
+        if (existing.isPresent() && entry.folder()) {
+            for (Entry child : jdbcTemplate.query("SELECT " + COLUMNS + " FROM namespace_entries WHERE parent_id = ?",
+                    this::mapEntry, entry.id())) {
+                moveInto(child, existing.get().id(), child.name(), replaced);
+            }
+            jdbcTemplate.update("DELETE FROM namespace_entries WHERE id = ?", entry.id());
+            return;
+        }
+        if (existing.isPresent()) {
+            if (existing.get().physicalKey() != null) {
+                replaced.add(existing.get().physicalKey());
+            }
+            jdbcTemplate.update("DELETE FROM namespace_entries WHERE id = ?", existing.get().id());
+        }
+        jdbcTemplate.update("UPDATE namespace_entries SET parent_id = ?, name = ? WHERE id = ?", parentId, name, entry.id());
+    }
+
+    @Override
+    public boolean hasNativeFolders() {
+        return true;
+    }
+
+    private void putEntry(String key, String physicalKey, long size, String contentType, Map<String, String> metadata) {
+        String metadataJson = writeMetadata(metadata);
+        String eTag = "\"" + UUID.randomUUID() + "\"";
+        List<String> replaced = transactionTemplate.execute(status -> {
+            long parentId = ensureFolders(parentKey(key));
+            List<String> previous = jdbcTemplate.queryForList(
+                    "SELECT physical_key FROM namespace_entries WHERE parent_id = ? AND name = ? AND physical_key IS NOT NULL FOR UPDATE",
+                    String.class, parentId, name(key));
+            jdbcTemplate.update("INSERT INTO namespace_entries "
+                            + "(parent_id, name, folder, physical_key, size, etag, content_type, metadata, modified_at) "
+                            + "VALUES (?, ?, FALSE, ?, ?, ?, ?, ?::jsonb, now()) "
+                            + "ON CONFLICT (parent_id, name) DO UPDATE SET physical_key = EXCLUDED.physical_key, "
+                            + "size = EXCLUDED.size, etag = EXCLUDED.etag, content_type = EXCLUDED.content_type, "
+                            + "metadata = EXCLUDED.metadata, modified_at = EXCLUDED.modified_at",
+                    parentId, name(key), physicalKey, size, eTag, contentType, metadataJson);
+            return previous;
+        });
+        deletePhysical(replaced);
+    }
+
+    /**
+     * Creates the missing folders along {@code folderKey} and returns the id of the last one.
+     */
+    private long ensureFolders(String folderKey) {
+        long parentId = ROOT_ID;
+        for (String segment : segments(folderKey)) {
+            parentId = jdbcTemplate.queryForObject("INSERT INTO namespace_entries (parent_id, name, folder) "
+                            + "VALUES (?, ?, TRUE) ON CONFLICT (parent_id, name) DO UPDATE SET name = EXCLUDED.name RETURNING id",
+                    Long.class, parentId, segment);
+        }
+        return parentId;
+    }
+
+    private Optional<Entry> find(String key) {
+        String[] segments = segments(key);
+        if (segments.length == 0) {
+            return Optional.of(new Entry(ROOT_ID, "", true, null, 0, null, null, null, null));
+        }
+        // One query walks the whole path, one index lookup per segment
+        return jdbcTemplate.query("WITH RECURSIVE walk (id, depth) AS ("
+                                + "SELECT 0::bigint, 0 "
+                                + "UNION ALL SELECT e.id, w.depth + 1 FROM walk w JOIN namespace_entries e "
+                                + "ON e.parent_id = w.id AND e.name = (?::text[])[w.depth + 1] WHERE w.depth < ?) "
+                                + "SELECT " + COLUMNS + " FROM namespace_entries WHERE id = (SELECT id FROM walk WHERE depth = ?)",
+                        this::mapEntry, segments, segments.length, segments.length)
+                .stream()
+                .findFirst();
+    }
+
+    private Entry findFile(String key) {
+        return find(key)
+                .filter(entry -> !entry.folder())
+                .orElseThrow(() -> new FileStorageException("No such object: " + key));
+    }
+
+    private Optional<Entry> child(long parentId, String name) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM namespace_entries WHERE parent_id = ? AND name = ?",
+                        this::mapEntry, parentId, name)
+                .stream()
+                .findFirst();
+    }
+
+    private void lock(long id) {
+        jdbcTemplate.queryForList("SELECT id FROM namespace_entries WHERE id = ? FOR UPDATE", Long.class, id);
+    }
+
+    private void deletePhysical(List<String> physicalKeys) {
+        if (physicalKeys.isEmpty()) {
+            return;
+        }
+        Map<String, String> failures = physical.deleteAll(physicalKeys);
+        if (!failures.isEmpty()) {
+            log.warn("{} unreferenced objects could not be deleted: {}", failures.size(), failures);
+        }
+    }
+
+    private String newPhysicalKey() {
+        String id = UUID.randomUUID().toString();
+        return objectPrefix + id.substring(0, 2) + "/" + id;
+    }
+
+    private ObjectInfo info(String key, Entry entry) {
+        Map<String, String> metadata = readMetadata(entry.metadata());
+        return new ObjectInfo(key, entry.size(), entry.eTag(), entry.modifiedAt(), entry.contentType(), metadata,
+                metadata.get(Checksums.SHA256_METADATA), metadata.get(Checksums.CRC32C_METADATA));
+    }
+
+    private String writeMetadata(Map<String, String> metadata) {
+        try {
+            return objectMapper.writeValueAsString(metadata);
+        } catch (JsonProcessingException e) {
+            throw new FileStorageException("Failed to store object metadata: " + e.getMessage(), e);
+        }
+    }
+
+    private Map<String, String> readMetadata(String json) {
+        if (json == null) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(json, METADATA_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new FileStorageException("Failed to read object metadata: " + e.getMessage(), e);
+        }
+    }
+
+    private static void checkFileKey(String key) {
+        if (key.isEmpty() || key.endsWith("/")) {
+            throw new IllegalArgumentException("Not a file key: " + key);
+        }
+    }
+
+    /**
+     * The path segments of a key, each folder segment with its trailing '/'.
+     */
+    private static String[] segments(String key) {
+        List<String> segments = new ArrayList<>();
+        int start = 0;
+        while (start < key.length()) {
+            int end = key.indexOf('/', start);
+            end = end < 0 ? key.length() : end + 1;
+            segments.add(key.substring(start, end));
+            start = end;
+        }
+        return segments.toArray(String[]::new);
+    }
+
+    private static String name(String key) {
+        String[] segments = segments(key);
+        return segments.length == 0 ? "" : segments[segments.length - 1];
+    }
+
+    private static String parentKey(String key) {
+        return key.substring(0, key.length() - name(key).length());
+    }
+
+    private Entry mapEntry(ResultSet rs, int rowNum) throws SQLException {
+        return new Entry(rs.getLong("id"), rs.getString("name"), rs.getBoolean("folder"), rs.getString("physical_key"),
+                rs.getLong("size"), rs.getString("etag"), rs.getString("content_type"), rs.getString("metadata"),
+                rs.getTimestamp("modified_at").toInstant());
+    }
+
+    private Listed mapListed(ResultSet rs, int rowNum) throws SQLException {
+        return new Listed(rs.getLong("id"), rs.getString("key"), rs.getBoolean("folder"), rs.getLong("size"), rs.getString("etag"),
+                rs.getTimestamp("modified_at").toInstant());
+    }
+
+    private record Entry(long id, String name, boolean folder, String physicalKey, long size, String eTag,
+            String contentType, String metadata, Instant modifiedAt) {
+    }
+
+    private record Listed(long id, String key, boolean folder, long size, String eTag, Instant modifiedAt) {
+    }
+
+    /**
+     * One folder on the walk of {@link #listTree}: its children are listed from {@code after} on.
+     */
+    private static final class Level {
+
+        private final long id;
+        private final String key;
+        private final String pattern;
+        private String after;
+
+        Level(long id, String key, String pattern, String after) {
+            this.id = id;
+            this.key = key;
+            this.pattern = pattern;
+            this.after = after;
+        }
+
+        long id() {
+            return id;
+        }
+
+        String key() {
+            return key;
+        }
+
+        String pattern() {
+            return pattern;
+        }
+
+        String after() {
+            return after;
+        }
+
+        void after(String name) {
+            this.after = name;
+        }
+    }
+}
@@ -0,0 +1,412 @@
+package com.fileManagement.FileManagement.service.impl;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fileManagement.FileManagement.repository.FileOperationLogSpecifications;
+import com.fileManagement.FileManagement.service.StorageBackend;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The object_catalog table: one row per object key plus one folder row per prefix that has keys
+ * below it. Single-object writes only append their size delta to object_catalog_deltas, which
+ * {@link #applyDeltas} folds into the folder rows along each key's path; folder sizes therefore lag
+ * writes by up to {@code storage.catalog.aggregateInterval}, and a folder emptied by a delete goes
+ * away once its deltas are applied. Prefix operations rebuild the folder rows of the affected
+ * subtree from the objects in it and then recompute its ancestors from their direct children.
+ */
+@Component
+@ConditionalOnExpression(ObjectCatalog.ENABLED)
+@Slf4j
+public class ObjectCatalog {
+
+    static final String ENABLED = "${storage.catalog.enabled:false} and !${storage.namespace.enabled:false}";
+
+    private static final String LISTING_COLUMNS = "key, folder, size, etag, modified_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private volatile boolean ready;
+
+    public ObjectCatalog(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Whether a reconcile has completed, i.e. the catalog holds the whole bucket.
+     */
+    boolean isReady() {
+        if (!ready) {
+            ready = Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM object_catalog_state)", Boolean.class));
+        }
+        return ready;
+    }
+
+    /**
+     * One level below {@code prefix}: objects, and folders with their totals as common prefixes.
+     * The cursor is the last key of the previous page.
+     */
+    StorageBackend.ListingPage list(String prefix, String cursor, int maxKeys) {
+        String directoryKey = prefix.substring(0, prefix.lastIndexOf('/') + 1);
+        List<StorageBackend.ObjectInfo> rows = new ArrayList<>();
+        List<Boolean> folderFlags = new ArrayList<>();
+        jdbcTemplate.query("SELECT " + LISTING_COLUMNS + " FROM object_catalog "
+                        + "WHERE parent_prefix = ? AND key LIKE ? ESCAPE '\\' AND key > ? ORDER BY key LIMIT ?",
+                rs -> {
+                    rows.add(mapInfo(rs));
+                    folderFlags.add(rs.getBoolean("folder"));
+                },
+                directoryKey, FileOperationLogSpecifications.escapeLike(prefix) + "%",
+                cursor == null ? "" : cursor, maxKeys + 1);
+
+        boolean truncated = rows.size() > maxKeys;
+        int count = truncated ? maxKeys : rows.size();
+        List<StorageBackend.ObjectInfo> objects = new ArrayList<>();
+        List<String> commonPrefixes = new ArrayList<>();
+        Map<String, StorageBackend.ObjectInfo> folders = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            StorageBackend.ObjectInfo row = rows.get(i);
+            if (folderFlags.get(i)) {
+                commonPrefixes.add(row.key());
+                folders.put(row.key(), row);
+            } else {
+                objects.add(row);
+            }
+        }
+        return new StorageBackend.ListingPage(objects, commonPrefixes, truncated ? rows.get(count - 1).key() : null, folders);
+    }
+
+    void put(StorageBackend.ObjectInfo info) {
+        transactionTemplate.executeWithoutResult(status -> record(info));
+    }
+
+    /**
+     * Records copies from the source rows; sources not in the catalog are left to the reconciler.
+     */
+    void copy(Map<String, String> destinationsBySource) {
+        if (destinationsBySource.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        transactionTemplate.executeWithoutResult(status -> destinationsBySource.forEach((source, destination) -> {
+            List<StorageBackend.ObjectInfo> copies = jdbcTemplate.query(
+                    "SELECT size, etag, content_type FROM object_catalog WHERE key = ? AND (NOT folder OR marker)",
+                    (rs, rowNum) -> new StorageBackend.ObjectInfo(destination, rs.getLong("size"), rs.getString("etag"),
+                            now, rs.getString("content_type"), Map.of(), null, null),
+                    source);
+            copies.forEach(this::record);
+        }));
+    }
+
+    void remove(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        List<String> ordered = new ArrayList<>(keys);
+        ordered.sort(Comparator.reverseOrder());
+        Timestamp now = Timestamp.from(Instant.now());
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String key : ordered) {
+                if (key.endsWith("/")) {
+                    jdbcTemplate.update("UPDATE object_catalog SET marker = FALSE WHERE key = ?", key);
+                    List<String> folders = new ArrayList<>(folders(key));
+                    folders.add(key);
+                    prune(folders);
+                    continue;
+                }
+                List<Long> removed = jdbcTemplate.queryForList(
+                        "DELETE FROM object_catalog WHERE key = ? RETURNING size", Long.class, key);
+                if (!removed.isEmpty()) {
+                    adjust(key, -removed.get(0), now);
+                    prune(folders(key));
+                }
+            }
+        });
+    }
+
+    /**
+     * Removes everything under {@code prefix} except the keys in {@code kept}.
+     */
+    void removePrefix(String prefix, Collection<String> kept) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM object_catalog WHERE key LIKE ? ESCAPE '\\' "
+                            + "AND (NOT folder OR marker) AND key <> ALL (?)",
+                    FileOperationLogSpecifications.escapeLike(prefix) + "%", (Object) kept.toArray(String[]::new));
+            rebuild(prefix);
+            refreshAncestors(prefix);
+        });
+    }
+
+    /**
+     * Re-keys everything under {@code sourcePrefix} except the keys in {@code failed}; objects
+     * already at the destination with the same relative key are replaced.
+     */
+    void movePrefix(String sourcePrefix, String destinationPrefix, Collection<String> failed) {
+        String sourcePattern = FileOperationLogSpecifications.escapeLike(sourcePrefix) + "%";
+        String destinationPattern = FileOperationLogSpecifications.escapeLike(destinationPrefix) + "%";
+        String[] failedKeys = failed.toArray(String[]::new);
+        transactionTemplate.executeWithoutResult(status -> {
+            // Folder rows under the destination are rebuilt below, so they can all go now
+            jdbcTemplate.update("DELETE FROM object_catalog WHERE key LIKE ? ESCAPE '\\' AND folder AND NOT marker",
+                    destinationPattern);
+            jdbcTemplate.update("DELETE FROM object_catalog d WHERE d.key LIKE ? ESCAPE '\\' AND EXISTS ("
+                            + "SELECT 1 FROM object_catalog s WHERE s.key = ? || substr(d.key, ?) "
+                            + "AND (NOT s.folder OR s.marker) AND s.key <> ALL (?))",
+                    destinationPattern, sourcePrefix, destinationPrefix.length() + 1, failedKeys);
+            jdbcTemplate.update("UPDATE object_catalog SET key = ? || substr(key, ?), "
+                            + "parent_prefix = CASE WHEN key = ? THEN ? ELSE ? || substr(parent_prefix, ?) END, "
+                            + "seen_at = now() "
+                            + "WHERE key LIKE ? ESCAPE '\\' AND (NOT folder OR marker) AND key <> ALL (?)",
+                    destinationPrefix, sourcePrefix.length() + 1,
+                    sourcePrefix, parent(destinationPrefix), destinationPrefix, sourcePrefix.length() + 1,
+                    sourcePattern, failedKeys);
+
+            rebuild(sourcePrefix);
+            rebuild(destinationPrefix);
+            ensureFolders(folders(destinationPrefix), Timestamp.from(Instant.now()));
+            refreshAncestors(sourcePrefix);
+            refreshAncestors(destinationPrefix);
+        });
+    }
+
+    /**
+     * The database clock, used as the start of a reconcile; rows written from then on count as seen.
+     */
+    Timestamp startReconcile() {
+        return jdbcTemplate.queryForObject("SELECT localtimestamp", Timestamp.class);
+    }
+
+    void recordSeen(List<StorageBackend.ObjectInfo> objects, Timestamp runStart) {
+        List<Object[]> files = new ArrayList<>();
+        List<Object[]> markers = new ArrayList<>();
+        for (StorageBackend.ObjectInfo object : objects) {
+            Timestamp modified = Timestamp.from(object.lastModified());
+            if (object.key().endsWith("/")) {
+                markers.add(new Object[] {object.key(), parent(object.key()), modified, runStart});
+            } else {
+                files.add(new Object[] {object.key(), parent(object.key()), object.size(), object.eTag(), modified, runStart});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO object_catalog (key, parent_prefix, folder, size, etag, modified_at, seen_at) "
+                + "VALUES (?, ?, FALSE, ?, ?, ?, ?) ON CONFLICT (key) DO UPDATE SET size = EXCLUDED.size, "
+                + "etag = EXCLUDED.etag, modified_at = EXCLUDED.modified_at, seen_at = EXCLUDED.seen_at", files);
+        jdbcTemplate.batchUpdate("INSERT INTO object_catalog (key, parent_prefix, folder, marker, modified_at, seen_at) "
+                + "VALUES (?, ?, TRUE, TRUE, ?, ?) ON CONFLICT (key) DO UPDATE SET marker = TRUE, "
+                + "seen_at = EXCLUDED.seen_at", markers);
+    }
+
+    /**
+     * Drops what the reconcile walk did not find and rebuilds all folder rows, one top-level folder
+     * per transaction, so no transaction holds the folder rows of the whole bucket.
+     */
+    void finishReconcile(Timestamp runStart) {
+        Integer removed = transactionTemplate.execute(status -> {
+            jdbcTemplate.update("UPDATE object_catalog SET marker = FALSE "
+                    + "WHERE marker AND (seen_at IS NULL OR seen_at < ?)", runStart);
+            return jdbcTemplate.update(
+                    "DELETE FROM object_catalog WHERE NOT folder AND (seen_at IS NULL OR seen_at < ?)", runStart);
+        });
+        if (removed != null && removed > 0) {
+            log.info("Removed {} catalog entries no longer in the bucket", removed);
+        }
+
+        for (String folder = nextTopLevelFolder(""); folder != null; folder = nextTopLevelFolder(folder)) {
+            String prefix = folder;
+            transactionTemplate.executeWithoutResult(status -> rebuild(prefix));
+        }
+        jdbcTemplate.update("INSERT INTO object_catalog_state (id, reconciled_at) VALUES (1, ?) "
+                + "ON CONFLICT (id) DO UPDATE SET reconciled_at = EXCLUDED.reconciled_at", runStart);
+        ready = true;
+    }
+
+    /**
+     * The first top-level folder after {@code previous} that has a row or keys below it. Keys of
+     * {@code previous} are skipped with one index seek: '0' follows '/' in the "C" collation.
+     */
+    private String nextTopLevelFolder(String previous) {
+        String from = previous.isEmpty() ? "" : previous.substring(0, previous.length() - 1) + "0";
+        return jdbcTemplate.queryForList("SELECT key FROM object_catalog WHERE key >= ? AND strpos(key, '/') > 0 "
+                        + "ORDER BY key LIMIT 1", String.class, from)
+                .stream()
+                .findFirst()
+                .map(key -> key.substring(0, key.indexOf('/') + 1))
+                .orElse(null);
+    }
+
+    private void record(StorageBackend.ObjectInfo info) {
+        String key = info.key();
+        Timestamp modified = Timestamp.from(info.lastModified());
+        if (key.endsWith("/")) {
+            List<String> folders = new ArrayList<>(folders(key));
+            folders.add(key);
+            ensureFolders(folders, modified);
+            jdbcTemplate.update("UPDATE object_catalog SET marker = TRUE, seen_at = now() WHERE key = ?", key);
+            return;
+        }
+
+        List<Long> previous = jdbcTemplate.queryForList(
+                "SELECT size FROM object_catalog WHERE key = ? FOR UPDATE", Long.class, key);
+        jdbcTemplate.update("INSERT INTO object_catalog "
+                        + "(key, parent_prefix, folder, size, etag, content_type, modified_at, seen_at) "
+                        + "VALUES (?, ?, FALSE, ?, ?, ?, ?, now()) ON CONFLICT (key) DO UPDATE SET size = EXCLUDED.size, "
+                        + "etag = EXCLUDED.etag, content_type = EXCLUDED.content_type, "
+                        + "modified_at = EXCLUDED.modified_at, seen_at = EXCLUDED.seen_at",
+                key, parent(key), info.size(), info.eTag(), info.contentType(), modified);
+        ensureFolders(folders(key), modified);
+        adjust(key, info.size() - (previous.isEmpty() ? 0 : previous.get(0)), modified);
+    }
+
+    private void ensureFolders(List<String> folders, Timestamp modified) {
+        if (folders.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO object_catalog (key, parent_prefix, folder, modified_at, seen_at) "
+                        + "SELECT f.key, f.parent, TRUE, ?, now() FROM unnest(?::text[], ?::text[]) AS f (key, parent) "
+                        + "ON CONFLICT (key) DO NOTHING",
+                modified, folders.toArray(String[]::new), folders.stream().map(ObjectCatalog::parent).toArray(String[]::new));
+    }
+
+    private void adjust(String key, long delta, Timestamp modified) {
+        jdbcTemplate.update("INSERT INTO object_catalog_deltas (key, delta, modified_at) VALUES (?, ?, ?)",
+                key, delta, modified);
+    }
+
+    /**
+     * Applies the oldest {@code batchSize} deltas to the folder rows along their keys, in key order,
+     * and prunes the folders they emptied. Returns the number of deltas applied; 0 as well when
+     * another instance is applying deltas at the moment.
+     */
+    int applyDeltas(int batchSize) {
+        Integer applied = transactionTemplate.execute(status -> {
+            if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT pg_try_advisory_xact_lock(hashtext('object_catalog_deltas'))", Boolean.class))) {
+                return 0;
+            }
+            Map<String, Long> sizes = new TreeMap<>();
+            Map<String, Timestamp> modified = new TreeMap<>();
+            int count = jdbcTemplate.query("DELETE FROM object_catalog_deltas WHERE id IN "
+                            + "(SELECT id FROM object_catalog_deltas ORDER BY id LIMIT ?) RETURNING key, delta, modified_at",
+                    rs -> {
+                        int rows = 0;
+                        while (rs.next()) {
+                            rows++;
+                            long delta = rs.getLong("delta");
+                            Timestamp at = rs.getTimestamp("modified_at");
+                            for (String folder : folders(rs.getString("key"))) {
+                                sizes.merge(folder, delta, Long::sum);
+                                modified.merge(folder, at, (a, b) -> a.after(b) ? a : b);
+                            }
+                        }
+                        return rows;
+                    },
+                    batchSize);
+            if (sizes.isEmpty()) {
+                return count;
+            }
+
+            jdbcTemplate.batchUpdate("UPDATE object_catalog SET size = size + ?, modified_at = greatest(modified_at, ?) "
+                            + "WHERE key = ?",
+                    sizes.keySet().stream().map(folder -> new Object[] {sizes.get(folder), modified.get(folder), folder}).toList());
+            List<String> deepestFirst = new ArrayList<>(sizes.keySet());
+            Collections.reverse(deepestFirst);
+            deepestFirst.forEach(this::pruneFolder);
+            return count;
+        });
+        return applied == null ? 0 : applied;
+    }
+
+    /**
+     * Deletes folder rows, deepest first, until one still has children or is a marker. A folder
+     * whose size has not come down to 0 yet still has deltas pending and is left to
+     * {@link #applyDeltas}.
+     */
+    private void prune(List<String> folders) {
+        List<String> deepestFirst = new ArrayList<>(folders);
+        Collections.reverse(deepestFirst);
+        for (String folder : deepestFirst) {
+            if (!pruneFolder(folder)) {
+                return;
+            }
+        }
+    }
+
+    private boolean pruneFolder(String folder) {
+        return jdbcTemplate.update("DELETE FROM object_catalog f WHERE f.key = ? AND f.folder AND NOT f.marker "
+                + "AND f.size = 0 AND NOT EXISTS (SELECT 1 FROM object_catalog c WHERE c.parent_prefix = f.key)", folder) > 0;
+    }
+
+    /**
+     * Recomputes every folder row at or below {@code prefix} from the objects under it; pending
+     * deltas of keys under it are already counted by that and are dropped.
+     */
+    private void rebuild(String prefix) {
+        String pattern = FileOperationLogSpecifications.escapeLike(prefix) + "%";
+        jdbcTemplate.update("DELETE FROM object_catalog_deltas WHERE key LIKE ? ESCAPE '\\'", pattern);
+        jdbcTemplate.update("DELETE FROM object_catalog WHERE key LIKE ? ESCAPE '\\' AND folder AND NOT marker", pattern);
+        jdbcTemplate.update("UPDATE object_catalog SET size = 0 WHERE key LIKE ? ESCAPE '\\' AND folder", pattern);
+        jdbcTemplate.update("INSERT INTO object_catalog (key, parent_prefix, folder, size, modified_at, seen_at) "
+                        + "SELECT left(o.key, s.i), regexp_replace(left(o.key, s.i), '[^/]*/$', ''), TRUE, "
+                        + "sum(o.size), max(o.modified_at), now() "
+                        + "FROM object_catalog o CROSS JOIN LATERAL generate_series(?, length(o.key)) AS s (i) "
+                        + "WHERE o.key LIKE ? ESCAPE '\\' AND (NOT o.folder OR o.marker) AND substr(o.key, s.i, 1) = '/' "
+                        + "GROUP BY left(o.key, s.i) "
+                        + "ON CONFLICT (key) DO UPDATE SET size = EXCLUDED.size, "
+                        + "modified_at = greatest(object_catalog.modified_at, EXCLUDED.modified_at)",
+                Math.max(prefix.length(), 1), pattern);
+    }
+
+    /**
+     * Recomputes the folders above {@code prefix} from their direct children, deepest first.
+     */
+    private void refreshAncestors(String prefix) {
+        List<String> ancestors = new ArrayList<>(folders(prefix));
+        Collections.reverse(ancestors);
+        for (String folder : ancestors) {
+            jdbcTemplate.update("UPDATE object_catalog f SET size = c.size, modified_at = coalesce(c.modified_at, f.modified_at) "
+                    + "FROM (SELECT coalesce(sum(size), 0) AS size, max(modified_at) AS modified_at "
+                    + "FROM object_catalog WHERE parent_prefix = ?) c WHERE f.key = ?", folder, folder);
+            jdbcTemplate.update("DELETE FROM object_catalog f WHERE f.key = ? AND NOT f.marker "
+                    + "AND NOT EXISTS (SELECT 1 FROM object_catalog c WHERE c.parent_prefix = f.key)", folder);
+        }
+    }
+
+    /**
+     * The folder prefixes strictly above {@code key}, outermost first; the root is not included.
+     */
+    private static List<String> folders(String key) {
+        List<String> folders = new ArrayList<>();
+        int end = key.endsWith("/") ? key.length() - 1 : key.length();
+        for (int i = key.indexOf('/'); i >= 0 && i < end; i = key.indexOf('/', i + 1)) {
+            folders.add(key.substring(0, i + 1));
+        }
+        return folders;
+    }
+
+    private static String parent(String key) {
+        int end = key.endsWith("/") ? key.length() - 1 : key.length();
+        return key.substring(0, key.lastIndexOf('/', end - 1) + 1);
+    }
+
+    private static StorageBackend.ObjectInfo mapInfo(ResultSet rs) throws SQLException {
+        return new StorageBackend.ObjectInfo(rs.getString("key"), rs.getLong("size"), rs.getString("etag"),
+                rs.getTimestamp("modified_at").toInstant());
+    }
+}
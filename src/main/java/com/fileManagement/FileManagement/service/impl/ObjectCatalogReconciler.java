@@ -0,0 +1,70 @@
+package com.fileManagement.FileManagement.service.impl;
+
+import java.sql.Timestamp;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.fileManagement.FileManagement.service.StorageBackend;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Brings the object catalog in line with the bucket: walks every key once, upserting what it finds,
+ * then drops entries that were neither found nor written meanwhile and rebuilds the folder rows.
+ * This picks up changes made outside the application and repairs drift from failed catalog updates.
+ * Runs are idempotent, so overlapping runs from several instances only cost time.
+ *
+ * <p>Also applies the folder size deltas of single-object writes every
+ * {@code storage.catalog.aggregateInterval}.
+ */
+@Component
+@ConditionalOnExpression(ObjectCatalog.ENABLED)
+@Slf4j
+public class ObjectCatalogReconciler {
+
+    private static final int DELTA_BATCH_SIZE = 1000;
+
+    private final ObjectCatalog objectCatalog;
+    private final StorageBackend physical;
+
+    public ObjectCatalogReconciler(ObjectCatalog objectCatalog, @Qualifier(StorageBackend.PHYSICAL) StorageBackend physical) {
+        this.objectCatalog = objectCatalog;
+        this.physical = physical;
+    }
+
+    @Scheduled(fixedDelayString = "${storage.catalog.aggregateInterval:PT5S}")
+    public void applyDeltas() {
+        try {
+            while (objectCatalog.applyDeltas(DELTA_BATCH_SIZE) == DELTA_BATCH_SIZE) {
+                // more pending
+            }
+        } catch (RuntimeException e) {
+            log.error("Applying object catalog deltas failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${storage.catalog.reconcileInitialDelay:PT30S}",
+            fixedDelayString = "${storage.catalog.reconcileInterval:PT6H}")
+    public void reconcile() {
+        try {
+            long started = System.currentTimeMillis();
+            Timestamp runStart = objectCatalog.startReconcile();
+            long keys = 0;
+            String cursor = null;
+            do {
+                StorageBackend.ListingPage page = physical.listAfter("", cursor, StorageBackend.MAX_KEYS);
+                objectCatalog.recordSeen(page.objects(), runStart);
+                keys += page.objects().size();
+                cursor = page.nextCursor();
+            } while (cursor != null);
+
+            objectCatalog.finishReconcile(runStart);
+            log.info("Reconciled object catalog: {} keys in {} ms", keys, System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            log.error("Object catalog reconcile failed: {}", e.getMessage());
+        }
+    }
+}
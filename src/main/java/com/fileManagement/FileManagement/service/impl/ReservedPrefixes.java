@@ -0,0 +1,52 @@
+package com.fileManagement.FileManagement.service.impl;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fileManagement.FileManagement.exceptions.InvalidRequestException;
+
+/**
+ * Key prefixes the application keeps for itself: the dedup blob store and the namespace object
+ * store. Paths coming from requests may not point into them, and keys under them are left out of
+ * listings, the hierarchy and ZIP exports.
+ */
+@Component
+public class ReservedPrefixes {
+
+    private final List<String> prefixes;
+
+    public ReservedPrefixes(
+            @Value("${storage.dedup.blobPrefix:.blobs/}") String blobPrefix,
+            @Value("${storage.namespace.objectPrefix:.objects/}") String objectPrefix) {
+        this.prefixes = List.of(blobPrefix, objectPrefix);
+    }
+
+    public boolean isReserved(String path) {
+        if (path == null) {
+            return false;
+        }
+        String key = path;
+        while (key.startsWith("/")) {
+            key = key.substring(1);
+        }
+        // A folder path may be given without its trailing '/'
+        String folderKey = key.endsWith("/") ? key : key + "/";
+        for (String prefix : prefixes) {
+            if (key.startsWith(prefix) || folderKey.equals(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Rejects a path from a request that points into a reserved prefix.
+     */
+    public void check(String path) {
+        if (isReserved(path)) {
+            throw new InvalidRequestException("Path is reserved: " + path);
+        }
+    }
+}
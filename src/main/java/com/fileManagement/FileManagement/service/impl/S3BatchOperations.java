@@ -0,0 +1,426 @@
+package com.fileManagement.FileManagement.service.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.fileManagement.FileManagement.exceptions.FileStorageException;
+import com.fileManagement.FileManagement.exceptions.InvalidRequestException;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Error;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.model.UploadPartCopyRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartCopyResponse;
+
+/**
+ * Runs independent S3 requests (listings, copies, deletes) concurrently on a shared pool whose
+ * size bounds how many such requests the whole application has in flight. Tasks submitted here
+ * must not wait on other tasks of the same pool.
+ */
+@Component
+@Slf4j
+public class S3BatchOperations {
+
+    private static final int DELETE_BATCH_SIZE = 1000;
+
+    private final S3Client s3Client;
+    private final String bucketName;
+    private final int parallelism;
+    private final long copyThreshold;
+    private final long copyPartSize;
+    private final ExecutorService executor;
+    // Separate pool for UploadPartCopy parts, since a copy task on the main pool waits for its parts
+    private final ExecutorService partExecutor;
+
+    public S3BatchOperations(
+            S3Client s3Client,
+            @Value("${aws.s3.bucketName}") String bucketName,
+            @Value("${aws.s3.operations.parallelism:16}") int parallelism,
+            @Value("${aws.s3.multipart.copyThreshold:1GB}") DataSize copyThreshold,
+            @Value("${aws.s3.multipart.copyPartSize:256MB}") DataSize copyPartSize) {
+        this.s3Client = s3Client;
+        this.bucketName = bucketName;
+        this.parallelism = parallelism;
+        this.copyThreshold = copyThreshold.toBytes();
+        this.copyPartSize = copyPartSize.toBytes();
+        this.executor = newPool(parallelism, "s3-ops-");
+        this.partExecutor = newPool(parallelism, "s3-copy-part-");
+    }
+
+    private static ExecutorService newPool(int size, String threadNamePrefix) {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(size, size, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory(threadNamePrefix));
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    public <T> Future<T> submit(Callable<T> task) {
+        return executor.submit(task);
+    }
+
+    /**
+     * Copies one object that is too large for a single CopyObject in UploadPartCopy parts. Runs on
+     * this pool; the parts go to the part pool, so the task never waits on its own pool.
+     */
+    public CompletableFuture<Void> multipartCopyAsync(String sourceKey, String destinationKey) {
+        return CompletableFuture.runAsync(() -> {
+            long size = s3Client.headObject(HeadObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(sourceKey)
+                    .build()).contentLength();
+            multipartCopy(sourceKey, destinationKey, size);
+        }, executor);
+    }
+
+    /**
+     * Runs all tasks and returns their results in submission order. The first failure is rethrown
+     * once every task has finished.
+     */
+    public <T> List<T> invokeAll(List<? extends Callable<T>> tasks) {
+        try {
+            List<Future<T>> futures = executor.invokeAll(tasks);
+            List<T> results = new ArrayList<>(futures.size());
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new FileStorageException(e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FileStorageException("Interrupted while waiting for S3 operations", e);
+        }
+    }
+
+    /**
+     * Moves every object under {@code sourcePrefix} to the same relative key under
+     * {@code destinationPrefix}. All objects are copied first; sources are only deleted (in batches)
+     * once every copy has succeeded. If any copy fails, the copies already made are removed and the
+     * source is left untouched. Returns the keys that could not be moved, mapped to the reason.
+     */
+    public Map<String, String> movePrefix(String sourcePrefix, String destinationPrefix) {
+        if (destinationPrefix.startsWith(sourcePrefix)) {
+            throw new InvalidRequestException("Cannot move a folder into itself");
+        }
+
+        CopyResult copyResult = copyPrefix(sourcePrefix, destinationPrefix);
+
+        if (!copyResult.failures().isEmpty()) {
+            Map<String, String> rollbackFailures = deleteKeys(copyResult.copiedDestinationKeys());
+            if (!rollbackFailures.isEmpty()) {
+                log.error("Failed to remove {} partial copies under {}", rollbackFailures.size(), destinationPrefix);
+            }
+            return copyResult.failures();
+        }
+
+        return deleteKeys(copyResult.copiedSourceKeys());
+    }
+
+    /**
+     * Copies every object under {@code sourcePrefix} to the same relative key under
+     * {@code destinationPrefix}, with at most {@code 2 * parallelism} copies in flight. Stops
+     * submitting new copies after the first failure.
+     */
+    public CopyResult copyPrefix(String sourcePrefix, String destinationPrefix) {
+        ListObjectsV2Request listRequest = ListObjectsV2Request.builder()
+                .bucket(bucketName)
+                .prefix(sourcePrefix)
+                .build();
+
+        CopyResult result = new CopyResult(new ArrayList<>(), new ArrayList<>(), new LinkedHashMap<>());
+        Deque<Future<CopyItem>> inFlight = new ArrayDeque<>();
+
+        try {
+            for (ListObjectsV2Response page : s3Client.listObjectsV2Paginator(listRequest)) {
+                for (S3Object s3Object : page.contents()) {
+                    if (!result.failures().isEmpty()) {
+                        return result;
+                    }
+                    if (inFlight.size() >= parallelism * 2) {
+                        result.add(await(inFlight.removeFirst()));
+                    }
+                    String destinationKey = destinationPrefix + s3Object.key().substring(sourcePrefix.length());
+                    inFlight.addLast(executor.submit(() -> copy(s3Object.key(), destinationKey, s3Object.size())));
+                }
+            }
+        } finally {
+            while (!inFlight.isEmpty()) {
+                result.add(await(inFlight.removeFirst()));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Copies each source key to its destination key concurrently, without deleting anything.
+     * Returns the source keys whose copy failed, mapped to the reason.
+     */
+    public Map<String, String> copyKeys(Map<String, String> destinationsBySource) {
+        List<Callable<CopyItem>> copies = new ArrayList<>();
+        destinationsBySource.forEach((sourceKey, destinationKey) ->
+                copies.add(() -> copy(sourceKey, destinationKey, -1)));
+
+        Map<String, String> failures = new LinkedHashMap<>();
+        for (CopyItem item : invokeAll(copies)) {
+            if (item.error() != null) {
+                failures.put(item.sourceKey(), item.error());
+            }
+        }
+        return failures;
+    }
+
+    private CopyItem copy(String sourceKey, String destinationKey, long size) {
+        try {
+            if (size > copyThreshold) {
+                multipartCopy(sourceKey, destinationKey, size);
+            } else {
+                try {
+                    s3Client.copyObject(CopyObjectRequest.builder()
+                            .sourceBucket(bucketName)
+                            .sourceKey(sourceKey)
+                            .destinationBucket(bucketName)
+                            .destinationKey(destinationKey)
+                            .build());
+                } catch (S3Exception e) {
+                    // Size unknown up front: CopyObject rejects sources over 5 GB, so fall back to parts
+                    if (size >= 0 || !"InvalidRequest".equals(e.awsErrorDetails().errorCode())) {
+                        throw e;
+                    }
+                    long actualSize = s3Client.headObject(HeadObjectRequest.builder()
+                            .bucket(bucketName)
+                            .key(sourceKey)
+                            .build()).contentLength();
+                    multipartCopy(sourceKey, destinationKey, actualSize);
+                }
+            }
+            return new CopyItem(sourceKey, destinationKey, null);
+        } catch (SdkException | FileStorageException e) {
+            log.error("Failed to copy {} to {}: {}", sourceKey, destinationKey, e.getMessage());
+            return new CopyItem(sourceKey, destinationKey, e.getMessage());
+        }
+    }
+
+    /**
+     * Server-side copy in UploadPartCopy ranges, for objects too large for a single CopyObject
+     * (over 5 GB) or large enough that parallel parts finish sooner. Content type and user metadata
+     * are carried over explicitly since a multipart upload does not inherit them.
+     */
+    private void multipartCopy(String sourceKey, String destinationKey, long size) {
+        HeadObjectResponse source = s3Client.headObject(HeadObjectRequest.builder()
+                .bucket(bucketName)
+                .key(sourceKey)
+                .build());
+
+        // The copy is cut into different parts, so the upload part size no longer describes it
+        Map<String, String> metadata = new HashMap<>(source.metadata());
+        metadata.remove(Checksums.PART_SIZE_METADATA);
+
+        String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(destinationKey)
+                .contentType(source.contentType())
+                .metadata(metadata)
+                .build()).uploadId();
+
+        try {
+            List<Callable<CompletedPart>> parts = new ArrayList<>();
+            int partNumber = 1;
+            for (long start = 0; start < size; start += copyPartSize, partNumber++) {
+                long end = Math.min(start + copyPartSize, size) - 1;
+                int number = partNumber;
+                String range = "bytes=" + start + "-" + end;
+
+                parts.add(() -> {
+                    UploadPartCopyResponse partResponse = s3Client.uploadPartCopy(UploadPartCopyRequest.builder()
+                            .sourceBucket(bucketName)
+                            .sourceKey(sourceKey)
+                            .copySourceIfMatch(source.eTag())
+                            .destinationBucket(bucketName)
+                            .destinationKey(destinationKey)
+                            .uploadId(uploadId)
+                            .partNumber(number)
+                            .copySourceRange(range)
+                            .build());
+                    return CompletedPart.builder().partNumber(number).eTag(partResponse.copyPartResult().eTag()).build();
+                });
+            }
+
+            List<CompletedPart> completedParts = new ArrayList<>();
+            for (Future<CompletedPart> part : partExecutor.invokeAll(parts)) {
+                completedParts.add(await(part));
+            }
+
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(destinationKey)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                    .build());
+        } catch (RuntimeException | InterruptedException e) {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(destinationKey)
+                    .uploadId(uploadId)
+                    .build());
+
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+                throw new FileStorageException("Interrupted while copying " + sourceKey, e);
+            }
+            throw (RuntimeException) e;
+        }
+    }
+
+    /**
+     * Deletes every object under the prefix. Keys are listed page by page and each page goes out as
+     * one DeleteObjects call while listing continues, with at most {@code parallelism} batches in
+     * flight. Returns the keys S3 refused to delete, mapped to the reason. The empty prefix (the
+     * whole bucket) is refused.
+     */
+    public Map<String, String> deletePrefix(String prefix) {
+        if (prefix == null || prefix.isEmpty()) {
+            throw new IllegalArgumentException("Refusing to delete every object in the bucket");
+        }
+
+        ListObjectsV2Request listRequest = ListObjectsV2Request.builder()
+                .bucket(bucketName)
+                .prefix(prefix)
+                .build();
+
+        Map<String, String> failures = new LinkedHashMap<>();
+        Deque<Future<Map<String, String>>> inFlight = new ArrayDeque<>();
+
+        try {
+            for (ListObjectsV2Response page : s3Client.listObjectsV2Paginator(listRequest)) {
+                List<String> keys = page.contents().stream().map(S3Object::key).toList();
+                if (keys.isEmpty()) {
+                    continue;
+                }
+                if (inFlight.size() >= parallelism) {
+                    failures.putAll(await(inFlight.removeFirst()));
+                }
+                inFlight.addLast(executor.submit(() -> deleteBatch(keys)));
+            }
+        } finally {
+            while (!inFlight.isEmpty()) {
+                failures.putAll(await(inFlight.removeFirst()));
+            }
+        }
+
+        return failures;
+    }
+
+    /**
+     * Deletes the given keys in DeleteObjects batches of up to 1000 keys, run concurrently. Returns
+     * the keys S3 refused to delete, mapped to the reason.
+     */
+    public Map<String, String> deleteKeys(List<String> keys) {
+        List<Callable<Map<String, String>>> batches = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i += DELETE_BATCH_SIZE) {
+            List<String> batch = keys.subList(i, Math.min(i + DELETE_BATCH_SIZE, keys.size()));
+            batches.add(() -> deleteBatch(batch));
+        }
+
+        Map<String, String> failures = new LinkedHashMap<>();
+        invokeAll(batches).forEach(failures::putAll);
+        return failures;
+    }
+
+    private Map<String, String> deleteBatch(List<String> keys) {
+        List<ObjectIdentifier> objects = keys.stream()
+                .map(key -> ObjectIdentifier.builder().key(key).build())
+                .toList();
+
+        DeleteObjectsRequest deleteRequest = DeleteObjectsRequest.builder()
+                .bucket(bucketName)
+                .delete(Delete.builder().objects(objects).quiet(true).build())
+                .build();
+
+        Map<String, String> failures = new LinkedHashMap<>();
+        try {
+            DeleteObjectsResponse deleteResponse = s3Client.deleteObjects(deleteRequest);
+            for (S3Error error : deleteResponse.errors()) {
+                failures.put(error.key(), error.code() + ": " + error.message());
+            }
+        } catch (S3Exception e) {
+            log.error("DeleteObjects batch of {} keys failed: {}", keys.size(), e.getMessage());
+            keys.forEach(key -> failures.put(key, e.getMessage()));
+        }
+        return failures;
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new FileStorageException(e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FileStorageException("Interrupted while waiting for S3 operations", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        partExecutor.shutdown();
+    }
+
+    public record CopyResult(List<String> copiedSourceKeys, List<String> copiedDestinationKeys, Map<String, String> failures) {
+
+        private void add(CopyItem item) {
+            if (item.error() == null) {
+                copiedSourceKeys.add(item.sourceKey());
+                copiedDestinationKeys.add(item.destinationKey());
+            } else {
+                failures.put(item.sourceKey(), item.error());
+            }
+        }
+    }
+
+    private record CopyItem(String sourceKey, String destinationKey, String error) {
+    }
+}
@@ -0,0 +1,307 @@
+package com.fileManagement.FileManagement.service.impl;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.fileManagement.FileManagement.exceptions.FileStorageException;
+import com.fileManagement.FileManagement.exceptions.ObjectChangedException;
+import com.fileManagement.FileManagement.service.MultipartUploadService;
+import com.fileManagement.FileManagement.service.StorageBackend;
+import com.fileManagement.FileManagement.service.StoredObject;
+
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.ChecksumMode;
+import software.amazon.awssdk.services.s3.model.CommonPrefix;
+import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+/**
+ * The S3 bucket {@code aws.s3.bucketName} as storage backend. Uploads go through the multipart
+ * upload engine and bulk copies/deletes through S3BatchOperations; the listing cursor is the S3
+ * continuation token. SDK exceptions are translated to FileStorageException with the same message.
+ *
+ * <p>The async operations go through the Netty-based S3AsyncClient, so a request in flight holds a
+ * pooled connection but no thread.
+ */
+@Component
+@Qualifier(StorageBackend.PHYSICAL)
+@ConditionalOnProperty(name = "storage.backend", havingValue = "s3", matchIfMissing = true)
+public class S3StorageBackend implements StorageBackend {
+
+    private final S3Client s3Client;
+    private final S3AsyncClient s3AsyncClient;
+    private final MultipartUploadService multipartUploadService;
+    private final S3BatchOperations s3BatchOperations;
+    private final String bucketName;
+
+    public S3StorageBackend(
+            S3Client s3Client,
+            S3AsyncClient s3AsyncClient,
+            MultipartUploadService multipartUploadService,
+            S3BatchOperations s3BatchOperations,
+            @Value("${aws.s3.bucketName}") String bucketName) {
+        this.s3Client = s3Client;
+        this.s3AsyncClient = s3AsyncClient;
+        this.multipartUploadService = multipartUploadService;
+        this.s3BatchOperations = s3BatchOperations;
+        this.bucketName = bucketName;
+    }
+
+    @Override
+    public MultipartUploadService.UploadResult put(String key, String contentType, InputStream content) {
+        try {
+            return multipartUploadService.upload(key, contentType, content);
+        } catch (SdkException e) {
+            throw translate(e);
+        }
+    }
+
+    @Override
+    public void putEmpty(String key, String contentType, Map<String, String> metadata) {
+        try {
+            s3Client.putObject(PutObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .contentType(contentType)
+                    .metadata(metadata)
+                    .build(), RequestBody.empty());
+        } catch (SdkException e) {
+            throw translate(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> putEmptyAsync(String key, String contentType, Map<String, String> metadata) {
+        return translated(s3AsyncClient.putObject(PutObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .contentType(contentType)
+                        .metadata(metadata)
+                        .build(), AsyncRequestBody.empty())
+                .thenApply(response -> null));
+    }
+
+    @Override
+    public StoredObject get(String key, String range, String ifMatch, boolean withChecksums) {
+        try {
+            // Only the response headers have been read at this point; the body is pulled
+            // from the S3 connection as the caller consumes the stream.
+            ResponseInputStream<GetObjectResponse> objectStream = s3Client.getObject(GetObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .range(range)
+                    .ifMatch(ifMatch)
+                    .checksumMode(withChecksums ? ChecksumMode.ENABLED : null)
+                    .build());
+            GetObjectResponse response = objectStream.response();
+
+            ObjectInfo info = new ObjectInfo(key, response.contentLength(), response.eTag(), response.lastModified(),
+                    response.contentType(), response.metadata(), response.checksumSHA256(), response.checksumCRC32C());
+            return new StoredObject(info, objectStream, objectStream::abort);
+        } catch (S3Exception e) {
+            if (e.statusCode() == 412) {
+                throw new ObjectChangedException("Object changed: " + key, e);
+            }
+            throw translate(e);
+        } catch (SdkException e) {
+            throw translate(e);
+        }
+    }
+
+    @Override
+    public ObjectInfo head(String key) {
+        try {
+            return headInfo(key, s3Client.headObject(headRequest(key)));
+        } catch (SdkException e) {
+            throw translate(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<ObjectInfo> headAsync(String key) {
+        return translated(s3AsyncClient.headObject(headRequest(key)).thenApply(response -> headInfo(key, response)));
+    }
+
+    private HeadObjectRequest headRequest(String key) {
+        return HeadObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .checksumMode(ChecksumMode.ENABLED)
+                .build();
+    }
+
+    private ObjectInfo headInfo(String key, HeadObjectResponse response) {
+        return new ObjectInfo(key, response.contentLength(), response.eTag(), response.lastModified(),
+                response.contentType(), response.metadata(), response.checksumSHA256(), response.checksumCRC32C());
+    }
+
+    @Override
+    public ListingPage list(String prefix, String delimiter, String cursor, int maxKeys) {
+        try {
+            ListObjectsV2Response response = s3Client.listObjectsV2(listRequest(prefix, delimiter, cursor, maxKeys));
+            return toPage(response, response.nextContinuationToken());
+        } catch (SdkException e) {
+            throw translate(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<ListingPage> listAsync(String prefix, String delimiter, String cursor, int maxKeys) {
+        return translated(s3AsyncClient.listObjectsV2(listRequest(prefix, delimiter, cursor, maxKeys))
+                .thenApply(response -> toPage(response, response.nextContinuationToken())));
+    }
+
+    private ListObjectsV2Request listRequest(String prefix, String delimiter, String cursor, int maxKeys) {
+        return ListObjectsV2Request.builder()
+                .bucket(bucketName)
+                .prefix(prefix)
+                .delimiter(delimiter)
+                .maxKeys(maxKeys)
+                .continuationToken(cursor)
+                .build();
+    }
+
+    @Override
+    public ListingPage listAfter(String prefix, String startAfter, int maxKeys) {
+        try {
+            ListObjectsV2Response response = s3Client.listObjectsV2(ListObjectsV2Request.builder()
+                    .bucket(bucketName)
+                    .prefix(prefix)
+                    .startAfter(startAfter)
+                    .maxKeys(maxKeys)
+                    .build());
+
+            String lastKey = response.contents().isEmpty() ? null : response.contents().get(response.contents().size() - 1).key();
+            return toPage(response, response.isTruncated() ? lastKey : null);
+        } catch (SdkException e) {
+            throw translate(e);
+        }
+    }
+
+    private ListingPage toPage(ListObjectsV2Response response, String nextCursor) {
+        List<ObjectInfo> objects = response.contents().stream()
+                .map(s3Object -> new ObjectInfo(s3Object.key(), s3Object.size(), s3Object.eTag(), s3Object.lastModified()))
+                .toList();
+        List<String> commonPrefixes = response.commonPrefixes().stream().map(CommonPrefix::prefix).toList();
+        return new ListingPage(objects, commonPrefixes, nextCursor);
+    }
+
+    @Override
+    public void copy(String sourceKey, String destinationKey) {
+        Map<String, String> failures = s3BatchOperations.copyKeys(Map.of(sourceKey, destinationKey));
+        if (!failures.isEmpty()) {
+            throw new FileStorageException(failures.get(sourceKey));
+        }
+    }
+
+    /**
+     * A single CopyObject; sources over 5 GB are rejected by it and are copied in parts on the
+     * S3BatchOperations pool instead.
+     */
+    @Override
+    public CompletableFuture<Void> copyAsync(String sourceKey, String destinationKey) {
+        CompletableFuture<Void> copied = s3AsyncClient.copyObject(CopyObjectRequest.builder()
+                        .sourceBucket(bucketName)
+                        .sourceKey(sourceKey)
+                        .destinationBucket(bucketName)
+                        .destinationKey(destinationKey)
+                        .build())
+                .thenApply(response -> null);
+        return translated(copied.exceptionallyCompose(e -> {
+            if (Futures.unwrap(e) instanceof S3Exception s3Exception
+                    && s3Exception.awsErrorDetails() != null
+                    && "InvalidRequest".equals(s3Exception.awsErrorDetails().errorCode())) {
+                return s3BatchOperations.multipartCopyAsync(sourceKey, destinationKey);
+            }
+            return CompletableFuture.failedFuture(Futures.unwrap(e));
+        }));
+    }
+
+    @Override
+    public void delete(String key) {
+        try {
+            s3Client.deleteObject(DeleteObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .build());
+        } catch (SdkException e) {
+            throw translate(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteAsync(String key) {
+        return translated(s3AsyncClient.deleteObject(DeleteObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .build())
+                .thenApply(response -> null));
+    }
+
+    @Override
+    public Map<String, String> copyAll(Map<String, String> destinationsBySource) {
+        return s3BatchOperations.copyKeys(destinationsBySource);
+    }
+
+    @Override
+    public Map<String, String> deleteAll(List<String> keys) {
+        return s3BatchOperations.deleteKeys(keys);
+    }
+
+    @Override
+    public Map<String, String> deletePrefix(String prefix) {
+        try {
+            return s3BatchOperations.deletePrefix(prefix);
+        } catch (SdkException e) {
+            throw translate(e);
+        }
+    }
+
+    @Override
+    public Map<String, String> movePrefix(String sourcePrefix, String destinationPrefix) {
+        try {
+            return s3BatchOperations.movePrefix(sourcePrefix, destinationPrefix);
+        } catch (SdkException e) {
+            throw translate(e);
+        }
+    }
+
+    @Override
+    public boolean hasNativeFolders() {
+        return false;
+    }
+
+    private FileStorageException translate(SdkException e) {
+        return new FileStorageException(e.getMessage(), e);
+    }
+
+    private <T> CompletableFuture<T> translated(CompletableFuture<T> future) {
+        return future.handle((result, e) -> {
+            if (e == null) {
+                return result;
+            }
+            Throwable cause = Futures.unwrap(e);
+            throw cause instanceof SdkException sdkException ? translate(sdkException) : Futures.propagate(cause);
+        });
+    }
+}
@@ -0,0 +1,74 @@
+package com.fileManagement.FileManagement.service.impl;
+
+/**
+ * Key conventions shared by the services: keys never start with '/', folder keys end with '/',
+ * and the root folder is the empty prefix.
+ */
+final class StoragePaths {
+
+    private StoragePaths() {
+    }
+
+    static String normalizeFolderPath(String folderPath) {
+        if (folderPath == null || folderPath.isEmpty() || folderPath.equals("/")) {
+            return "";
+        }
+
+        String normalizedPath = folderPath.startsWith("/") ? folderPath.substring(1) : folderPath;
+        normalizedPath = normalizedPath.endsWith("/") ? normalizedPath : normalizedPath + "/";
+
+        return normalizedPath;
+    }
+
+    static String normalizeFilePath(String folderPath, String fileName) {
+        return normalizeFolderPath(folderPath) + fileName;
+    }
+
+    /**
+     * True when the path has a '.' or '..' segment. Object stores take such keys literally, but the
+     * local backend would resolve them, so requests may not use them.
+     */
+    static boolean hasDotSegment(String path) {
+        if (path == null) {
+            return false;
+        }
+        for (String segment : path.split("/")) {
+            if (segment.equals(".") || segment.equals("..")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static String getContentType(String fileName) {
+        String extension = "";
+        int i = fileName.lastIndexOf('.');
+        if (i > 0) {
+            extension = fileName.substring(i + 1).toLowerCase();
+        }
+
+        switch (extension) {
+            case "pdf":
+                return "application/pdf";
+            case "jpg":
+            case "jpeg":
+                return "image/jpeg";
+            case "png":
+                return "image/png";
+            case "gif":
+                return "image/gif";
+            case "xlsx":
+                return "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+            case "xls":
+                return "application/vnd.ms-excel";
+            case "docx":
+                return "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+            case "doc":
+                return "application/msword";
+            case "txt":
+                return "text/plain";
+            default:
+                return "application/octet-stream";
+        }
+    }
+}
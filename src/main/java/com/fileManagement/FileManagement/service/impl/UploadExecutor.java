@@ -0,0 +1,39 @@
+package com.fileManagement.FileManagement.service.impl;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pool for whole-file uploads started by batch uploads and archive imports. Each task holds its
+ * thread for as long as the client-supplied content takes to upload, so these tasks are kept off
+ * the S3 operations pool, where they would stall deletes, moves and listings.
+ */
+@Component
+public class UploadExecutor {
+
+    private final ThreadPoolExecutor executor;
+
+    public UploadExecutor(@Value("${upload.parallelism:16}") int parallelism) {
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("upload-"));
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public <T> Future<T> submit(Callable<T> task) {
+        return executor.submit(task);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,193 @@
+-- Runs before Hibernate (spring.sql.init.mode=always) so these tables exist when ddl-auto=update inspects them.
+-- Statements are separated by @@ (spring.sql.init.separator) because the DO blocks contain semicolons.
+
+-- Hourly operation counts per user/operation/status, maintained by AuditLogWriter in the same
+-- transaction as the raw inserts so dashboards never have to scan file_operation_logs.
+CREATE TABLE IF NOT EXISTS file_operation_rollups_hourly (
+    bucket_start TIMESTAMP(6) NOT NULL,
+    username VARCHAR(255) NOT NULL,
+    operation VARCHAR(255) NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    op_count BIGINT NOT NULL,
+    PRIMARY KEY (bucket_start, username, operation, status)
+)
+@@
+
+CREATE SEQUENCE IF NOT EXISTS file_operation_logs_seq
+@@
+
+-- Audit rows are range-partitioned by month on timestamp; AuditPartitionMaintenance creates upcoming
+-- partitions and drops the ones past retention. A pre-existing unpartitioned table (as created by
+-- ddl-auto) is kept as the first partition, covering everything before the current month.
+DO $$
+DECLARE
+    existing CHAR;
+    cutover TIMESTAMP := date_trunc('month', now());
+BEGIN
+    SELECT c.relkind INTO existing
+    FROM pg_class c
+    WHERE c.relname = 'file_operation_logs' AND c.relnamespace = current_schema()::regnamespace;
+
+    IF existing = 'p' THEN
+        RETURN;
+    END IF;
+
+    IF existing = 'r' THEN
+        ALTER TABLE file_operation_logs RENAME TO file_operation_logs_legacy;
+        ALTER TABLE file_operation_logs_legacy ALTER COLUMN id DROP IDENTITY IF EXISTS;
+        ALTER TABLE file_operation_logs_legacy ALTER COLUMN id DROP DEFAULT;
+        ALTER TABLE file_operation_logs_legacy DROP CONSTRAINT IF EXISTS file_operation_logs_pkey;
+        ALTER INDEX IF EXISTS idx_file_operation_logs_user_time RENAME TO idx_file_operation_logs_legacy_user_time;
+        ALTER INDEX IF EXISTS idx_file_operation_logs_path_time RENAME TO idx_file_operation_logs_legacy_path_time;
+        PERFORM setval('file_operation_logs_seq', COALESCE((SELECT max(id) FROM file_operation_logs_legacy), 0) + 1, false);
+
+        INSERT INTO file_operation_rollups_hourly (bucket_start, username, operation, status, op_count)
+        SELECT date_trunc('hour', timestamp), username, operation, COALESCE(status, 'UNKNOWN'), count(*)
+        FROM file_operation_logs_legacy
+        GROUP BY 1, 2, 3, 4
+        ON CONFLICT (bucket_start, username, operation, status)
+            DO UPDATE SET op_count = file_operation_rollups_hourly.op_count + EXCLUDED.op_count;
+
+        -- Any row at or after the cutover belongs in a monthly partition instead
+        EXECUTE format('CREATE TEMPORARY TABLE file_operation_logs_recent ON COMMIT DROP AS '
+                || 'SELECT * FROM file_operation_logs_legacy WHERE timestamp >= %L', cutover);
+        DELETE FROM file_operation_logs_legacy WHERE timestamp >= cutover;
+    END IF;
+
+    CREATE TABLE file_operation_logs (
+        id BIGINT NOT NULL DEFAULT nextval('file_operation_logs_seq'),
+        username VARCHAR(255) NOT NULL,
+        operation VARCHAR(255) NOT NULL,
+        file_path VARCHAR(255) NOT NULL,
+        destination_path VARCHAR(255),
+        timestamp TIMESTAMP(6) NOT NULL,
+        status VARCHAR(255),
+        error_message VARCHAR(1000),
+        PRIMARY KEY (id, timestamp)
+    ) PARTITION BY RANGE (timestamp);
+    ALTER SEQUENCE file_operation_logs_seq OWNED BY file_operation_logs.id;
+
+    FOR i IN 0..2 LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF file_operation_logs FOR VALUES FROM (%L) TO (%L)',
+                'file_operation_logs_' || to_char(cutover + make_interval(months => i), 'YYYY_MM'),
+                cutover + make_interval(months => i),
+                cutover + make_interval(months => i + 1));
+    END LOOP;
+
+    IF existing = 'r' THEN
+        ALTER TABLE file_operation_logs_legacy ADD PRIMARY KEY (id, timestamp);
+        EXECUTE format('ALTER TABLE file_operation_logs ATTACH PARTITION file_operation_logs_legacy FOR VALUES FROM (MINVALUE) TO (%L)', cutover);
+        INSERT INTO file_operation_logs (id, username, operation, file_path, destination_path, timestamp, status, error_message)
+        SELECT id, username, operation, file_path, destination_path, timestamp, status, error_message
+        FROM file_operation_logs_recent;
+    END IF;
+END $$
+@@
+
+-- Catches rows outside every monthly partition (clock skew, maintenance not run) instead of failing
+-- their insert; AuditPartitionMaintenance moves them into their month's partition when it creates it
+CREATE TABLE IF NOT EXISTS file_operation_logs_default PARTITION OF file_operation_logs DEFAULT
+@@
+
+-- Per-user history, newest first, with (timestamp, id) as the keyset
+CREATE INDEX IF NOT EXISTS idx_file_operation_logs_user_time
+    ON file_operation_logs (username, timestamp DESC, id DESC)
+@@
+
+-- text_pattern_ops lets LIKE 'prefix%' use the index whatever the database collation is. Only an
+-- exact file_path reads rows back in (timestamp, id) order; prefix matches are sorted after the scan
+CREATE INDEX IF NOT EXISTS idx_file_operation_logs_path_time
+    ON file_operation_logs (file_path text_pattern_ops, timestamp DESC, id DESC)
+@@
+
+-- Content-addressed blobs for dedup mode (storage.dedup.enabled). Each blob is stored once under
+-- <blobPrefix><sha256>; ref_count is the number of logical paths mapped to it in content_blob_refs,
+-- and stored flips to true once the blob object has been written.
+CREATE TABLE IF NOT EXISTS content_blobs (
+    hash VARCHAR(64) PRIMARY KEY,
+    size BIGINT NOT NULL,
+    ref_count BIGINT NOT NULL,
+    stored BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMP(6) NOT NULL DEFAULT now()
+)
+@@
+
+-- Logical path -> blob; the object at the path itself is an empty pointer
+CREATE TABLE IF NOT EXISTS content_blob_refs (
+    path VARCHAR(1024) PRIMARY KEY,
+    hash VARCHAR(64) NOT NULL REFERENCES content_blobs (hash),
+    created_at TIMESTAMP(6) NOT NULL DEFAULT now()
+)
+@@
+
+CREATE INDEX IF NOT EXISTS idx_content_blob_refs_path_prefix
+    ON content_blob_refs (path text_pattern_ops)
+@@
+
+CREATE INDEX IF NOT EXISTS idx_content_blob_refs_hash
+    ON content_blob_refs (hash)
+@@
+
+-- Logical namespace mode (storage.namespace.enabled). Entries form a tree through parent_id, with
+-- the root folder as id 0; files point at an immutable physical object (NULL for an empty file).
+-- Folder names keep their trailing '/', so a file and a folder of the same name can coexist as in
+-- S3, and the "C" collation makes sibling order equal to key order.
+CREATE TABLE IF NOT EXISTS namespace_entries (
+    id BIGSERIAL PRIMARY KEY,
+    parent_id BIGINT REFERENCES namespace_entries (id) ON DELETE CASCADE,
+    name VARCHAR(1024) COLLATE "C" NOT NULL,
+    folder BOOLEAN NOT NULL,
+    physical_key VARCHAR(1024),
+    size BIGINT NOT NULL DEFAULT 0,
+    etag VARCHAR(64),
+    content_type VARCHAR(255),
+    metadata JSONB,
+    modified_at TIMESTAMP(6) NOT NULL DEFAULT now()
+)
+@@
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_namespace_entries_parent_name
+    ON namespace_entries (parent_id, name)
+@@
+
+INSERT INTO namespace_entries (id, parent_id, name, folder) VALUES (0, NULL, '', TRUE)
+    ON CONFLICT DO NOTHING
+@@
+
+-- Object catalog (storage.catalog.enabled): a mirror of the bucket's keys for listings. Every prefix
+-- with keys below it has a folder row, whose size is the total below it and modified_at the latest
+-- change; marker is set when the folder key also exists as an object. seen_at is when the key was
+-- last written by the application or found by the reconciler.
+CREATE TABLE IF NOT EXISTS object_catalog (
+    key VARCHAR(1024) COLLATE "C" PRIMARY KEY,
+    parent_prefix VARCHAR(1024) COLLATE "C" NOT NULL,
+    folder BOOLEAN NOT NULL,
+    marker BOOLEAN NOT NULL DEFAULT FALSE,
+    size BIGINT NOT NULL DEFAULT 0,
+    etag VARCHAR(256),
+    content_type VARCHAR(255),
+    modified_at TIMESTAMP(6) NOT NULL,
+    seen_at TIMESTAMP(6)
+)
+@@
+
+CREATE INDEX IF NOT EXISTS idx_object_catalog_parent
+    ON object_catalog (parent_prefix, key)
+@@
+
+-- Single row once the first reconcile has completed; listings use the catalog only from then on
+CREATE TABLE IF NOT EXISTS object_catalog_state (
+    id INT PRIMARY KEY,
+    reconciled_at TIMESTAMP(6) NOT NULL
+)
+@@
+
+-- Size changes of single-object writes, per object key; folder rows along the key's path take them
+-- up in batches, so concurrent writes below one folder do not queue on its row
+CREATE TABLE IF NOT EXISTS object_catalog_deltas (
+    id BIGSERIAL PRIMARY KEY,
+    key VARCHAR(1024) COLLATE "C" NOT NULL,
+    delta BIGINT NOT NULL,
+    modified_at TIMESTAMP(6) NOT NULL
+)
+@@
@@ -0,0 +1,221 @@
+package com.fileManagement.FileManagement.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fileManagement.FileManagement.dto.FileDto;
+import com.fileManagement.FileManagement.exceptions.ObjectChangedException;
+import com.fileManagement.FileManagement.service.BulkOperationService;
+import com.fileManagement.FileManagement.service.FileStorageService;
+import com.fileManagement.FileManagement.service.LoggingService;
+import com.fileManagement.FileManagement.service.StorageBackend;
+import com.fileManagement.FileManagement.service.StoredObject;
+
+class FileControllerRangeTest {
+
+    private static final String PATH = "docs/file.txt";
+    private static final String CONTENT = "0123456789";
+    private static final String ETAG = "\"etag\"";
+    private static final LocalDateTime LAST_MODIFIED = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    private final FileStorageService fileStorageService = mock(FileStorageService.class);
+    private final LoggingService loggingService = mock(LoggingService.class);
+    private final FileController controller = new FileController(fileStorageService, loggingService,
+            mock(BulkOperationService.class));
+
+    @Test
+    void servesASingleRange() throws IOException {
+        details(CONTENT.length());
+        range("bytes=2-5");
+
+        ResponseEntity<StreamingResponseBody> response = download("bytes=2-5", null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-5/10");
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(4);
+        assertThat(body(response)).isEqualTo("2345");
+    }
+
+    @Test
+    void resolvesSuffixAndOpenEndedRanges() {
+        details(CONTENT.length());
+        range("bytes=7-9");
+
+        assertThat(download("bytes=-3", null).getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 7-9/10");
+        assertThat(download("bytes=7-", null).getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 7-9/10");
+        assertThat(download("bytes=7-100", null).getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 7-9/10");
+    }
+
+    @Test
+    void rejectsUnsatisfiableRanges() {
+        details(CONTENT.length());
+
+        for (String header : new String[] { "bytes=10-", "bytes=5-2", "items=0-1", "bytes=abc" }) {
+            ResponseEntity<StreamingResponseBody> response = download(header, null);
+
+            assertThat(response.getStatusCode()).as(header).isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+            assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */10");
+        }
+        verify(fileStorageService, never()).downloadFileRange(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void noRangeOfAnEmptyObjectIsSatisfiable() {
+        details(0);
+
+        assertThat(download("bytes=-5", null).getStatusCode()).isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+    }
+
+    @Test
+    void servesSeveralRangesAsMultipart() throws IOException {
+        details(CONTENT.length());
+        range("bytes=0-1");
+        range("bytes=8-9");
+
+        ResponseEntity<StreamingResponseBody> response = download("bytes=0-1,8-9", null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(response.getHeaders().getContentType().toString()).startsWith("multipart/byteranges");
+        String body = body(response);
+        assertThat(body).contains("Content-Range: bytes 0-1/10\r\n\r\n01");
+        assertThat(body).contains("Content-Range: bytes 8-9/10\r\n\r\n89");
+    }
+
+    @Test
+    void ignoresRangeWhenIfRangeNoLongerMatches() {
+        details(CONTENT.length());
+        StoredObject whole = stored(CONTENT, 0, CONTENT.length());
+        when(fileStorageService.downloadFileStream(PATH, "anonymous", false)).thenReturn(whole);
+        when(fileStorageService.findCachedFile(PATH, "anonymous")).thenReturn(Optional.empty());
+
+        ResponseEntity<StreamingResponseBody> response = download("bytes=2-5", "\"other\"");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        verify(fileStorageService, never()).downloadFileRange(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void honoursRangeWhenIfRangeDateMatches() {
+        details(CONTENT.length());
+        range("bytes=2-5");
+        String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                ZonedDateTime.ofInstant(LAST_MODIFIED.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.of("GMT")));
+
+        assertThat(download("bytes=2-5", date).getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+    }
+
+    @Test
+    void retriesWithFreshDetailsWhenTheCachedETagIsStale() throws IOException {
+        when(fileStorageService.getFileDetails(PATH)).thenReturn(details(CONTENT.length(), "\"stale\""),
+                details(CONTENT.length(), ETAG));
+        when(fileStorageService.downloadFileRange(PATH, "bytes=2-5", "\"stale\""))
+                .thenThrow(new ObjectChangedException("Object changed: " + PATH));
+        range("bytes=2-5");
+
+        ResponseEntity<StreamingResponseBody> response = download("bytes=2-5", null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PARTIAL_CONTENT);
+        assertThat(response.getHeaders().getETag()).isEqualTo(ETAG);
+        assertThat(body(response)).isEqualTo("2345");
+        verify(loggingService, never()).logOperation(anyString(), anyString(), anyString(), any(), eq("FAILED"), any());
+    }
+
+    @Test
+    void servesTheWholeObjectWhenItKeepsChanging() throws IOException {
+        details(CONTENT.length());
+        when(fileStorageService.downloadFileRange(PATH, "bytes=2-5", ETAG))
+                .thenThrow(new ObjectChangedException("Object changed: " + PATH));
+        when(fileStorageService.findCachedFile(PATH, "anonymous")).thenReturn(Optional.empty());
+        when(fileStorageService.downloadFileStream(PATH, "anonymous", false)).thenReturn(stored(CONTENT, 0, CONTENT.length()));
+
+        ResponseEntity<StreamingResponseBody> response = download("bytes=2-5", null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(body(response)).isEqualTo(CONTENT);
+        verify(fileStorageService, times(2)).downloadFileRange(PATH, "bytes=2-5", ETAG);
+    }
+
+    @Test
+    void servesACachedCopyWithTheDetailsItWasMatchedAgainst(@TempDir Path directory) throws IOException {
+        Path file = Files.writeString(directory.resolve("cached.bin"), CONTENT);
+        when(fileStorageService.findCachedFile(PATH, "anonymous")).thenReturn(Optional.of(
+                new FileStorageService.CachedFile(FileChannel.open(file), details(CONTENT.length(), "\"cached\""))));
+
+        ResponseEntity<StreamingResponseBody> response = download(null, null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"cached\"");
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(CONTENT.length());
+        assertThat(body(response)).isEqualTo(CONTENT);
+        verify(fileStorageService, never()).getFileDetails(anyString());
+        verify(fileStorageService, never()).downloadFileStream(anyString(), anyString(), anyBoolean());
+    }
+
+    private ResponseEntity<StreamingResponseBody> download(String range, String ifRange) {
+        return controller.downloadFile(PATH, "anonymous", range, ifRange, false);
+    }
+
+    private void details(long size) {
+        when(fileStorageService.getFileDetails(PATH)).thenReturn(details(size, ETAG));
+    }
+
+    private static FileDto details(long size, String eTag) {
+        return FileDto.builder()
+                .path(PATH)
+                .size(size)
+                .eTag(eTag)
+                .lastModified(LAST_MODIFIED)
+                .type("FILE")
+                .build();
+    }
+
+    private void range(String range) {
+        String[] bounds = range.substring("bytes=".length()).split("-");
+        int start = Integer.parseInt(bounds[0]);
+        int end = Integer.parseInt(bounds[1]);
+        when(fileStorageService.downloadFileRange(PATH, range, ETAG))
+                .thenAnswer(invocation -> stored(CONTENT, start, end + 1));
+    }
+
+    private static StoredObject stored(String content, int start, int end) {
+        byte[] bytes = content.substring(start, end).getBytes(StandardCharsets.US_ASCII);
+        StorageBackend.ObjectInfo info = new StorageBackend.ObjectInfo(PATH, bytes.length, ETAG, Instant.now());
+        return new StoredObject(info, new ByteArrayInputStream(bytes), () -> { });
+    }
+
+    private static String body(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        return out.toString(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,98 @@
+package com.fileManagement.FileManagement.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+class ChecksumVerifyingInputStreamTest {
+
+    private static final byte[] DATA = "0123456789".getBytes(StandardCharsets.US_ASCII);
+
+    @Test
+    void passesFullObjectChecksum() throws IOException {
+        InputStream in = verifying(DATA, Checksums.sha256Base64(DATA, 0, DATA.length), 0);
+
+        assertThat(in.readAllBytes()).isEqualTo(DATA);
+    }
+
+    @Test
+    void passesCompositeChecksumWithShortLastPart() throws IOException {
+        InputStream in = verifying(DATA, composite(DATA, 4), 4);
+
+        assertThat(in.readAllBytes()).isEqualTo(DATA);
+        assertThat(composite(DATA, 4)).endsWith("-3");
+    }
+
+    @Test
+    void countsNoEmptyPartWhenObjectEndsOnPartBoundary() throws IOException {
+        byte[] data = Arrays.copyOf(DATA, 8);
+        InputStream in = verifying(data, composite(data, 4), 4);
+
+        assertThat(in.readAllBytes()).isEqualTo(data);
+        assertThat(composite(data, 4)).endsWith("-2");
+    }
+
+    @Test
+    void passesCompositeChecksumReadByteByByte() throws IOException {
+        InputStream in = verifying(DATA, composite(DATA, 3), 3);
+
+        for (byte expected : DATA) {
+            assertThat(in.read()).isEqualTo(expected & 0xff);
+        }
+        assertThat(in.read()).isEqualTo(-1);
+    }
+
+    @Test
+    void failsTheReadThatDeliversTheLastBytes() throws IOException {
+        byte[] corrupted = DATA.clone();
+        corrupted[9] = 'x';
+        InputStream in = verifying(corrupted, composite(DATA, 4), 4);
+        byte[] buffer = new byte[4];
+
+        assertThat(in.read(buffer, 0, 4)).isEqualTo(4);
+        assertThat(in.read(buffer, 0, 4)).isEqualTo(4);
+        assertThatThrownBy(() -> in.read(buffer, 0, 4))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Checksum mismatch");
+    }
+
+    @Test
+    void failsWhenObjectEndsEarly() {
+        InputStream in = new ChecksumVerifyingInputStream(new ByteArrayInputStream(DATA), "key",
+                DATA.length + 1, Checksums.sha256Base64(DATA, 0, DATA.length), 0);
+
+        assertThatThrownBy(in::readAllBytes)
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("1 bytes early");
+    }
+
+    @Test
+    void skipStillDigestsSkippedBytes() throws IOException {
+        byte[] corrupted = DATA.clone();
+        corrupted[0] = 'x';
+        InputStream in = verifying(corrupted, Checksums.sha256Base64(DATA, 0, DATA.length), 0);
+
+        assertThatThrownBy(() -> in.skip(DATA.length)).isInstanceOf(IOException.class);
+    }
+
+    private static InputStream verifying(byte[] data, String expected, long partSize) {
+        return new ChecksumVerifyingInputStream(new ByteArrayInputStream(data), "key", data.length, expected, partSize);
+    }
+
+    private static String composite(byte[] data, int partSize) {
+        MessageDigest digest = Checksums.sha256();
+        int parts = 0;
+        for (int start = 0; start < data.length; start += partSize, parts++) {
+            digest.update(Checksums.sha256().digest(Arrays.copyOfRange(data, start, Math.min(start + partSize, data.length))));
+        }
+        return Checksums.base64(digest.digest()) + "-" + parts;
+    }
+}
@@ -0,0 +1,227 @@
+package com.fileManagement.FileManagement.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fileManagement.FileManagement.exceptions.FileStorageException;
+import com.fileManagement.FileManagement.service.StorageBackend;
+
+class DeduplicationServiceImplTest {
+
+    private static final byte[] CONTENT = "content".getBytes(StandardCharsets.UTF_8);
+    private static final String HASH = HexFormat.of().formatHex(Checksums.sha256().digest(CONTENT));
+    private static final String BLOB_KEY = ".blobs/" + HASH;
+    private static final String COLLECT = "DELETE FROM content_blobs WHERE hash = ? AND ref_count <= 0 RETURNING hash";
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final StorageBackend storageBackend = mock(StorageBackend.class);
+    private final TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @Test
+    void storesNewContentOnceAndMapsThePath() {
+        DeduplicationServiceImpl service = service(true);
+        takeReference(false);
+        previousMapping();
+
+        service.store("a/file", "text/plain", new ByteArrayResource(CONTENT));
+
+        verify(storageBackend).put(eq(BLOB_KEY), eq("text/plain"), any(InputStream.class));
+        verify(jdbcTemplate).update("UPDATE content_blobs SET stored = TRUE WHERE hash = ?", HASH);
+        verify(storageBackend).putEmpty(eq("a/file"), eq("text/plain"), anyMap());
+        verify(jdbcTemplate).update(startsWith("INSERT INTO content_blob_refs"), eq("a/file"), eq(HASH));
+        verifyNoRelease();
+    }
+
+    @Test
+    void duplicateContentOnlyAddsAReference() {
+        DeduplicationServiceImpl service = service(true);
+        takeReference(true);
+        previousMapping();
+
+        service.store("b/copy", "text/plain", new ByteArrayResource(CONTENT));
+
+        verify(storageBackend, never()).put(anyString(), anyString(), any(InputStream.class));
+        verify(storageBackend).putEmpty(eq("b/copy"), eq("text/plain"), anyMap());
+        verifyNoRelease();
+    }
+
+    @Test
+    void reuploadingTheSameContentReleasesTheExtraReference() {
+        DeduplicationServiceImpl service = service(true);
+        takeReference(true);
+        previousMapping(HASH);
+        remainingAfterRelease(1L);
+
+        service.store("a/file", "text/plain", new ByteArrayResource(CONTENT));
+
+        verify(jdbcTemplate).queryForObject(startsWith("UPDATE content_blobs SET ref_count"), eq(Long.class), eq(1L), eq(HASH));
+        verify(storageBackend, never()).delete(anyString());
+    }
+
+    @Test
+    void failedBlobWriteReleasesTheReference() {
+        DeduplicationServiceImpl service = service(true);
+        takeReference(false);
+        remainingAfterRelease(0L);
+        doThrow(new FileStorageException("disk full"))
+                .when(storageBackend).put(eq(BLOB_KEY), anyString(), any(InputStream.class));
+
+        assertThatThrownBy(() -> service.store("a/file", "text/plain", new ByteArrayResource(CONTENT)))
+                .isInstanceOf(FileStorageException.class);
+
+        verify(jdbcTemplate).queryForObject(startsWith("UPDATE content_blobs SET ref_count"), eq(Long.class), eq(1L), eq(HASH));
+        verify(storageBackend).delete(BLOB_KEY);
+        verify(storageBackend, never()).putEmpty(anyString(), anyString(), anyMap());
+    }
+
+    @Test
+    void deletingTheLastReferencesDeletesTheBlob() {
+        DeduplicationServiceImpl service = service(true);
+        when(jdbcTemplate.queryForList(startsWith("DELETE FROM content_blob_refs"), eq(String.class), any(Object[].class)))
+                .thenReturn(List.of(HASH, HASH));
+        remainingAfterRelease(0L);
+
+        service.deletePaths(List.of("a/file", "b/copy"));
+
+        // Both paths point at the same blob, so its count drops by two in one update
+        verify(jdbcTemplate).queryForObject(startsWith("UPDATE content_blobs SET ref_count"), eq(Long.class), eq(2L), eq(HASH));
+        verify(jdbcTemplate).queryForList(COLLECT, String.class, HASH);
+        verify(storageBackend).delete(BLOB_KEY);
+    }
+
+    @Test
+    void blobIsKeptWhenTheMoveRollsBack() {
+        DeduplicationServiceImpl service = service(true);
+        when(jdbcTemplate.queryForList(startsWith("DELETE FROM content_blob_refs"), eq(String.class), any(Object[].class)))
+                .thenReturn(List.of(HASH));
+        remainingAfterRelease(0L);
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE content_blob_refs"), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"));
+
+        assertThatThrownBy(() -> service.movePaths(Map.of("a/file", "b/file")))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+
+        verify(jdbcTemplate, never()).queryForList(COLLECT, String.class, HASH);
+        verify(storageBackend, never()).delete(anyString());
+    }
+
+    @Test
+    void blobReferencedAgainBeforeCollectionIsKept() {
+        DeduplicationServiceImpl service = service(true);
+        when(jdbcTemplate.queryForList(startsWith("DELETE FROM content_blob_refs"), eq(String.class), any(Object[].class)))
+                .thenReturn(List.of(HASH));
+        remainingAfterRelease(0L);
+        when(jdbcTemplate.queryForList(COLLECT, String.class, HASH)).thenReturn(List.of());
+
+        service.deletePaths(List.of("a/file"));
+
+        verify(storageBackend, never()).delete(anyString());
+    }
+
+    @Test
+    void failedBlobDeleteLeavesAnOrphanAndDoesNotFailTheOperation() {
+        DeduplicationServiceImpl service = service(true);
+        when(jdbcTemplate.queryForList(startsWith("DELETE FROM content_blob_refs"), eq(String.class), any(Object[].class)))
+                .thenReturn(List.of(HASH));
+        remainingAfterRelease(0L);
+        doThrow(new FileStorageException("unavailable")).when(storageBackend).delete(BLOB_KEY);
+
+        service.deletePaths(List.of("a/file"));
+
+        verify(storageBackend).delete(BLOB_KEY);
+    }
+
+    @Test
+    void blobWithRemainingReferencesIsKept() {
+        DeduplicationServiceImpl service = service(true);
+        when(jdbcTemplate.queryForList(startsWith("DELETE FROM content_blob_refs"), eq(String.class), any(Object[].class)))
+                .thenReturn(List.of(HASH));
+        remainingAfterRelease(1L);
+
+        service.deletePrefix("a/", Set.of());
+
+        verify(storageBackend, never()).delete(anyString());
+        verify(jdbcTemplate, never()).queryForList(COLLECT, String.class, HASH);
+    }
+
+    @Test
+    void disabledWithoutMappingsSkipsTheDatabaseAfterOneCheck() {
+        DeduplicationServiceImpl service = service(false);
+        when(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM content_blob_refs)", Boolean.class))
+                .thenReturn(false);
+
+        assertThat(service.resolveBlobKey("a/file")).isEmpty();
+        service.movePaths(Map.of("a/file", "b/file"));
+        service.movePrefix("a/", "b/");
+        service.deletePaths(List.of("a/file"));
+        service.deletePrefix("a/", Set.of());
+
+        verify(jdbcTemplate).queryForObject("SELECT EXISTS (SELECT 1 FROM content_blob_refs)", Boolean.class);
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(String.class), any(Object[].class));
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+        verifyNoInteractions(storageBackend);
+    }
+
+    @Test
+    void disabledWithLeftoverMappingsStillResolvesThem() {
+        DeduplicationServiceImpl service = service(false);
+        when(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM content_blob_refs)", Boolean.class))
+                .thenReturn(true);
+        when(jdbcTemplate.queryForList("SELECT hash FROM content_blob_refs WHERE path = ?", String.class, "a/file"))
+                .thenReturn(List.of(HASH));
+
+        assertThat(service.resolveBlobKey("a/file")).contains(BLOB_KEY);
+    }
+
+    private DeduplicationServiceImpl service(boolean enabled) {
+        return new DeduplicationServiceImpl(jdbcTemplate, transactionTemplate, storageBackend, ".blobs/", enabled);
+    }
+
+    private void takeReference(boolean alreadyStored) {
+        when(jdbcTemplate.queryForObject(startsWith("INSERT INTO content_blobs"), eq(Boolean.class), eq(HASH), eq((long) CONTENT.length)))
+                .thenReturn(alreadyStored);
+    }
+
+    private void previousMapping(String... hashes) {
+        when(jdbcTemplate.queryForList(startsWith("SELECT hash FROM content_blob_refs WHERE path = ? FOR UPDATE"),
+                eq(String.class), any(Object[].class)))
+                .thenReturn(List.of(hashes));
+    }
+
+    private void remainingAfterRelease(long remaining) {
+        when(jdbcTemplate.queryForObject(startsWith("UPDATE content_blobs SET ref_count"), eq(Long.class), any(Object[].class)))
+                .thenReturn(remaining);
+        when(jdbcTemplate.queryForList(COLLECT, String.class, HASH)).thenReturn(List.of(HASH));
+    }
+
+    private void verifyNoRelease() {
+        verify(jdbcTemplate, never()).queryForObject(startsWith("UPDATE content_blobs SET ref_count"), eq(Long.class), any(Object[].class));
+        verify(storageBackend, never()).delete(anyString());
+    }
+}
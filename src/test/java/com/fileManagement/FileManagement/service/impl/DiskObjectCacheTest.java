@@ -0,0 +1,165 @@
+package com.fileManagement.FileManagement.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+class DiskObjectCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void fillsOnAFullReadAndServesLaterLookups() throws IOException {
+        DiskObjectCache cache = cache(100, 100);
+
+        assertThat(cache.lookup("a/file", "\"v1\"")).isEmpty();
+        readFully(cache.readThrough("a/file", "\"v1\"", 5, source("hello")));
+
+        assertThat(cached(cache, "a/file", "\"v1\"")).isEqualTo("hello");
+        assertThat(cache.stats()).containsEntry("hitCount", 1L).containsEntry("missCount", 1L);
+    }
+
+    @Test
+    void aNewVersionMisses() throws IOException {
+        DiskObjectCache cache = cache(100, 100);
+        readFully(cache.readThrough("a/file", "\"v1\"", 5, source("hello")));
+
+        assertThat(cache.lookup("a/file", "\"v2\"")).isEmpty();
+    }
+
+    @Test
+    void anAbandonedReadIsNotCached() throws IOException {
+        DiskObjectCache cache = cache(100, 100);
+
+        try (InputStream stream = cache.readThrough("a/file", "\"v1\"", 5, source("hello"))) {
+            stream.read(new byte[2]);
+        }
+
+        assertThat(cache.lookup("a/file", "\"v1\"")).isEmpty();
+        assertThat(files()).isEmpty();
+    }
+
+    @Test
+    void aShortStreamIsNotCached() throws IOException {
+        DiskObjectCache cache = cache(100, 100);
+
+        readFully(cache.readThrough("a/file", "\"v1\"", 10, source("hello")));
+
+        assertThat(cache.lookup("a/file", "\"v1\"")).isEmpty();
+    }
+
+    @Test
+    void oversizeObjectsPassThrough() {
+        DiskObjectCache cache = cache(100, 4);
+        InputStream source = source("hello");
+
+        assertThat(cache.readThrough("a/file", "\"v1\"", 5, source)).isSameAs(source);
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntry() throws IOException {
+        DiskObjectCache cache = cache(10, 10);
+        readFully(cache.readThrough("a", "\"v\"", 4, source("aaaa")));
+        readFully(cache.readThrough("b", "\"v\"", 4, source("bbbb")));
+        cached(cache, "a", "\"v\"");
+
+        readFully(cache.readThrough("c", "\"v\"", 4, source("cccc")));
+
+        assertThat(cache.lookup("b", "\"v\"")).isEmpty();
+        assertThat(cached(cache, "a", "\"v\"")).isEqualTo("aaaa");
+        assertThat(cached(cache, "c", "\"v\"")).isEqualTo("cccc");
+        assertThat(cache.stats()).containsEntry("bytes", 8L).containsEntry("evictionCount", 1L);
+    }
+
+    @Test
+    void anEntryEvictedWhileServedStaysReadable() throws IOException {
+        DiskObjectCache cache = cache(4, 4);
+        readFully(cache.readThrough("a", "\"v\"", 4, source("aaaa")));
+        FileChannel channel = cache.lookup("a", "\"v\"").orElseThrow();
+
+        readFully(cache.readThrough("b", "\"v\"", 4, source("bbbb")));
+
+        try (channel) {
+            assertThat(read(channel)).isEqualTo("aaaa");
+        }
+        assertThat(cache.lookup("a", "\"v\"")).isEmpty();
+    }
+
+    @Test
+    void rebuildsTheIndexOnStartupAndDropsPartialFills() throws IOException {
+        readFully(cache(100, 100).readThrough("a/file", "\"v1\"", 5, source("hello")));
+        Files.writeString(directory.resolve("fill-1.tmp"), "partial");
+
+        DiskObjectCache restarted = cache(100, 100);
+
+        assertThat(cached(restarted, "a/file", "\"v1\"")).isEqualTo("hello");
+        assertThat(directory.resolve("fill-1.tmp")).doesNotExist();
+    }
+
+    @Test
+    void aDisabledCacheNeverStoresAnything() throws IOException {
+        DiskObjectCache cache = new DiskObjectCache(false, directory, DataSize.ofBytes(100), DataSize.ofBytes(100));
+        cache.init();
+        InputStream source = source("hello");
+
+        assertThat(cache.readThrough("a/file", "\"v1\"", 5, source)).isSameAs(source);
+        assertThat(cache.lookup("a/file", "\"v1\"")).isEmpty();
+    }
+
+    private DiskObjectCache cache(long maxSize, long maxObjectSize) {
+        DiskObjectCache cache = new DiskObjectCache(true, directory, DataSize.ofBytes(maxSize), DataSize.ofBytes(maxObjectSize));
+        try {
+            cache.init();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return cache;
+    }
+
+    private String cached(DiskObjectCache cache, String key, String version) throws IOException {
+        Optional<FileChannel> channel = cache.lookup(key, version);
+        assertThat(channel).as(key).isPresent();
+        try (FileChannel open = channel.get()) {
+            return read(open);
+        }
+    }
+
+    private List<Path> files() throws IOException {
+        try (Stream<Path> listing = Files.list(directory)) {
+            return listing.toList();
+        }
+    }
+
+    private static String read(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+        while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+            // keep reading until the buffer is full
+        }
+        return new String(buffer.array(), StandardCharsets.US_ASCII);
+    }
+
+    private static void readFully(InputStream stream) throws IOException {
+        try (stream) {
+            stream.readAllBytes();
+        }
+    }
+
+    private static InputStream source(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,94 @@
+package com.fileManagement.FileManagement.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fileManagement.FileManagement.dto.FolderDto;
+import com.fileManagement.FileManagement.service.DeduplicationService;
+import com.fileManagement.FileManagement.service.FileStorageService;
+import com.fileManagement.FileManagement.service.LoggingService;
+import com.fileManagement.FileManagement.service.StorageBackend;
+import com.fileManagement.FileManagement.service.StorageBackend.ListingPage;
+import com.fileManagement.FileManagement.service.StorageBackend.ObjectInfo;
+
+class FolderHierarchyTest {
+
+    private static final int PARALLELISM = 4;
+    private static final int WIDTH = 40;
+
+    private final StorageBackend storageBackend = mock(StorageBackend.class);
+    private final BlockingStepExecutor blockingSteps = new BlockingStepExecutor(4);
+    private final FolderServiceImpl folderService = new FolderServiceImpl(storageBackend, mock(LoggingService.class),
+            mock(FileStorageService.class), mock(S3BatchOperations.class), mock(MetadataCache.class),
+            mock(DeduplicationService.class), mock(ReservedPrefixes.class), blockingSteps, mock(UploadExecutor.class));
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(folderService, "listingParallelism", PARALLELISM);
+    }
+
+    @AfterEach
+    void shutdown() {
+        blockingSteps.shutdown();
+    }
+
+    @Test
+    void listsAWideLevelWithBoundedConcurrency() {
+        List<String> children = IntStream.range(0, WIDTH).mapToObj(i -> "top/f" + i + "/").toList();
+        when(storageBackend.listAllAsync(anyString(), eq("/"))).thenAnswer(invocation -> {
+            String prefix = invocation.getArgument(0);
+            if (prefix.equals("top/")) {
+                return CompletableFuture.completedFuture(List.of(new ListingPage(List.of(), children, null)));
+            }
+            return slowListing(prefix);
+        });
+
+        FolderDto root = folderService.getFolderHierarchyAsync("top", 2).join();
+
+        assertThat(root.getSubFolders()).extracting(FolderDto::getPath).containsExactlyElementsOf(children);
+        assertThat(root.getSubFolders()).allSatisfy(folder ->
+                assertThat(folder.getFiles()).extracting("path").containsExactly(folder.getPath() + "file"));
+        assertThat(maxInFlight.get()).isBetween(1, PARALLELISM);
+    }
+
+    @Test
+    void stopsAtTheRequestedDepth() {
+        when(storageBackend.listAllAsync("top/", "/")).thenReturn(CompletableFuture.completedFuture(
+                List.of(new ListingPage(List.of(), List.of("top/a/"), null))));
+
+        FolderDto root = folderService.getFolderHierarchyAsync("top", 1).join();
+
+        assertThat(root.getSubFolders()).extracting(FolderDto::getPath).containsExactly("top/a/");
+        assertThat(root.getSubFolders().get(0).getSubFolders()).isEmpty();
+    }
+
+    private CompletableFuture<List<ListingPage>> slowListing(String prefix) {
+        int current = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(current, Math::max);
+        Executor delayed = CompletableFuture.delayedExecutor(5, TimeUnit.MILLISECONDS);
+        return CompletableFuture.supplyAsync(() -> {
+            inFlight.decrementAndGet();
+            return List.of(new ListingPage(List.of(new ObjectInfo(prefix + "file", 1, "\"e\"", Instant.now())),
+                    List.of(), null));
+        }, delayed);
+    }
+}
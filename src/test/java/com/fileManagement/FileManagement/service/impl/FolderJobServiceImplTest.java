@@ -0,0 +1,146 @@
+package com.fileManagement.FileManagement.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fileManagement.FileManagement.entity.FolderJob;
+import com.fileManagement.FileManagement.repository.FolderJobRepository;
+import com.fileManagement.FileManagement.service.DeduplicationService;
+import com.fileManagement.FileManagement.service.LoggingService;
+import com.fileManagement.FileManagement.service.StorageBackend;
+import com.fileManagement.FileManagement.service.StorageBackend.ListingPage;
+import com.fileManagement.FileManagement.service.StorageBackend.ObjectInfo;
+
+class FolderJobServiceImplTest {
+
+    private final StorageBackend storageBackend = mock(StorageBackend.class);
+    private final FolderJobRepository folderJobRepository = mock(FolderJobRepository.class);
+    private final LoggingService loggingService = mock(LoggingService.class);
+    private final DeduplicationService deduplicationService = mock(DeduplicationService.class);
+    private final FolderJobServiceImpl folderJobService = new FolderJobServiceImpl(storageBackend, folderJobRepository,
+            loggingService, mock(MetadataCache.class), deduplicationService, mock(ReservedPrefixes.class), 1, 10);
+
+    // lastKey as of every save, so the checkpoints can be checked after the job has moved on
+    private final List<String> checkpoints = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() {
+        when(folderJobRepository.save(any(FolderJob.class))).thenAnswer(invocation -> {
+            FolderJob job = invocation.getArgument(0);
+            checkpoints.add(job.getLastKey());
+            return job;
+        });
+    }
+
+    @AfterEach
+    void shutdown() throws InterruptedException {
+        folderJobService.shutdown();
+    }
+
+    @Test
+    void resumedMoveContinuesAfterTheLastKey() {
+        FolderJob job = job("RUNNING", "dst/", "src/b", 4L, 2);
+        when(storageBackend.listAfter("src/", "src/b", StorageBackend.MAX_KEYS)).thenReturn(page(null, "src/c", "src/d"));
+        when(storageBackend.copyAll(any())).thenReturn(Map.of());
+        when(storageBackend.deleteAll(any())).thenReturn(Map.of());
+
+        folderJobService.resumeJobs();
+        awaitFinished(job);
+
+        verify(storageBackend).copyAll(Map.of("src/c", "dst/c", "src/d", "dst/d"));
+        verify(storageBackend).deleteAll(List.of("src/c", "src/d"));
+        verify(deduplicationService).movePaths(Map.of("src/c", "dst/c", "src/d", "dst/d"));
+        // Already counted before the restart, so the source is not listed again from the start
+        verify(storageBackend, never()).list(anyString(), any(), any(), anyInt());
+        verify(storageBackend, never()).listAfter(anyString(), isNull(), anyInt());
+        assertThat(job.getStatus()).isEqualTo("SUCCEEDED");
+        assertThat(job.getProcessedKeys()).isEqualTo(4);
+        assertThat(job.getLastKey()).isEqualTo("src/d");
+    }
+
+    @Test
+    void deleteRecordsACheckpointAfterEveryPage() {
+        FolderJob job = job("QUEUED", null, null, null, 0);
+        when(storageBackend.list("src/", null, null, StorageBackend.MAX_KEYS)).thenReturn(page(null, "src/a", "src/b", "src/c"));
+        when(storageBackend.listAfter("src/", null, StorageBackend.MAX_KEYS)).thenReturn(page("src/b", "src/a", "src/b"));
+        when(storageBackend.listAfter("src/", "src/b", StorageBackend.MAX_KEYS)).thenReturn(page(null, "src/c"));
+        when(storageBackend.deleteAll(any())).thenReturn(Map.of());
+
+        folderJobService.resumeJobs();
+        awaitFinished(job);
+
+        assertThat(checkpoints).containsExactly(null, "src/b", "src/c", "src/c");
+        verify(deduplicationService).deletePaths(List.of("src/a", "src/b"));
+        verify(deduplicationService).deletePaths(List.of("src/c"));
+        assertThat(job.getTotalKeys()).isEqualTo(3);
+        assertThat(job.getStatus()).isEqualTo("SUCCEEDED");
+    }
+
+    @Test
+    void keysThatFailToCopyStayAtTheSource() {
+        FolderJob job = job("RUNNING", "dst/", null, 2L, 0);
+        when(storageBackend.listAfter("src/", null, StorageBackend.MAX_KEYS)).thenReturn(page(null, "src/a", "src/b"));
+        when(storageBackend.copyAll(any())).thenReturn(Map.of("src/b", "AccessDenied"));
+        when(storageBackend.deleteAll(any())).thenReturn(Map.of());
+
+        folderJobService.resumeJobs();
+        awaitFinished(job);
+
+        verify(storageBackend).deleteAll(List.of("src/a"));
+        verify(deduplicationService).movePaths(Map.of("src/a", "dst/a"));
+        assertThat(job.getStatus()).isEqualTo("FAILED");
+        assertThat(job.getProcessedKeys()).isEqualTo(1);
+        assertThat(job.getFailedKeys()).isEqualTo(1);
+        assertThat(job.getErrorMessage()).contains("src/b: AccessDenied");
+    }
+
+    private FolderJob job(String status, String destinationPath, String lastKey, Long totalKeys, long processedKeys) {
+        FolderJob job = FolderJob.builder()
+                .id(1L)
+                .operation(destinationPath == null ? "DELETE_FOLDER" : "MOVE_FOLDER")
+                .sourcePath("src/")
+                .destinationPath(destinationPath)
+                .username("alice")
+                .status(status)
+                .lastKey(lastKey)
+                .totalKeys(totalKeys)
+                .processedKeys(processedKeys)
+                .createdAt(LocalDateTime.now())
+                .build();
+        when(folderJobRepository.findByStatusInOrderByIdAsc(List.of("QUEUED", "RUNNING"))).thenReturn(List.of(job));
+        when(folderJobRepository.findById(1L)).thenReturn(Optional.of(job));
+        return job;
+    }
+
+    private void awaitFinished(FolderJob job) {
+        verify(loggingService, timeout(5000)).logOperation(eq("alice"), eq(job.getOperation()), eq("src/"),
+                eq(job.getDestinationPath()), anyString(), any());
+    }
+
+    private static ListingPage page(String nextCursor, String... keys) {
+        return new ListingPage(Arrays.stream(keys).map(key -> new ObjectInfo(key, 1, "\"e\"", Instant.now())).toList(),
+                List.of(), nextCursor);
+    }
+}
@@ -0,0 +1,145 @@
+package com.fileManagement.FileManagement.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fileManagement.FileManagement.exceptions.InvalidRequestException;
+import com.fileManagement.FileManagement.service.StorageBackend.ListingPage;
+import com.fileManagement.FileManagement.service.StorageBackend.ObjectInfo;
+import com.fileManagement.FileManagement.service.StoredObject;
+
+class LocalStorageBackendTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path root;
+    private LocalStorageBackend backend;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        root = tempDir.resolve("root");
+        backend = new LocalStorageBackend(root);
+        backend.init();
+    }
+
+    @Test
+    void listsRecursivelyInS3KeyOrder() {
+        put("a/b0", "a/b/y", "a/b-1", "a/c");
+
+        ListingPage page = backend.list("a/", null, null, 10);
+
+        // '-' sorts before '/' and '0' after it, so the folder's keys sit between its siblings
+        assertThat(keys(page)).containsExactly("a/b-1", "a/b/", "a/b/y", "a/b0", "a/c");
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void pagesRecursiveListingWithCursor() {
+        put("a/b/y", "a/b/z", "a/c", "a/d/e/f", "a/x");
+
+        List<String> listed = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            ListingPage page = backend.list("a/", null, cursor, 2);
+            assertThat(page.objects()).hasSizeLessThanOrEqualTo(2);
+            listed.addAll(keys(page));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(listed).containsExactly("a/b/", "a/b/y", "a/b/z", "a/c", "a/d/", "a/d/e/", "a/d/e/f", "a/x");
+        assertThat(pages).isEqualTo(4);
+    }
+
+    @Test
+    void listsOneLevelWithCommonPrefixes() {
+        put("a/x", "a/b/y", "a/c", "other");
+
+        ListingPage page = backend.list("a/", "/", null, 10);
+
+        assertThat(keys(page)).containsExactly("a/c", "a/x");
+        assertThat(page.commonPrefixes()).containsExactly("a/b/");
+    }
+
+    @Test
+    void pagesOneLevelListingWithCursor() {
+        put("a/b/y", "a/c", "a/x");
+
+        ListingPage first = backend.list("a/", "/", null, 2);
+        ListingPage second = backend.list("a/", "/", first.nextCursor(), 2);
+
+        assertThat(first.commonPrefixes()).containsExactly("a/b/");
+        assertThat(keys(first)).containsExactly("a/c");
+        assertThat(first.nextCursor()).isEqualTo("a/c");
+        assertThat(keys(second)).containsExactly("a/x");
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    @Test
+    void listsKeysByPartialNamePrefix() {
+        put("a/report-1", "a/report-2", "a/summary");
+
+        assertThat(keys(backend.list("a/rep", null, null, 10))).containsExactly("a/report-1", "a/report-2");
+    }
+
+    @Test
+    void listingAMissingFolderIsEmpty() {
+        ListingPage page = backend.list("missing/", "/", null, 10);
+
+        assertThat(page.objects()).isEmpty();
+        assertThat(page.commonPrefixes()).isEmpty();
+    }
+
+    @Test
+    void readsAByteRange() throws IOException {
+        backend.put("a/file", "text/plain", new ByteArrayInputStream("0123456789".getBytes(StandardCharsets.US_ASCII)));
+
+        try (StoredObject object = backend.get("a/file", "bytes=2-5", false)) {
+            assertThat(new String(object.readAllBytes(), StandardCharsets.US_ASCII)).isEqualTo("2345");
+            assertThat(object.info().size()).isEqualTo(4);
+        }
+    }
+
+    @Test
+    void rejectsKeysOutsideTheRoot() throws IOException {
+        Files.writeString(tempDir.resolve("secret"), "secret");
+
+        assertThatThrownBy(() -> backend.head("../secret")).isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> backend.head("a/../../secret")).isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> backend.put("../escaped", "text/plain", new ByteArrayInputStream(new byte[0])))
+                .isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> backend.list("../", "/", null, 10)).isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> backend.deletePrefix("../")).isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> backend.copyAll(Map.of("a/x", "../copied")))
+                .isInstanceOf(InvalidRequestException.class);
+
+        assertThat(tempDir.resolve("secret")).exists();
+        assertThat(tempDir.resolve("escaped")).doesNotExist();
+        assertThat(tempDir.resolve("copied")).doesNotExist();
+    }
+
+    private void put(String... keys) {
+        for (String key : keys) {
+            backend.put(key, "text/plain", new ByteArrayInputStream(key.getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    private static List<String> keys(ListingPage page) {
+        return page.objects().stream().map(ObjectInfo::key).toList();
+    }
+}
@@ -0,0 +1,166 @@
+package com.fileManagement.FileManagement.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.concurrent.Semaphore;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import com.fileManagement.FileManagement.exceptions.FileStorageException;
+import com.fileManagement.FileManagement.service.MultipartUploadService.UploadResult;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+class MultipartUploadServiceImplTest {
+
+    private static final int PART_SIZE = 5 * 1024 * 1024;
+    private static final int PARALLELISM = 2;
+
+    private final S3Client s3Client = mock(S3Client.class);
+    private final MultipartUploadServiceImpl service = new MultipartUploadServiceImpl(s3Client, "bucket",
+            DataSize.ofBytes(PART_SIZE), PARALLELISM);
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    void sendsAStreamShorterThanAPartAsOnePut() {
+        byte[] content = content(1000);
+
+        UploadResult result = service.upload("a/file", "text/plain", new ByteArrayInputStream(content));
+
+        ArgumentCaptor<PutObjectRequest> request = ArgumentCaptor.forClass(PutObjectRequest.class);
+        verify(s3Client).putObject(request.capture(), any(RequestBody.class));
+        assertThat(request.getValue().checksumSHA256()).isEqualTo(Checksums.sha256Base64(content, 0, content.length));
+        assertThat(request.getValue().metadata()).containsEntry(Checksums.SHA256_METADATA, result.checksumSha256());
+        assertThat(result.size()).isEqualTo(content.length);
+        verify(s3Client, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+        assertAllBuffersReturned();
+    }
+
+    @Test
+    void sendsAnEmptyStreamAsOnePut() {
+        UploadResult result = service.upload("a/empty", "text/plain", InputStream.nullInputStream());
+
+        verify(s3Client).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        assertThat(result.size()).isZero();
+        assertAllBuffersReturned();
+    }
+
+    @Test
+    void splitsALargerStreamIntoParts() {
+        byte[] content = content(2 * PART_SIZE + 100);
+        multipartUploadStarts();
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenAnswer(invocation -> UploadPartResponse.builder()
+                        .eTag("\"part-" + invocation.<UploadPartRequest>getArgument(0).partNumber() + "\"")
+                        .build());
+
+        UploadResult result = service.upload("a/large", "application/octet-stream", new ByteArrayInputStream(content));
+
+        ArgumentCaptor<UploadPartRequest> parts = ArgumentCaptor.forClass(UploadPartRequest.class);
+        verify(s3Client, times(3)).uploadPart(parts.capture(), any(RequestBody.class));
+        assertThat(parts.getAllValues()).extracting(UploadPartRequest::contentLength)
+                .containsExactlyInAnyOrder((long) PART_SIZE, (long) PART_SIZE, 100L);
+
+        ArgumentCaptor<CompleteMultipartUploadRequest> complete = ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+        verify(s3Client).completeMultipartUpload(complete.capture());
+        assertThat(complete.getValue().multipartUpload().parts()).extracting(CompletedPart::eTag)
+                .containsExactly("\"part-1\"", "\"part-2\"", "\"part-3\"");
+
+        assertThat(result.size()).isEqualTo(content.length);
+        assertThat(result.checksumSha256()).isEqualTo(Checksums.sha256Base64(content, 0, content.length));
+        assertAllBuffersReturned();
+    }
+
+    @Test
+    void endsOnAPartBoundaryWithoutAnEmptyPart() {
+        multipartUploadStarts();
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenReturn(UploadPartResponse.builder().eTag("\"part\"").build());
+
+        service.upload("a/exact", "application/octet-stream", new ByteArrayInputStream(content(2 * PART_SIZE)));
+
+        verify(s3Client, times(2)).uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+        assertAllBuffersReturned();
+    }
+
+    @Test
+    void abortsTheUploadWhenAPartFails() {
+        multipartUploadStarts();
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenThrow(S3Exception.builder().message("SlowDown").build());
+
+        assertThatThrownBy(() -> service.upload("a/large", "application/octet-stream",
+                new ByteArrayInputStream(content(2 * PART_SIZE + 100))))
+                .isInstanceOf(FileStorageException.class);
+
+        verify(s3Client).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(s3Client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+        assertAllBuffersReturned();
+    }
+
+    @Test
+    void returnsTheBufferWhenTheClientStreamFails() {
+        multipartUploadStarts();
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenReturn(UploadPartResponse.builder().eTag("\"part\"").build());
+        InputStream failing = new SequenceInputStream(new ByteArrayInputStream(content(PART_SIZE + 10)), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Connection reset");
+            }
+        });
+
+        assertThatThrownBy(() -> service.upload("a/large", "application/octet-stream", failing))
+                .isInstanceOf(FileStorageException.class);
+
+        verify(s3Client).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        assertAllBuffersReturned();
+    }
+
+    private void multipartUploadStarts() {
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+    }
+
+    private void assertAllBuffersReturned() {
+        Semaphore partBuffers = (Semaphore) ReflectionTestUtils.getField(service, "partBuffers");
+        assertThat(partBuffers.availablePermits()).isEqualTo(2 * PARALLELISM);
+    }
+
+    private static byte[] content(int length) {
+        byte[] content = new byte[length];
+        for (int i = 0; i < length; i++) {
+            content[i] = (byte) (i * 31);
+        }
+        return content;
+    }
+}
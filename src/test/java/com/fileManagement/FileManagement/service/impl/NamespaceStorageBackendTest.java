@@ -0,0 +1,154 @@
+package com.fileManagement.FileManagement.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fileManagement.FileManagement.exceptions.InvalidRequestException;
+import com.fileManagement.FileManagement.exceptions.ObjectChangedException;
+import com.fileManagement.FileManagement.service.MultipartUploadService.UploadResult;
+import com.fileManagement.FileManagement.service.StorageBackend;
+
+class NamespaceStorageBackendTest {
+
+    private static final String ENSURE_FOLDER = "INSERT INTO namespace_entries (parent_id, name, folder)";
+
+    private final StorageBackend physical = mock(StorageBackend.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final NamespaceStorageBackend backend = new NamespaceStorageBackend(physical, jdbcTemplate,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), new ObjectMapper(), ".objects/");
+
+    // Rows returned by the path walk, by key
+    private final Map<String, ResultSet> entries = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        when(jdbcTemplate.query(startsWith("WITH RECURSIVE walk"), any(RowMapper.class), any(Object[].class)))
+                .thenAnswer(invocation -> {
+                    String key = String.join("", invocation.<String[]>getArgument(2));
+                    ResultSet row = entries.get(key);
+                    return row == null ? List.of() : List.of(invocation.<RowMapper<?>>getArgument(1).mapRow(row, 0));
+                });
+        when(physical.put(anyString(), anyString(), any(InputStream.class)))
+                .thenReturn(new UploadResult(7, "sha256", "crc32c"));
+    }
+
+    @Test
+    void putWritesTheObjectBeforeItsRowAndDropsItWhenTheRowFails() {
+        when(jdbcTemplate.queryForObject(startsWith(ENSURE_FOLDER), eq(Long.class), any(Object[].class)))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"));
+
+        assertThatThrownBy(() -> backend.put("a/file", "text/plain", content()))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+
+        ArgumentCaptor<String> physicalKey = ArgumentCaptor.forClass(String.class);
+        InOrder order = inOrder(physical);
+        order.verify(physical).put(physicalKey.capture(), eq("text/plain"), any(InputStream.class));
+        order.verify(physical).deleteAll(List.of(physicalKey.getValue()));
+        assertThat(physicalKey.getValue()).startsWith(".objects/");
+    }
+
+    @Test
+    void overwritingAFileReleasesThePreviousObjectOnceTheRowIsReplaced() {
+        when(jdbcTemplate.queryForObject(startsWith(ENSURE_FOLDER), eq(Long.class), any(Object[].class))).thenReturn(5L);
+        when(jdbcTemplate.queryForList(startsWith("SELECT physical_key FROM namespace_entries WHERE parent_id = ? AND name = ?"),
+                eq(String.class), any(Object[].class))).thenReturn(List.of(".objects/ol/old"));
+
+        backend.put("a/file", "text/plain", content());
+
+        InOrder order = inOrder(jdbcTemplate, physical);
+        order.verify(jdbcTemplate).update(startsWith("INSERT INTO namespace_entries "), eq(5L), eq("file"), anyString(),
+                eq(7L), anyString(), eq("text/plain"), anyString());
+        order.verify(physical).deleteAll(List.of(".objects/ol/old"));
+    }
+
+    @Test
+    void aStaleETagFailsWithoutReadingTheObject() {
+        entries.put("a/file", entry(4, "file", false, ".objects/ab/abc", "\"v2\""));
+
+        assertThatThrownBy(() -> backend.get("a/file", "bytes=0-1", "\"v1\"", false))
+                .isInstanceOf(ObjectChangedException.class);
+
+        verify(physical, never()).get(anyString(), any(), anyBoolean());
+    }
+
+    @Test
+    void deletingAFileRemovesItsRowBeforeItsObject() {
+        entries.put("a/file", entry(4, "file", false, ".objects/ab/abc", "\"v1\""));
+        when(jdbcTemplate.queryForList("DELETE FROM namespace_entries WHERE id = ? RETURNING physical_key", String.class, 4L))
+                .thenReturn(List.of(".objects/ab/abc"));
+
+        backend.delete("a/file");
+
+        InOrder order = inOrder(jdbcTemplate, physical);
+        order.verify(jdbcTemplate).queryForList("DELETE FROM namespace_entries WHERE id = ? RETURNING physical_key", String.class, 4L);
+        order.verify(physical).deleteAll(List.of(".objects/ab/abc"));
+    }
+
+    @Test
+    void movingAFolderToAFreeNameReparentsOneRow() {
+        entries.put("a/", entry(3, "a/", true, null, null));
+
+        assertThat(backend.movePrefix("a/", "b/")).isEmpty();
+
+        verify(jdbcTemplate).update("UPDATE namespace_entries SET parent_id = ?, name = ? WHERE id = ?", 0L, "b/", 3L);
+        verify(physical, never()).copyAll(any());
+        verify(physical, never()).deleteAll(anyList());
+    }
+
+    @Test
+    void refusesToMoveAFolderIntoItself() {
+        assertThatThrownBy(() -> backend.movePrefix("a/", "a/b/")).isInstanceOf(InvalidRequestException.class);
+    }
+
+    private static InputStream content() {
+        return new ByteArrayInputStream(new byte[7]);
+    }
+
+    private static ResultSet entry(long id, String name, boolean folder, String physicalKey, String eTag) {
+        try {
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getLong("id")).thenReturn(id);
+            when(rs.getString("name")).thenReturn(name);
+            when(rs.getBoolean("folder")).thenReturn(folder);
+            when(rs.getString("physical_key")).thenReturn(physicalKey);
+            when(rs.getLong("size")).thenReturn(folder ? 0L : 2L);
+            when(rs.getString("etag")).thenReturn(eTag);
+            when(rs.getTimestamp("modified_at")).thenReturn(Timestamp.from(Instant.now()));
+            return rs;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.fileManagement.FileManagement.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fileManagement.FileManagement.service.StorageBackend;
+
+class ObjectCatalogTest {
+
+    private static final String PRUNE = "DELETE FROM object_catalog f WHERE f.key = ? AND f.folder AND NOT f.marker "
+            + "AND f.size = 0 AND NOT EXISTS (SELECT 1 FROM object_catalog c WHERE c.parent_prefix = f.key)";
+    private static final String DELTA = "INSERT INTO object_catalog_deltas (key, delta, modified_at) VALUES (?, ?, ?)";
+    private static final Instant MODIFIED = Instant.parse("2024-05-01T10:00:00Z");
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final ObjectCatalog catalog = new ObjectCatalog(jdbcTemplate,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+    @Test
+    void overwritingAnObjectRecordsOnlyTheSizeDifference() {
+        when(jdbcTemplate.queryForList(startsWith("SELECT size FROM object_catalog WHERE key = ? FOR UPDATE"),
+                eq(Long.class), any(Object[].class))).thenReturn(List.of(10L));
+
+        catalog.put(new StorageBackend.ObjectInfo("a/b/file", 25, "\"e\"", MODIFIED));
+
+        ArgumentCaptor<Object[]> folders = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).update(startsWith("INSERT INTO object_catalog (key, parent_prefix, folder, modified_at"),
+                any(Timestamp.class), folders.capture(), any(Object[].class));
+        assertThat(folders.getValue()).containsExactly("a/", "a/b/");
+        verify(jdbcTemplate).update(DELTA, "a/b/file", 15L, Timestamp.from(MODIFIED));
+    }
+
+    @Test
+    void removingAnObjectPrunesFoldersUpToTheFirstThatIsStillInUse() {
+        when(jdbcTemplate.queryForList("DELETE FROM object_catalog WHERE key = ? RETURNING size", Long.class, "a/b/c/file"))
+                .thenReturn(List.of(7L));
+        when(jdbcTemplate.update(PRUNE, "a/b/c/")).thenReturn(1);
+        when(jdbcTemplate.update(PRUNE, "a/b/")).thenReturn(0);
+
+        catalog.remove(List.of("a/b/c/file"));
+
+        verify(jdbcTemplate).update(eq(DELTA), eq("a/b/c/file"), eq(-7L), any(Timestamp.class));
+        InOrder order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).update(PRUNE, "a/b/c/");
+        order.verify(jdbcTemplate).update(PRUNE, "a/b/");
+        verify(jdbcTemplate, never()).update(PRUNE, "a/");
+    }
+
+    @Test
+    void removingAMissingObjectChangesNothing() {
+        when(jdbcTemplate.queryForList("DELETE FROM object_catalog WHERE key = ? RETURNING size", Long.class, "a/file"))
+                .thenReturn(List.of());
+
+        catalog.remove(List.of("a/file"));
+
+        verify(jdbcTemplate, never()).update(eq(DELTA), any(Object[].class));
+        verify(jdbcTemplate, never()).update(eq(PRUNE), any(Object[].class));
+    }
+
+    @Test
+    void appliesDeltasSummedPerFolder() throws SQLException {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT pg_try_advisory_xact_lock"), eq(Boolean.class))).thenReturn(true);
+        ResultSet deltas = mock(ResultSet.class);
+        when(deltas.next()).thenReturn(true, true, false);
+        when(deltas.getString("key")).thenReturn("a/b/x", "a/y");
+        when(deltas.getLong("delta")).thenReturn(5L, -2L);
+        when(deltas.getTimestamp("modified_at")).thenReturn(Timestamp.from(MODIFIED));
+        when(jdbcTemplate.query(startsWith("DELETE FROM object_catalog_deltas WHERE id IN"), any(ResultSetExtractor.class),
+                any(Object[].class))).thenAnswer(invocation -> invocation.<ResultSetExtractor<Integer>>getArgument(1).extractData(deltas));
+
+        assertThat(catalog.applyDeltas(100)).isEqualTo(2);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> updates = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE object_catalog SET size = size + ?"), updates.capture());
+        assertThat(updates.getValue()).satisfiesExactly(
+                folder -> assertThat(folder).containsExactly(3L, Timestamp.from(MODIFIED), "a/"),
+                folder -> assertThat(folder).containsExactly(5L, Timestamp.from(MODIFIED), "a/b/"));
+        InOrder order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).update(PRUNE, "a/b/");
+        order.verify(jdbcTemplate).update(PRUNE, "a/");
+    }
+
+    @Test
+    void leavesDeltasToTheInstanceHoldingTheLock() {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT pg_try_advisory_xact_lock"), eq(Boolean.class))).thenReturn(false);
+
+        assertThat(catalog.applyDeltas(100)).isZero();
+
+        verify(jdbcTemplate, never()).query(anyString(), any(ResultSetExtractor.class), any(Object[].class));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void listsOneLevelWithFoldersAsCommonPrefixes() {
+        listing(row("a/b/", true, 30), row("a/c", false, 4), row("a/d", false, 5));
+
+        StorageBackend.ListingPage page = catalog.list("a/", null, 2);
+
+        assertThat(page.commonPrefixes()).containsExactly("a/b/");
+        assertThat(page.folders().get("a/b/").size()).isEqualTo(30);
+        assertThat(page.objects()).extracting(StorageBackend.ObjectInfo::key).containsExactly("a/c");
+        assertThat(page.nextCursor()).isEqualTo("a/c");
+        verify(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq("a/"), eq("a/%"), eq(""), eq(3));
+    }
+
+    @Test
+    void finishingAReconcileRebuildsOneTopLevelFolderAtATime() {
+        when(jdbcTemplate.queryForList(startsWith("SELECT key FROM object_catalog WHERE key >= ?"), eq(String.class), any(Object[].class)))
+                .thenAnswer(invocation -> switch (invocation.<String>getArgument(2)) {
+                    case "" -> List.of("a/x");
+                    case "a0" -> List.of("b/c/y");
+                    default -> List.of();
+                });
+        Timestamp runStart = Timestamp.from(MODIFIED);
+
+        catalog.finishReconcile(runStart);
+
+        InOrder order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).update("DELETE FROM object_catalog WHERE NOT folder AND (seen_at IS NULL OR seen_at < ?)", runStart);
+        order.verify(jdbcTemplate).update("DELETE FROM object_catalog_deltas WHERE key LIKE ? ESCAPE '\\'", "a/%");
+        order.verify(jdbcTemplate).update("DELETE FROM object_catalog_deltas WHERE key LIKE ? ESCAPE '\\'", "b/%");
+        order.verify(jdbcTemplate).update(startsWith("INSERT INTO object_catalog_state"), eq(runStart));
+        assertThat(catalog.isReady()).isTrue();
+    }
+
+    private void listing(ResultSet... rows) {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (ResultSet row : rows) {
+                handler.processRow(row);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+    }
+
+    private static ResultSet row(String key, boolean folder, long size) {
+        try {
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getString("key")).thenReturn(key);
+            when(rs.getBoolean("folder")).thenReturn(folder);
+            when(rs.getLong("size")).thenReturn(size);
+            when(rs.getTimestamp("modified_at")).thenReturn(Timestamp.from(MODIFIED));
+            return rs;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.fileManagement.FileManagement.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.util.unit.DataSize;
+
+import com.fileManagement.FileManagement.exceptions.InvalidRequestException;
+
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
+import software.amazon.awssdk.services.s3.model.CopyObjectResponse;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Error;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.paginators.ListObjectsV2Iterable;
+
+class S3BatchOperationsTest {
+
+    private final S3Client s3Client = mock(S3Client.class);
+    private final S3BatchOperations operations = new S3BatchOperations(s3Client, "bucket", 4,
+            DataSize.ofGigabytes(1), DataSize.ofMegabytes(256));
+    private final List<DeleteObjectsRequest> deleteRequests = Collections.synchronizedList(new ArrayList<>());
+
+    @AfterEach
+    void shutdown() {
+        operations.shutdown();
+    }
+
+    @Test
+    void deleteKeysSplitsIntoBatchesOfAThousand() {
+        deleteSucceeds();
+        List<String> keys = IntStream.range(0, 2500).mapToObj(i -> "a/" + i).toList();
+
+        Map<String, String> failures = operations.deleteKeys(keys);
+
+        assertThat(failures).isEmpty();
+        assertThat(deleteRequests).hasSize(3);
+        assertThat(deleteRequests.stream().mapToInt(request -> request.delete().objects().size()).sorted().toArray())
+                .containsExactly(500, 1000, 1000);
+    }
+
+    @Test
+    void deleteKeysReportsPerKeyErrors() {
+        when(s3Client.deleteObjects(any(DeleteObjectsRequest.class))).thenReturn(DeleteObjectsResponse.builder()
+                .errors(S3Error.builder().key("a/2").code("AccessDenied").message("Access Denied").build())
+                .build());
+
+        Map<String, String> failures = operations.deleteKeys(List.of("a/1", "a/2"));
+
+        assertThat(failures).containsExactly(Map.entry("a/2", "AccessDenied: Access Denied"));
+    }
+
+    @Test
+    void deleteKeysReportsEveryKeyOfAFailedBatch() {
+        when(s3Client.deleteObjects(any(DeleteObjectsRequest.class))).thenThrow(s3Exception("SlowDown"));
+
+        Map<String, String> failures = operations.deleteKeys(List.of("a/1", "a/2"));
+
+        assertThat(failures).containsOnlyKeys("a/1", "a/2");
+    }
+
+    @Test
+    void deletePrefixRefusesTheWholeBucket() {
+        assertThatThrownBy(() -> operations.deletePrefix("")).isInstanceOf(IllegalArgumentException.class);
+        verify(s3Client, never()).deleteObjects(any(DeleteObjectsRequest.class));
+    }
+
+    @Test
+    void deletePrefixDeletesEveryListedKey() {
+        listing("src/", "src/a", "src/b");
+        deleteSucceeds();
+
+        assertThat(operations.deletePrefix("src/")).isEmpty();
+        assertThat(deletedKeys()).containsExactlyInAnyOrder("src/a", "src/b");
+    }
+
+    @Test
+    void movePrefixDeletesSourcesOnlyAfterEveryCopy() {
+        listing("src/", "src/a", "src/b");
+        when(s3Client.copyObject(any(CopyObjectRequest.class))).thenReturn(CopyObjectResponse.builder().build());
+        deleteSucceeds();
+
+        Map<String, String> failures = operations.movePrefix("src/", "dst/");
+
+        assertThat(failures).isEmpty();
+        ArgumentCaptor<CopyObjectRequest> copies = ArgumentCaptor.forClass(CopyObjectRequest.class);
+        verify(s3Client, times(2)).copyObject(copies.capture());
+        assertThat(copies.getAllValues()).extracting(CopyObjectRequest::destinationKey)
+                .containsExactlyInAnyOrder("dst/a", "dst/b");
+        assertThat(deletedKeys()).containsExactlyInAnyOrder("src/a", "src/b");
+    }
+
+    @Test
+    void movePrefixRemovesPartialCopiesAndKeepsSourceWhenACopyFails() {
+        listing("src/", "src/a", "src/b");
+        when(s3Client.copyObject(any(CopyObjectRequest.class))).thenAnswer(invocation -> {
+            CopyObjectRequest request = invocation.getArgument(0);
+            if (request.sourceKey().equals("src/b")) {
+                throw s3Exception("AccessDenied");
+            }
+            return CopyObjectResponse.builder().build();
+        });
+        deleteSucceeds();
+
+        Map<String, String> failures = operations.movePrefix("src/", "dst/");
+
+        assertThat(failures).containsOnlyKeys("src/b");
+        assertThat(deletedKeys()).containsExactly("dst/a");
+    }
+
+    @Test
+    void movePrefixRefusesToMoveIntoItself() {
+        assertThatThrownBy(() -> operations.movePrefix("src/", "src/inner/"))
+                .isInstanceOf(InvalidRequestException.class);
+    }
+
+    private void listing(String prefix, String... keys) {
+        ListObjectsV2Request request = ListObjectsV2Request.builder().bucket("bucket").prefix(prefix).build();
+        when(s3Client.listObjectsV2Paginator(request)).thenReturn(new ListObjectsV2Iterable(s3Client, request));
+        when(s3Client.listObjectsV2(any(ListObjectsV2Request.class))).thenReturn(ListObjectsV2Response.builder()
+                .contents(Arrays.stream(keys).map(key -> S3Object.builder().key(key).size(1L).build()).toList())
+                .isTruncated(false)
+                .build());
+    }
+
+    private void deleteSucceeds() {
+        when(s3Client.deleteObjects(any(DeleteObjectsRequest.class))).thenAnswer(invocation -> {
+            deleteRequests.add(invocation.getArgument(0));
+            return DeleteObjectsResponse.builder().build();
+        });
+    }
+
+    private List<String> deletedKeys() {
+        return deleteRequests.stream()
+                .flatMap(request -> request.delete().objects().stream())
+                .map(ObjectIdentifier::key)
+                .toList();
+    }
+
+    private static S3Exception s3Exception(String code) {
+        return (S3Exception) S3Exception.builder()
+                .message(code)
+                .awsErrorDetails(AwsErrorDetails.builder().errorCode(code).errorMessage(code).build())
+                .build();
+    }
+}